@@ -20,6 +20,7 @@ import com.lfa.constants.Constants;
 import com.lfa.exception.ValidationException;
 import com.lfa.exception.ValidationException.ErrorType;
 import com.lfa.minimize.AFDMinimizer;
+import com.lfa.minimize.StatePartition;
 import com.lfa.output.OutputPrinter;
 import com.lfa.parse.InputParser;
 
@@ -49,8 +50,15 @@ public class MainClass {
 				input = StringUtils.join(Files.readAllLines(inputFile.toPath(), detectedCharSet), StringUtils.EMPTY);
 
 				AFD inputAFD = InputParser.parse(input);
-				AFD outputAFD = AFDMinimizer.minimize(inputAFD);
-				if (fileMap.containsKey(Constants.AUTOTEST) && inputAFD.size() != outputAFD.size()) {
+				StatePartition partition = AFDMinimizer.partition(inputAFD);
+				boolean autotest = fileMap.containsKey(Constants.AUTOTEST) && !partition.isMinimal();
+
+				// O AFD minimizado só é montado se for usado.
+				AFD outputAFD = null;
+				if (autotest || fileMap.containsKey(Constants.OPT_MINIMIZED)) {
+					outputAFD = AFDMinimizer.materialize(partition);
+				}
+				if (autotest) {
 					List<String> originals = new ArrayList<String>();
 					List<String> outputs = new ArrayList<String>();
 					for (int i = 0; i < 3; i++) {
@@ -81,7 +89,10 @@ public class MainClass {
 				if (fileMap.containsKey(Constants.OPT_MINIMIZED)) {
 					OutputPrinter.printToFile(outputAFD, fileMap.get(Constants.OPT_MINIMIZED), "AFD Minimizado", detectedCharSet);
 				}
-				if (inputAFD.size() == outputAFD.size()) {
+				if (partition.getUnreachableStates() + partition.getDeadStates() > 0) {
+					System.out.println("Estados inalcançáveis removidos: " + partition.getUnreachableStates() + ". Estados mortos removidos: " + partition.getDeadStates() + ".");
+				}
+				if (partition.isMinimal()) {
 					System.out.println("AFD já era mínimo.");
 				} else {
 					System.out.println("AFD não era mínimo e foi minimizado.");
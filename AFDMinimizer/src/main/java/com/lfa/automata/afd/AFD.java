@@ -1,6 +1,7 @@
 package com.lfa.automata.afd;
 
 import java.util.Collection;
+import java.util.LinkedHashSet;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -9,7 +10,11 @@ import lombok.ToString;
 import org.apache.commons.lang3.StringUtils;
 
 import com.lfa.automata.Automata;
+import com.lfa.automata.afd.State.Transition;
 import com.lfa.collections.ImmutableLinkedSet;
+import com.lfa.constants.Alphabet;
+import com.lfa.exception.ValidationException;
+import com.lfa.exception.ValidationException.ErrorType;
 
 /**
  * A classe AFD. Representa um AFD no sistema. É capaz de reconhecer palavras
@@ -18,16 +23,18 @@ import com.lfa.collections.ImmutableLinkedSet;
  * @author Andre Brait (andrebrait@gmail.com)
  */
 @Data
-@EqualsAndHashCode(callSuper = false, of = { "initialState", "states", "finalStates" })
-@ToString(callSuper = false, of = { "initialState", "states", "finalStates" })
+@EqualsAndHashCode(callSuper = false, of = { "alphabet", "initialState", "states", "finalStates" })
+@ToString(callSuper = false, of = { "alphabet", "initialState", "states", "finalStates" })
 public class AFD implements Automata {
 
+	private final Alphabet alphabet;
 	private final State initialState;
 	private final ImmutableLinkedSet<State> states;
 	private final ImmutableLinkedSet<State> finalStates;
 
 	/**
-	 * Instancia um novo AFD.
+	 * Instancia um novo AFD cujo alfabeto é formado pelos símbolos consumidos
+	 * em suas transições, na ordem em que aparecem.
 	 *
 	 * @param initialState
 	 *            O estado inicial do AFD.
@@ -37,16 +44,61 @@ public class AFD implements Automata {
 	 *            A coleção de estados finais do AFD.
 	 */
 	public AFD(State initialState, Collection<State> states, Collection<State> finalStates) {
+		this(alphabetOf(states), initialState, states, finalStates);
+	}
+
+	/**
+	 * Instancia um novo AFD.
+	 *
+	 * @param alphabet
+	 *            O alfabeto do AFD. Deve conter todos os símbolos consumidos
+	 *            nas transições.
+	 * @param initialState
+	 *            O estado inicial do AFD.
+	 * @param states
+	 *            A coleção de estados do AFD, incluindo o inicial e o final.
+	 * @param finalStates
+	 *            A coleção de estados finais do AFD.
+	 */
+	public AFD(Alphabet alphabet, State initialState, Collection<State> states, Collection<State> finalStates) {
+		for (State state : states) {
+			for (Transition transition : state.getTransitions()) {
+				if (alphabet.getSymbol(transition.getConsumed().getStr()) == null) {
+					throw new ValidationException(ErrorType.AFD, "Símbolo não presente no alfabeto do AFD: " + transition.getConsumed().getStr() + ". Estado: " + state.getName() + ".");
+				}
+			}
+		}
+		this.alphabet = alphabet;
 		this.initialState = initialState;
 		this.states = ImmutableLinkedSet.<State> builder().addAll(states).build();
 		this.finalStates = ImmutableLinkedSet.<State> builder().addAll(finalStates).build();
 	}
 
+	/**
+	 * Monta o alfabeto formado pelos símbolos consumidos nas transições dos
+	 * estados.
+	 *
+	 * @param states
+	 *            Os estados.
+	 * @return O alfabeto.
+	 */
+	private static Alphabet alphabetOf(Collection<State> states) {
+		LinkedHashSet<String> symbols = new LinkedHashSet<>();
+		for (State state : states) {
+			for (Transition transition : state.getTransitions()) {
+				symbols.add(transition.getConsumed().getStr());
+			}
+		}
+		return new Alphabet(symbols);
+	}
+
 	@Override
 	public void run(String str) {
+		String input = StringUtils.defaultString(str);
 		State present = initialState;
-		while (!(finalStates.contains(present) && StringUtils.isEmpty(str))) {
-			str = present.consume(str);
+		int index = 0;
+		while (!(finalStates.contains(present) && index == input.length())) {
+			index = present.consume(input, index, alphabet);
 			present = present.getNext();
 		}
 	}
@@ -56,4 +108,4 @@ public class AFD implements Automata {
 		return states.size();
 	}
 
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,209 @@
+package com.lfa.automata.afd;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import com.lfa.automata.afd.State.Transition;
+import com.lfa.collections.ImmutableLinkedSet;
+import com.lfa.constants.Alphabet;
+import com.lfa.exception.ValidationException;
+import com.lfa.exception.ValidationException.ErrorType;
+
+/**
+ * Classe CompactAFD. Representação imutável e compacta de um AFD, sem objetos
+ * por estado ou por transição. Os estados são identificados por índices de 0
+ * a n - 1 e os símbolos, por sua posição no alfabeto. As transições ficam em
+ * uma tabela densa de n·k inteiros, com {@link #NONE} para transições
+ * inexistentes, e os estados finais, em um conjunto de bits, de modo que cada
+ * transição custa 4 bytes e é encontrada em tempo constante. Para AFDs grandes
+ * demais para a memória, veja {@link OffHeapAFD}.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+@EqualsAndHashCode(callSuper = false, of = { "alphabet", "initialState", "table", "finals" })
+@ToString(callSuper = false, of = { "alphabet", "initialState", "stateNames" })
+public final class CompactAFD implements TableAFD {
+
+	@Getter
+	private final Alphabet alphabet;
+
+	/** O índice do estado inicial. */
+	@Getter
+	private final int initialState;
+
+	/** O nome de cada estado. */
+	private final String[] stateNames;
+
+	/** A tabela de transições, com uma linha de k destinos por estado. */
+	private final int[] table;
+
+	/** Os estados finais. */
+	private final BitSet finals;
+
+	/**
+	 * Instancia um novo CompactAFD. Os vetores são copiados.
+	 *
+	 * @param alphabet
+	 *            O alfabeto. Cada símbolo é uma coluna da tabela.
+	 * @param stateNames
+	 *            O nome de cada estado.
+	 * @param initialState
+	 *            O índice do estado inicial.
+	 * @param table
+	 *            A tabela de transições, com stateNames.length linhas de
+	 *            alphabet.size() destinos, ou {@link #NONE}.
+	 * @param finals
+	 *            Os índices dos estados finais.
+	 */
+	public CompactAFD(Alphabet alphabet, String[] stateNames, int initialState, int[] table, BitSet finals) {
+		int n = stateNames.length;
+		int k = alphabet.size();
+		if (table.length != n * k) {
+			throw new ValidationException(ErrorType.AFD, "A tabela de transições deve ter " + n * k + " posições, mas tem " + table.length + ".");
+		}
+		if (initialState < 0 || initialState >= n) {
+			throw new ValidationException(ErrorType.AFD, "Estado inicial inexistente: " + initialState + ".");
+		}
+		for (int destination : table) {
+			if (destination < NONE || destination >= n) {
+				throw new ValidationException(ErrorType.AFD, "Estado de destino inexistente: " + destination + ".");
+			}
+		}
+		if (finals.length() > n) {
+			throw new ValidationException(ErrorType.AFD, "Estado final inexistente: " + (finals.length() - 1) + ".");
+		}
+		this.alphabet = alphabet;
+		this.stateNames = stateNames.clone();
+		this.initialState = initialState;
+		this.table = table.clone();
+		this.finals = (BitSet) finals.clone();
+	}
+
+	/**
+	 * Monta a representação compacta de um AFD. Os estados recebem o índice de
+	 * sua posição em {@link AFD#getStates()} e os símbolos, o de sua posição
+	 * no alfabeto do AFD.
+	 *
+	 * @param afd
+	 *            O AFD.
+	 * @return O AFD compacto.
+	 */
+	public static CompactAFD of(AFD afd) {
+		ImmutableLinkedSet<State> states = afd.getStates();
+		int n = states.size();
+		HashMap<State, Integer> stateIndex = new HashMap<>(n * 2);
+		String[] names = new String[n];
+		for (int i = 0; i < n; i++) {
+			stateIndex.put(states.get(i), i);
+			names[i] = states.get(i).getName();
+		}
+		Alphabet alphabet = afd.getAlphabet();
+		int k = alphabet.size();
+		int[] table = new int[n * k];
+		Arrays.fill(table, NONE);
+		for (int i = 0; i < n; i++) {
+			for (Transition transition : states.get(i).getTransitions()) {
+				table[i * k + alphabet.ordinalOf(transition.getConsumed())] = stateIndex.get(transition.getDestination());
+			}
+		}
+		BitSet finals = new BitSet(n);
+		for (State state : afd.getFinalStates()) {
+			finals.set(stateIndex.get(state));
+		}
+		return new CompactAFD(alphabet, names, stateIndex.get(afd.getInitialState()), table, finals);
+	}
+
+	/**
+	 * Copia qualquer {@link TableAFD} para a memória, com os mesmos índices de
+	 * estados e símbolos.
+	 *
+	 * @param afd
+	 *            O AFD.
+	 * @return O AFD compacto.
+	 */
+	public static CompactAFD of(TableAFD afd) {
+		int n = afd.size();
+		int k = afd.alphabetSize();
+		String[] names = new String[n];
+		int[] table = new int[n * k];
+		BitSet finals = new BitSet(n);
+		for (int i = 0; i < n; i++) {
+			names[i] = afd.getStateName(i);
+			for (int a = 0; a < k; a++) {
+				table[i * k + a] = afd.next(i, a);
+			}
+			if (afd.isFinal(i)) {
+				finals.set(i);
+			}
+		}
+		return new CompactAFD(afd.getAlphabet(), names, afd.getInitialState(), table, finals);
+	}
+
+	/**
+	 * Monta o AFD equivalente, com um {@link State} para cada estado, na ordem
+	 * dos índices.
+	 *
+	 * @return O AFD.
+	 */
+	public AFD toAFD() {
+		int n = size();
+		int k = alphabetSize();
+		State[] states = new State[n];
+		for (int i = 0; i < n; i++) {
+			states[i] = new State(stateNames[i]);
+		}
+		State[] finalStates = new State[finals.cardinality()];
+		int count = 0;
+		for (int i = finals.nextSetBit(0); i >= 0; i = finals.nextSetBit(i + 1)) {
+			finalStates[count++] = states[i];
+		}
+		for (int i = 0; i < n; i++) {
+			for (int a = 0; a < k; a++) {
+				int destination = table[i * k + a];
+				if (destination != NONE) {
+					states[i].addTransition(alphabet.getSymbol(a), states[destination]);
+				}
+			}
+		}
+		return new AFD(alphabet, states[initialState], Arrays.asList(states), Arrays.asList(finalStates));
+	}
+
+	@Override
+	public int size() {
+		return stateNames.length;
+	}
+
+	@Override
+	public int alphabetSize() {
+		return alphabet.size();
+	}
+
+	@Override
+	public int next(int state, int symbol) {
+		return table[state * alphabet.size() + symbol];
+	}
+
+	@Override
+	public boolean isFinal(int state) {
+		return finals.get(state);
+	}
+
+	/**
+	 * Retorna o número de estados finais.
+	 *
+	 * @return O número de estados finais.
+	 */
+	public int finalStateCount() {
+		return finals.cardinality();
+	}
+
+	@Override
+	public String getStateName(int state) {
+		return stateNames[state];
+	}
+}
@@ -0,0 +1,196 @@
+package com.lfa.automata.afd;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import com.lfa.constants.Alphabet;
+
+/**
+ * Classe OffHeapAFD. Representação imutável de um AFD cuja tabela de
+ * transições e cujo conjunto de estados finais ficam fora do heap, em
+ * {@link ByteBuffer}s diretos ou, para tabelas maiores que a memória, em
+ * segmentos mapeados de um arquivo temporário. No heap ficam apenas o
+ * alfabeto e alguns vetores pequenos, de modo que AFDs com centenas de
+ * milhões de transições não pesam na coleta de lixo.
+ *
+ * A tabela é dividida em segmentos de 1 GiB, já que um buffer é endereçado
+ * por int. Os estados não têm nomes armazenados e são nomeados G1, G2, ...,
+ * na ordem dos índices.
+ *
+ * Buffers diretos são liberados quando o OffHeapAFD é coletado; o arquivo
+ * temporário de um OffHeapAFD mapeado é apagado por {@link #close()}.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+@ToString(callSuper = false, of = { "alphabet", "initialState", "size" })
+public final class OffHeapAFD implements TableAFD, Closeable {
+
+	/** O logaritmo do tamanho de cada segmento, em bytes. */
+	private static final int SEGMENT_SHIFT = 30;
+
+	private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+	@Getter
+	private final Alphabet alphabet;
+
+	@Getter
+	private final int initialState;
+
+	private final int size;
+	private final int k;
+
+	/** Os segmentos da tabela de transições. */
+	private final ByteBuffer[] table;
+
+	/** Os estados finais, um bit por estado. */
+	private final ByteBuffer finals;
+
+	/** O arquivo temporário, ou null, se os buffers forem diretos. */
+	private final File temporary;
+
+	/**
+	 * Instancia um novo OffHeapAFD, copiando a tabela de outro AFD.
+	 *
+	 * @param source
+	 *            O AFD copiado.
+	 * @param channel
+	 *            O canal do arquivo temporário, ou null, para buffers
+	 *            diretos.
+	 * @param temporary
+	 *            O arquivo temporário, ou null.
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	private OffHeapAFD(TableAFD source, FileChannel channel, File temporary) throws IOException {
+		this.alphabet = source.getAlphabet();
+		this.initialState = source.getInitialState();
+		this.size = source.size();
+		this.k = source.alphabetSize();
+		this.temporary = temporary;
+
+		long tableBytes = (long) size * k << 2;
+		int count = (int) ((tableBytes + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+		this.table = new ByteBuffer[Math.max(count, 1)];
+		for (int i = 0; i < table.length; i++) {
+			long start = (long) i << SEGMENT_SHIFT;
+			table[i] = allocate(channel, start, Math.min(tableBytes - start, SEGMENT_MASK + 1));
+		}
+		this.finals = allocate(channel, tableBytes, (size + 7L) >>> 3);
+
+		for (int s = 0; s < size; s++) {
+			long row = (long) s * k;
+			for (int a = 0; a < k; a++) {
+				long position = row + a << 2;
+				table[(int) (position >>> SEGMENT_SHIFT)].putInt((int) (position & SEGMENT_MASK), source.next(s, a));
+			}
+			if (source.isFinal(s)) {
+				finals.put(s >>> 3, (byte) (finals.get(s >>> 3) | 1 << (s & 7)));
+			}
+		}
+	}
+
+	/**
+	 * Copia um AFD para buffers diretos, fora do heap.
+	 *
+	 * @param source
+	 *            O AFD.
+	 * @return A cópia.
+	 */
+	public static OffHeapAFD copyOf(TableAFD source) {
+		try {
+			return new OffHeapAFD(source, null, null);
+		} catch (IOException e) {
+			// Buffers diretos não fazem E/S.
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Copia um AFD para segmentos mapeados de um arquivo temporário, para
+	 * tabelas maiores que a memória disponível.
+	 *
+	 * @param source
+	 *            O AFD.
+	 * @param directory
+	 *            O diretório do arquivo temporário, ou null, para o diretório
+	 *            temporário padrão.
+	 * @return A cópia, que deve ser fechada para apagar o arquivo.
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	public static OffHeapAFD copyOf(TableAFD source, File directory) throws IOException {
+		File file = File.createTempFile("afd", ".map", directory);
+		file.deleteOnExit();
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(((long) source.size() * source.alphabetSize() << 2) + ((source.size() + 7L) >>> 3));
+			return new OffHeapAFD(source, raf.getChannel(), file);
+		} catch (IOException | RuntimeException e) {
+			file.delete();
+			throw e;
+		}
+	}
+
+	/**
+	 * Reserva um buffer, direto ou mapeado.
+	 *
+	 * @param channel
+	 *            O canal do arquivo, ou null, para um buffer direto.
+	 * @param offset
+	 *            A posição do buffer no arquivo.
+	 * @param bytes
+	 *            O tamanho do buffer.
+	 * @return O buffer, zerado.
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	private static ByteBuffer allocate(FileChannel channel, long offset, long bytes) throws IOException {
+		ByteBuffer buffer = channel == null ? ByteBuffer.allocateDirect((int) bytes) : channel.map(MapMode.READ_WRITE, offset, bytes);
+		return buffer.order(ByteOrder.nativeOrder());
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public int alphabetSize() {
+		return k;
+	}
+
+	@Override
+	public int next(int state, int symbol) {
+		long position = (long) state * k + symbol << 2;
+		return table[(int) (position >>> SEGMENT_SHIFT)].getInt((int) (position & SEGMENT_MASK));
+	}
+
+	@Override
+	public boolean isFinal(int state) {
+		return (finals.get(state >>> 3) & 1 << (state & 7)) != 0;
+	}
+
+	@Override
+	public String getStateName(int state) {
+		return "G" + (state + 1);
+	}
+
+	/**
+	 * Apaga o arquivo temporário, se houver. O OffHeapAFD não deve ser usado
+	 * depois de fechado.
+	 */
+	@Override
+	public void close() {
+		if (temporary != null) {
+			temporary.delete();
+		}
+	}
+}
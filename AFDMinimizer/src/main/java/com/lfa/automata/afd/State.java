@@ -75,18 +75,6 @@ public class State {
 		this.transitions = new LinkedHashSet<>();
 	}
 
-	/**
-	 * Adiciona uma transição de estado
-	 *
-	 * @param consumed
-	 *            A string do símbolo consumido
-	 * @param destination
-	 *            O estado de destino
-	 */
-	public void addTransition(String consumed, State destination) {
-		addTransition(Constants.ALPHABET.getSymbol(consumed), destination);
-	}
-
 	/**
 	 * Adiciona uma transição de estado
 	 *
@@ -126,21 +114,47 @@ public class State {
 	}
 
 	/**
-	 * Consome o primeiro símbolo da string e passa ao próximo estado.
+	 * Retorna o destino da transição que consome um símbolo.
+	 *
+	 * @param consumed
+	 *            O símbolo consumido.
+	 * @return O estado de destino, ou nulo se não houver transição.
+	 */
+	public State getDestination(Symbol consumed) {
+		for (Transition trans : transitions) {
+			if (trans.getConsumed().equals(consumed)) {
+				return trans.getDestination();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Consome o caractere de uma posição da string e passa ao próximo estado.
+	 * O caractere é convertido no símbolo pela tabela de busca do alfabeto,
+	 * sem criar Strings.
 	 *
 	 * @param str
 	 *            A string
-	 * @return A string original menos o caractere consumido.
+	 * @param index
+	 *            A posição do caractere a consumir.
+	 * @param alphabet
+	 *            O alfabeto do autômato.
+	 * @return A posição seguinte ao caractere consumido.
 	 */
-	public String consume(String str) {
-		String firstChar = StringUtils.left(str, 1);
-		for (Transition trans : getTransitions()) {
-			if (trans.getConsumed().getStr().equals(firstChar)) {
-				setNext(trans.getDestination());
-				return StringUtils.removeStart(str, firstChar);
+	public int consume(String str, int index, Alphabet alphabet) {
+		if (index < str.length()) {
+			int codePoint = str.codePointAt(index);
+			int ordinal = alphabet.ordinalOf(codePoint);
+			State destination = ordinal == Alphabet.NONE ? null : getDestination(alphabet.getSymbol(ordinal));
+			if (destination != null) {
+				setNext(destination);
+				return index + Character.charCount(codePoint);
 			}
 		}
-		throw new ValidationException(ErrorType.AFD, "Transição não encontrada para o símbolo presente no estado " + getName() + "." + Constants.NEWLINE + "Símbolo: " + firstChar + ". String: " + str
+		String rest = index < str.length() ? str.substring(index) : StringUtils.EMPTY;
+		String firstChar = rest.isEmpty() ? rest : new String(Character.toChars(rest.codePointAt(0)));
+		throw new ValidationException(ErrorType.AFD, "Transição não encontrada para o símbolo presente no estado " + getName() + "." + Constants.NEWLINE + "Símbolo: " + firstChar + ". String: " + rest
 				+ ".");
 	}
 }
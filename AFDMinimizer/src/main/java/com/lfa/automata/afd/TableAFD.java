@@ -0,0 +1,134 @@
+package com.lfa.automata.afd;
+
+import com.lfa.constants.Alphabet;
+import com.lfa.constants.Constants;
+import com.lfa.exception.ValidationException;
+import com.lfa.exception.ValidationException.ErrorType;
+
+/**
+ * Interface TableAFD. API de leitura de um AFD representado por uma tabela de
+ * transições, comum às representações na memória, como {@link CompactAFD},
+ * e fora dela, como {@link OffHeapAFD}. Os estados são identificados por
+ * índices de 0 a n - 1 e os símbolos, por sua posição no alfabeto. O
+ * reconhecimento de palavras e a minimização usam somente esta API.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+public interface TableAFD {
+
+	/** Indica uma transição inexistente. */
+	int NONE = -1;
+
+	/**
+	 * Retorna o alfabeto. Cada símbolo é uma coluna da tabela.
+	 *
+	 * @return O alfabeto.
+	 */
+	Alphabet getAlphabet();
+
+	/**
+	 * Retorna o número de estados.
+	 *
+	 * @return O número de estados.
+	 */
+	int size();
+
+	/**
+	 * Retorna o número de símbolos do alfabeto.
+	 *
+	 * @return O número de símbolos.
+	 */
+	int alphabetSize();
+
+	/**
+	 * Retorna o índice do estado inicial.
+	 *
+	 * @return O estado inicial.
+	 */
+	int getInitialState();
+
+	/**
+	 * Retorna o destino de uma transição.
+	 *
+	 * @param state
+	 *            O índice do estado de origem.
+	 * @param symbol
+	 *            A posição do símbolo no alfabeto.
+	 * @return O índice do destino, ou {@link #NONE}.
+	 */
+	int next(int state, int symbol);
+
+	/**
+	 * Verifica se um estado é final.
+	 *
+	 * @param state
+	 *            O índice do estado.
+	 * @return true, se o estado for final.
+	 */
+	boolean isFinal(int state);
+
+	/**
+	 * Retorna o nome de um estado.
+	 *
+	 * @param state
+	 *            O índice do estado.
+	 * @return O nome.
+	 */
+	String getStateName(int state);
+
+	/**
+	 * Retorna o símbolo consumido por um caractere, pela tabela de busca do
+	 * alfabeto.
+	 *
+	 * @param codePoint
+	 *            O code point do caractere, dentro ou fora do BMP.
+	 * @return A posição do símbolo no alfabeto, ou {@link #NONE}.
+	 */
+	default int symbolOf(int codePoint) {
+		return getAlphabet().ordinalOf(codePoint);
+	}
+
+	/**
+	 * Verifica se o AFD aceita uma palavra, consumindo um caractere por vez.
+	 *
+	 * @param str
+	 *            A palavra.
+	 * @return true, se a palavra for aceita.
+	 */
+	default boolean accepts(String str) {
+		int state = getInitialState();
+		for (int i = 0; i < str.length() && state != NONE;) {
+			int codePoint = str.codePointAt(i);
+			int symbol = symbolOf(codePoint);
+			state = symbol == NONE ? NONE : next(state, symbol);
+			i += Character.charCount(codePoint);
+		}
+		return state != NONE && isFinal(state);
+	}
+
+	/**
+	 * Executa o AFD sobre uma palavra, como {@link AFD#run(String)}: lança uma
+	 * exceção se não houver transição para algum caractere ou se a palavra
+	 * terminar em um estado não final.
+	 *
+	 * @param str
+	 *            A palavra.
+	 */
+	default void run(String str) {
+		int state = getInitialState();
+		for (int i = 0; i < str.length();) {
+			int codePoint = str.codePointAt(i);
+			int symbol = symbolOf(codePoint);
+			int destination = symbol == NONE ? NONE : next(state, symbol);
+			if (destination == NONE) {
+				throw new ValidationException(ErrorType.AFD, "Transição não encontrada para o símbolo presente no estado " + getStateName(state) + "." + Constants.NEWLINE + "Símbolo: "
+						+ new String(Character.toChars(codePoint)) + ". String: " + str.substring(i) + ".");
+			}
+			state = destination;
+			i += Character.charCount(codePoint);
+		}
+		if (!isFinal(state)) {
+			throw new ValidationException(ErrorType.AFD, "A palavra terminou no estado não final " + getStateName(state) + ". String: " + str + ".");
+		}
+	}
+}
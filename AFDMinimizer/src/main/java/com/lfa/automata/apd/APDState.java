@@ -78,12 +78,6 @@ public class APDState extends State {
 		super(name);
 	}
 
-	@Deprecated
-	@Override
-	public void addTransition(String consumed, State destination) throws UnsupportedOperationException {
-		throw new UnsupportedOperationException("Operação não suportada para APD.");
-	}
-
 	@Deprecated
 	@Override
 	public void addTransition(Symbol consumed, State destination) throws UnsupportedOperationException {
@@ -226,7 +220,7 @@ public class APDState extends State {
 
 	@Deprecated
 	@Override
-	public String consume(String str) throws UnsupportedOperationException {
+	public int consume(String str, int index, Alphabet alphabet) throws UnsupportedOperationException {
 		throw new UnsupportedOperationException("Operação não suportada para APD.");
 	}
 
@@ -0,0 +1,159 @@
+package com.lfa.collections;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The Class ImmutableIntMap. An immutable map whose keys are the dense range of
+ * ints from 0 to {@code size() - 1}, such as ordinals or indexes. Values are
+ * stored in a single array, indexed by key, so lookups neither box the key
+ * nor hash it. Iteration order is the order of the keys. Null values are not
+ * allowed.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ *
+ * @param <V>
+ *            the value type
+ */
+public final class ImmutableIntMap<V> implements Serializable {
+
+	private static final long serialVersionUID = -1486283420577364817L;
+
+	private static final ImmutableIntMap<Object> EMPTY_MAP = new ImmutableIntMap<>(new Object[0]);
+
+	/** The value of each key. */
+	private final Object[] values;
+
+	public static final class Builder<V> {
+
+		private Object[] values;
+		private int size;
+
+		public Builder() {
+			this.values = new Object[8];
+		}
+
+		/**
+		 * Associates a value with the next key, which is the number of keys
+		 * added so far.
+		 *
+		 * @param value
+		 *            the value
+		 * @return this builder
+		 */
+		public final Builder<V> add(V value) {
+			return put(size, value);
+		}
+
+		public final Builder<V> put(int key, V value) {
+			Objects.requireNonNull(value, "value");
+			if (key < 0) {
+				throw new IllegalArgumentException("Negative key: " + key);
+			}
+			if (key >= values.length) {
+				values = Arrays.copyOf(values, Math.max(values.length * 2, key + 1));
+			}
+			values[key] = value;
+			size = Math.max(size, key + 1);
+			return this;
+		}
+
+		public final int size() {
+			return size;
+		}
+
+		public final ImmutableIntMap<V> build() {
+			if (size == 0) {
+				return empty();
+			}
+			for (int key = 0; key < size; key++) {
+				if (values[key] == null) {
+					throw new IllegalStateException("Missing key: " + key);
+				}
+			}
+			return new ImmutableIntMap<V>(Arrays.copyOf(values, size));
+		}
+	}
+
+	private ImmutableIntMap(Object[] values) {
+		this.values = values;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <V> ImmutableIntMap<V> empty() {
+		return (ImmutableIntMap<V>) EMPTY_MAP;
+	}
+
+	public int size() {
+		return values.length;
+	}
+
+	public boolean isEmpty() {
+		return values.length == 0;
+	}
+
+	public boolean containsKey(int key) {
+		return key >= 0 && key < values.length;
+	}
+
+	public boolean containsValue(Object value) {
+		for (Object v : values) {
+			if (v.equals(value)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the value of a key.
+	 *
+	 * @param key
+	 *            the key
+	 * @return the value, or null if the key is out of range
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(int key) {
+		return key >= 0 && key < values.length ? (V) values[key] : null;
+	}
+
+	/**
+	 * Returns the values, in key order, as an unmodifiable view.
+	 *
+	 * @return the values
+	 */
+	@SuppressWarnings("unchecked")
+	public List<V> values() {
+		return Collections.unmodifiableList((List<V>) Arrays.asList(values));
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		return o == this || o instanceof ImmutableIntMap && Arrays.equals(values, ((ImmutableIntMap<?>) o).values);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(values);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("{");
+		for (int key = 0; key < values.length; key++) {
+			if (key > 0) {
+				sb.append(", ");
+			}
+			sb.append(key).append('=').append(values[key]);
+		}
+		return sb.append('}').toString();
+	}
+
+	public static <V> Builder<V> builder() {
+		return new Builder<>();
+	}
+
+}
@@ -1,23 +1,31 @@
 package com.lfa.collections;
 
 import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Set;
 
-import lombok.EqualsAndHashCode;
-import lombok.ToString;
-
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
 /**
- * The Class ImmutableLinkedMap. A very precarious implementation of an
- * Immutable linked map, which maintains iteration order. Similar to
- * {@link LinkedHashMap} with building system similar to that of Google's
- * {@link ImmutableMap}.
+ * The Class ImmutableLinkedMap. An Immutable linked map, which maintains
+ * iteration order. Similar to {@link LinkedHashMap} with building system
+ * similar to that of Google's {@link ImmutableMap}. Null keys and values are
+ * not allowed.
+ *
+ * The keys are kept in an {@link ImmutableLinkedSet}, which also serves as the
+ * index of the map, and the values in an array in the same order, so the data
+ * is stored only once. The entry set is a view, created only when requested,
+ * whose entries are created during iteration.
  *
  * @author Andre Brait (andrebrait@gmail.com)
  *
@@ -26,16 +34,16 @@ import com.google.common.collect.ImmutableMap;
  * @param <V>
  *            the value type
  */
-@ToString(callSuper = false, of = "map")
-@EqualsAndHashCode(callSuper = false, of = { "map" })
 public final class ImmutableLinkedMap<K, V> implements Map<K, V>, Serializable {
 
-	private static final long serialVersionUID = -4634534523581400045L;
+	private static final long serialVersionUID = 1872316457029538264L;
 
-	private final ImmutableMap<K, V> map;
 	private final ImmutableLinkedSet<K> keySet;
-	private final ImmutableLinkedSet<Map.Entry<K, V>> entrySet;
-	private final ImmutableList<V> values;
+
+	/** The value of each key, in the order of {@link #keySet}. */
+	private final Object[] values;
+
+	private transient Set<Map.Entry<K, V>> entrySet;
 
 	public static final class Builder<K, V> {
 
@@ -56,57 +64,50 @@ public final class ImmutableLinkedMap<K, V> implements Map<K, V>, Serializable {
 		}
 
 		public final ImmutableLinkedMap<K, V> build() {
-			ImmutableMap<K, V> finalMap = ImmutableMap.<K, V> builder().putAll(linkedMap).build();
-
-			ImmutableLinkedSet.Builder<K> keySet = ImmutableLinkedSet.<K> builder();
-			ImmutableLinkedSet.Builder<Map.Entry<K, V>> entrySet = ImmutableLinkedSet.<Map.Entry<K, V>> builder();
-			ImmutableList.Builder<V> values = ImmutableList.<V> builder();
-
-			HashMap<K, Map.Entry<K, V>> entryMap = new HashMap<>();
-			for (Map.Entry<K, V> entry : finalMap.entrySet()) {
-				entryMap.put(entry.getKey(), entry);
-			}
-
-			for (K key : linkedMap.keySet()) {
-				keySet.add(key);
-				entrySet.add(entryMap.get(key));
-				values.add(finalMap.get(key));
+			ImmutableLinkedSet<K> keySet = ImmutableLinkedSet.<K> builder().addAll(linkedMap.keySet()).build();
+			Object[] values = linkedMap.values().toArray();
+			for (Object value : values) {
+				Objects.requireNonNull(value, "value");
 			}
-
-			return new ImmutableLinkedMap<K, V>(finalMap, keySet.build(), entrySet.build(), values.build());
+			return new ImmutableLinkedMap<K, V>(keySet, values);
 		}
 	}
 
-	private ImmutableLinkedMap(ImmutableMap<K, V> map, ImmutableLinkedSet<K> keySet, ImmutableLinkedSet<Map.Entry<K, V>> entrySet, ImmutableList<V> values) {
-		this.map = map;
+	private ImmutableLinkedMap(ImmutableLinkedSet<K> keySet, Object[] values) {
 		this.keySet = keySet;
-		this.entrySet = entrySet;
 		this.values = values;
 	}
 
 	@Override
 	public int size() {
-		return map.size();
+		return values.length;
 	}
 
 	@Override
 	public boolean isEmpty() {
-		return map.isEmpty();
+		return values.length == 0;
 	}
 
 	@Override
 	public boolean containsKey(Object key) {
-		return map.containsKey(key);
+		return keySet.contains(key);
 	}
 
 	@Override
 	public boolean containsValue(Object value) {
-		return map.containsValue(value);
+		for (Object v : values) {
+			if (v.equals(value)) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	@Override
+	@SuppressWarnings("unchecked")
 	public V get(Object key) {
-		return map.get(key);
+		int index = keySet.indexOf(key);
+		return index >= 0 ? (V) values[index] : null;
 	}
 
 	@Deprecated
@@ -139,17 +140,107 @@ public final class ImmutableLinkedMap<K, V> implements Map<K, V>, Serializable {
 	}
 
 	@Override
+	@SuppressWarnings("unchecked")
 	public Collection<V> values() {
-		return values;
+		return Collections.unmodifiableList((List<V>) Arrays.asList(values));
 	}
 
 	@Override
 	public Set<Map.Entry<K, V>> entrySet() {
-		return entrySet;
+		Set<Map.Entry<K, V>> result = entrySet;
+		if (result == null) {
+			entrySet = result = new EntrySet();
+		}
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+		if (!(o instanceof Map)) {
+			return false;
+		}
+		Map<?, ?> other = (Map<?, ?>) o;
+		if (other.size() != values.length) {
+			return false;
+		}
+		for (int i = 0; i < values.length; i++) {
+			if (!values[i].equals(other.get(keySet.get(i)))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 0;
+		for (int i = 0; i < values.length; i++) {
+			hash += keySet.get(i).hashCode() ^ values[i].hashCode();
+		}
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("ImmutableLinkedMap(map={");
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(keySet.get(i)).append('=').append(values[i]);
+		}
+		return sb.append("})").toString();
 	}
 
 	public static <K, V> Builder<K, V> builder() {
 		return new Builder<>();
 	}
 
+	/**
+	 * The entry set view. Entries are created as they are iterated.
+	 */
+	private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+		@Override
+		public int size() {
+			return values.length;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+			int index = keySet.indexOf(entry.getKey());
+			return index >= 0 && values[index].equals(entry.getValue());
+		}
+
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+			return new Iterator<Map.Entry<K, V>>() {
+
+				private int cursor;
+
+				@Override
+				public boolean hasNext() {
+					return cursor < values.length;
+				}
+
+				@Override
+				@SuppressWarnings("unchecked")
+				public Map.Entry<K, V> next() {
+					if (cursor >= values.length) {
+						throw new NoSuchElementException();
+					}
+					int i = cursor++;
+					return new AbstractMap.SimpleImmutableEntry<K, V>(keySet.get(i), (V) values[i]);
+				}
+			};
+		}
+	}
+
 }
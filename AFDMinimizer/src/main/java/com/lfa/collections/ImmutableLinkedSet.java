@@ -1,138 +1,320 @@
 package com.lfa.collections;
 
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 
-import lombok.EqualsAndHashCode;
-import lombok.ToString;
-
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.UnmodifiableIterator;
 import com.google.common.collect.UnmodifiableListIterator;
 
 /**
- * The Class ImmutableLinkedSet. Works as an implementation of Google's
- * {@link ImmutableSet} which maintains iteration order by storing a
- * {@link ImmutableList} along with its set. Iteration order and criteria for
- * insertion of elements is the same as in {@link LinkedHashSet} and its Builder
- * works in a similar fashion to {@link ImmutableSet}'s Builder.
+ * The Class ImmutableLinkedSet. An immutable {@link Set} which maintains
+ * iteration order. Iteration order and criteria for insertion of elements is
+ * the same as in {@link LinkedHashSet} and its Builder works in a similar
+ * fashion to {@link ImmutableSet}'s Builder. Null elements are not allowed.
+ *
+ * The elements are stored only once, in an array in insertion order, and are
+ * located through an open-addressed hash table of indexes into that array, so
+ * {@link #contains(Object)} and {@link #indexOf(Object)} run in constant time.
+ * {@link #get(int)} and {@link #size()} allow iterating without allocating an
+ * iterator.
  *
  * @author Andre Brait (andrebrait@gmail.com)
  *
  * @param <E>
  *            the element type
  */
-@ToString(callSuper = false, of = "list")
-@EqualsAndHashCode(callSuper = false, of = "set")
 public final class ImmutableLinkedSet<E> implements Set<E>, Serializable {
 
-	private static final long serialVersionUID = -4634534523581400045L;
+	private static final long serialVersionUID = 2797624396384925561L;
+
+	/** Marks an empty slot of the hash table. */
+	private static final int EMPTY = -1;
+
+	private static final ImmutableLinkedSet<Object> EMPTY_SET = new ImmutableLinkedSet<>(new Object[0], new int[] { EMPTY });
 
-	private final ImmutableSet<E> set;
-	private final ImmutableList<E> list;
+	/** The elements, in insertion order. */
+	private final Object[] elements;
+
+	/** The index of the element in each slot, or {@link #EMPTY}. */
+	private final int[] table;
 
 	public static final class Builder<E> {
 
-		private final LinkedHashSet<E> listSet;
+		private Object[] elements;
+		private int[] table;
+		private int size;
 
 		public Builder() {
-			this.listSet = new LinkedHashSet<E>();
+			this.elements = new Object[8];
+			this.table = newTable(16);
 		}
 
 		public final Builder<E> add(E element) {
-			listSet.add(element);
+			Objects.requireNonNull(element, "element");
+			int mask = table.length - 1;
+			int slot = slot(element, mask);
+			while (table[slot] != EMPTY) {
+				if (elements[table[slot]].equals(element)) {
+					return this;
+				}
+				slot = (slot + 1) & mask;
+			}
+			if (size == elements.length) {
+				elements = Arrays.copyOf(elements, size * 2);
+			}
+			elements[size] = element;
+			table[slot] = size++;
+			if (size * 2 > table.length) {
+				table = rehash(elements, size, table.length * 2);
+			}
 			return this;
 		}
 
 		@SafeVarargs
 		public final Builder<E> add(E... element) {
 			for (E e : element) {
-				listSet.add(e);
+				add(e);
 			}
 			return this;
 		}
 
 		public final Builder<E> addAll(Collection<E> collection) {
-			listSet.addAll(collection);
+			for (E e : collection) {
+				add(e);
+			}
 			return this;
 		}
 
 		public final int size() {
-			return listSet.size();
+			return size;
 		}
 
 		public final ImmutableLinkedSet<E> build() {
-			return new ImmutableLinkedSet<E>(ImmutableSet.<E> builder().addAll(listSet).build(), ImmutableList.<E> builder().addAll(listSet).build());
+			if (size == 0) {
+				return empty();
+			}
+			Object[] builtElements = Arrays.copyOf(elements, size);
+			int capacity = capacity(size);
+			int[] builtTable = capacity == table.length ? table.clone() : rehash(builtElements, size, capacity);
+			return new ImmutableLinkedSet<E>(builtElements, builtTable);
 		}
 
 	}
 
-	private ImmutableLinkedSet(ImmutableSet<E> set, ImmutableList<E> list) {
-		this.set = set;
-		this.list = list;
+	private ImmutableLinkedSet(Object[] elements, int[] table) {
+		this.elements = elements;
+		this.table = table;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <E> ImmutableLinkedSet<E> empty() {
+		return (ImmutableLinkedSet<E>) EMPTY_SET;
+	}
+
+	/**
+	 * Returns the smallest power-of-two table capacity that keeps the load
+	 * factor at or below 1/2.
+	 *
+	 * @param size
+	 *            the number of elements
+	 * @return the capacity
+	 */
+	private static int capacity(int size) {
+		return Math.max(Integer.highestOneBit(Math.max(size * 2 - 1, 1)) << 1, 2);
+	}
+
+	private static int[] newTable(int capacity) {
+		int[] table = new int[capacity];
+		Arrays.fill(table, EMPTY);
+		return table;
+	}
+
+	private static int[] rehash(Object[] elements, int size, int capacity) {
+		int[] table = newTable(capacity);
+		int mask = capacity - 1;
+		for (int i = 0; i < size; i++) {
+			int slot = slot(elements[i], mask);
+			while (table[slot] != EMPTY) {
+				slot = (slot + 1) & mask;
+			}
+			table[slot] = i;
+		}
+		return table;
+	}
+
+	private static int slot(Object element, int mask) {
+		int h = element.hashCode() * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & mask;
 	}
 
 	@Override
 	public int size() {
-		return set.size();
+		return elements.length;
 	}
 
 	@Override
 	public boolean isEmpty() {
-		return set.isEmpty();
+		return elements.length == 0;
 	}
 
 	@Override
 	public boolean contains(Object o) {
-		return set.contains(o);
+		return indexOf(o) >= 0;
 	}
 
 	@Override
 	public UnmodifiableIterator<E> iterator() {
-		return list.iterator();
+		return listIterator(0);
+	}
+
+	@Override
+	public void forEach(Consumer<? super E> action) {
+		for (int i = 0; i < elements.length; i++) {
+			action.accept(get(i));
+		}
 	}
 
 	@Override
 	public Object[] toArray() {
-		return list.toArray();
+		return elements.clone();
 	}
 
 	@Override
+	@SuppressWarnings("unchecked")
 	public <T> T[] toArray(T[] a) {
-		return list.toArray(a);
+		if (a.length < elements.length) {
+			return (T[]) Arrays.copyOf(elements, elements.length, a.getClass());
+		}
+		System.arraycopy(elements, 0, a, 0, elements.length);
+		if (a.length > elements.length) {
+			a[elements.length] = null;
+		}
+		return a;
 	}
 
 	@Override
 	public boolean containsAll(Collection<?> c) {
-		return set.containsAll(c);
+		for (Object o : c) {
+			if (!contains(o)) {
+				return false;
+			}
+		}
+		return true;
 	}
 
+	@SuppressWarnings("unchecked")
 	public E get(int index) {
-		return list.get(index);
+		if (index < 0 || index >= elements.length) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + elements.length);
+		}
+		return (E) elements[index];
 	}
 
 	public int indexOf(Object o) {
-		return list.indexOf(o);
+		if (o == null) {
+			return -1;
+		}
+		int mask = table.length - 1;
+		for (int slot = slot(o, mask); table[slot] != EMPTY; slot = (slot + 1) & mask) {
+			if (elements[table[slot]].equals(o)) {
+				return table[slot];
+			}
+		}
+		return -1;
 	}
 
 	public int lastIndexOf(Object o) {
-		return list.lastIndexOf(o);
+		return indexOf(o);
 	}
 
 	public UnmodifiableListIterator<E> listIterator() {
-		return list.listIterator();
+		return listIterator(0);
 	}
 
-	public UnmodifiableListIterator<E> listIterator(int index) {
-		return list.listIterator(index);
+	public UnmodifiableListIterator<E> listIterator(final int index) {
+		if (index < 0 || index > elements.length) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + elements.length);
+		}
+		return new UnmodifiableListIterator<E>() {
+
+			private int cursor = index;
+
+			@Override
+			public boolean hasNext() {
+				return cursor < elements.length;
+			}
+
+			@Override
+			public E next() {
+				if (cursor >= elements.length) {
+					throw new NoSuchElementException();
+				}
+				return get(cursor++);
+			}
+
+			@Override
+			public boolean hasPrevious() {
+				return cursor > 0;
+			}
+
+			@Override
+			public E previous() {
+				if (cursor <= 0) {
+					throw new NoSuchElementException();
+				}
+				return get(--cursor);
+			}
+
+			@Override
+			public int nextIndex() {
+				return cursor;
+			}
+
+			@Override
+			public int previousIndex() {
+				return cursor - 1;
+			}
+		};
 	}
 
+	@SuppressWarnings("unchecked")
 	public List<E> subList(int fromIndex, int toIndex) {
-		return list.subList(fromIndex, toIndex);
+		return Collections.unmodifiableList((List<E>) Arrays.asList(elements).subList(fromIndex, toIndex));
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+		if (!(o instanceof Set)) {
+			return false;
+		}
+		Set<?> other = (Set<?>) o;
+		return other.size() == elements.length && containsAll(other);
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 0;
+		for (Object e : elements) {
+			hash += e.hashCode();
+		}
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return "ImmutableLinkedSet(list=" + Arrays.toString(elements) + ")";
 	}
 
 	@Deprecated
@@ -2,19 +2,31 @@ package com.lfa.constants;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.ToString;
 
 import org.apache.commons.lang3.StringUtils;
 
+import com.lfa.collections.ImmutableIntMap;
 import com.lfa.collections.ImmutableLinkedMap;
+import com.lfa.exception.ValidationException;
+import com.lfa.exception.ValidationException.ErrorType;
 
 /**
  * Classe Alphabet. Basicamente uma classe para armazenar os símbolos do
  * alfabeto do AFD.
  *
+ * Cada símbolo tem um ordinal, sua posição no alfabeto, de 0 a k - 1. Os
+ * símbolos formados por um único caractere também podem ser encontrados a
+ * partir do caractere, sem alocações, por {@link #ordinalOf(char)} e
+ * {@link #ordinalOf(int)}: caracteres do BMP são indexados em um vetor, e os
+ * demais, em um vetor ordenado, com busca binária.
+ *
  * @author Andre Brait (andrebrait@gmail.com)
  */
 @Data
@@ -32,23 +44,46 @@ public final class Alphabet {
 
 		private final String str;
 
+		/** A posição do símbolo no alfabeto que o criou. */
+		private final int ordinal;
+
 		/**
 		 * Instancia um novo Symbol. Construtor protegido para uso somente por
 		 * classes do pacote.
 		 *
 		 * @param str
 		 *            A string que representa símbolo gráfico.
+		 * @param ordinal
+		 *            A posição do símbolo no alfabeto.
 		 */
-		protected Symbol(String str) {
+		protected Symbol(String str, int ordinal) {
 			this.str = str;
+			this.ordinal = ordinal;
 		}
 
 	}
 
 	public static final String LAMBDA = "\u03BB";
 
+	/** Indica um caractere que não é símbolo do alfabeto. */
+	public static final int NONE = -1;
+
 	private final ImmutableLinkedMap<String, Symbol> symbolMap;
-	private final ImmutableLinkedMap<Integer, Symbol> ordinalMap;
+
+	/** Os símbolos, pelo ordinal. */
+	private final ImmutableIntMap<Symbol> ordinalMap;
+
+	/** O ordinal do símbolo de cada caractere do BMP, ou {@link #NONE}. */
+	@Getter(AccessLevel.NONE)
+	private final int[] ordinalOfChar;
+
+	/** Os caracteres fora do BMP que são símbolos, em ordem crescente. */
+	@Getter(AccessLevel.NONE)
+	private final int[] supplementaryCodePoints;
+
+	/** O ordinal de cada caractere de {@link #supplementaryCodePoints}. */
+	@Getter(AccessLevel.NONE)
+	private final int[] supplementaryOrdinals;
 
 	/**
 	 * Instancia um novo alfabeto com o conjunto de símbolos passado neste
@@ -63,23 +98,59 @@ public final class Alphabet {
 
 	/**
 	 * Instancia um novo alfabeto com o conjunto de símbolos passado neste
-	 * construtor.
+	 * construtor. Dois símbolos iguais depois de tratados, como "a" e " a",
+	 * não são aceitos, já que cada símbolo tem seu próprio ordinal.
 	 *
 	 * @param symbol
 	 *            Os símbolos do alfabeto.
 	 */
 	public Alphabet(Collection<String> symbols) {
 		ImmutableLinkedMap.Builder<String, Symbol> symbolBuilder = new ImmutableLinkedMap.Builder<>();
-		ImmutableLinkedMap.Builder<Integer, Symbol> ordinalBuilder = new ImmutableLinkedMap.Builder<>();
+		ImmutableIntMap.Builder<Symbol> ordinalBuilder = new ImmutableIntMap.Builder<>();
 		int order = 0;
+		HashSet<String> seen = new HashSet<>();
 		for (String str : symbols) {
 			str = treat(str);
-			Symbol sym = new Symbol(str);
+			if (!seen.add(str)) {
+				throw new ValidationException(ErrorType.AFD, "Símbolo repetido no alfabeto: " + str + ".");
+			}
+			Symbol sym = new Symbol(str, order);
 			symbolBuilder.put(str, sym);
 			ordinalBuilder.put(order++, sym);
 		}
-		symbolMap = symbolBuilder.build();
-		ordinalMap = ordinalBuilder.build();
+		this.symbolMap = symbolBuilder.build();
+		this.ordinalMap = ordinalBuilder.build();
+
+		// Tabelas de busca dos símbolos de um único caractere.
+		int maxChar = NONE;
+		int supplementary = 0;
+		for (Symbol sym : ordinalMap.values()) {
+			int codePoint = singleCodePoint(sym.getStr());
+			if (codePoint > Character.MAX_VALUE) {
+				supplementary++;
+			} else {
+				maxChar = Math.max(maxChar, codePoint);
+			}
+		}
+		this.ordinalOfChar = new int[maxChar + 1];
+		Arrays.fill(ordinalOfChar, NONE);
+		long[] packed = new long[supplementary];
+		supplementary = 0;
+		for (Symbol sym : ordinalMap.values()) {
+			int codePoint = singleCodePoint(sym.getStr());
+			if (codePoint > Character.MAX_VALUE) {
+				packed[supplementary++] = (long) codePoint << 32 | sym.getOrdinal();
+			} else if (codePoint != NONE) {
+				ordinalOfChar[codePoint] = sym.getOrdinal();
+			}
+		}
+		Arrays.sort(packed);
+		this.supplementaryCodePoints = new int[packed.length];
+		this.supplementaryOrdinals = new int[packed.length];
+		for (int i = 0; i < packed.length; i++) {
+			supplementaryCodePoints[i] = (int) (packed[i] >>> 32);
+			supplementaryOrdinals[i] = (int) packed[i];
+		}
 	}
 
 	/**
@@ -90,12 +161,65 @@ public final class Alphabet {
 	 * @return O símbolo correspondente.
 	 */
 	public Symbol getSymbol(String str) {
-		str = treat(str);
-		return symbolMap.get(str);
+		// Strings já tratadas, o caso comum, dispensam o tratamento.
+		Symbol sym = str == null ? null : symbolMap.get(str);
+		return sym != null ? sym : symbolMap.get(treat(str));
+	}
+
+	/**
+	 * Retorna o símbolo de um ordinal.
+	 *
+	 * @param ordinal
+	 *            A posição do símbolo no alfabeto.
+	 * @return O símbolo, ou nulo se não houver.
+	 */
+	public Symbol getSymbol(int ordinal) {
+		return ordinalMap.get(ordinal);
+	}
+
+	/**
+	 * Retorna o ordinal, neste alfabeto, de um símbolo, que pode ter sido
+	 * criado por outro alfabeto.
+	 *
+	 * @param symbol
+	 *            O símbolo.
+	 * @return O ordinal, ou {@link #NONE} se o símbolo não pertencer ao
+	 *         alfabeto.
+	 */
+	public int ordinalOf(Symbol symbol) {
+		int ordinal = symbol.getOrdinal();
+		if (ordinalMap.get(ordinal) == symbol) {
+			return ordinal;
+		}
+		Symbol own = symbolMap.get(symbol.getStr());
+		return own != null ? own.getOrdinal() : NONE;
+	}
+
+	/**
+	 * Retorna o ordinal do símbolo formado por um caractere.
+	 *
+	 * @param c
+	 *            O caractere.
+	 * @return O ordinal, ou {@link #NONE} se o caractere não for um símbolo.
+	 */
+	public int ordinalOf(char c) {
+		return c < ordinalOfChar.length ? ordinalOfChar[c] : NONE;
 	}
 
-	public Symbol getSymbol(Integer index) {
-		return ordinalMap.get(index);
+	/**
+	 * Retorna o ordinal do símbolo formado por um code point, dentro ou fora
+	 * do BMP.
+	 *
+	 * @param codePoint
+	 *            O code point.
+	 * @return O ordinal, ou {@link #NONE} se o code point não for um símbolo.
+	 */
+	public int ordinalOf(int codePoint) {
+		if (codePoint <= Character.MAX_VALUE) {
+			return codePoint >= 0 && codePoint < ordinalOfChar.length ? ordinalOfChar[codePoint] : NONE;
+		}
+		int i = Arrays.binarySearch(supplementaryCodePoints, codePoint);
+		return i >= 0 ? supplementaryOrdinals[i] : NONE;
 	}
 
 	/**
@@ -104,7 +228,18 @@ public final class Alphabet {
 	 * @return O tamanho do alfabeto.
 	 */
 	public int size() {
-		return symbolMap.size();
+		return ordinalMap.size();
+	}
+
+	/**
+	 * Retorna o code point de um símbolo formado por um único caractere.
+	 *
+	 * @param str
+	 *            A string do símbolo.
+	 * @return O code point, ou {@link #NONE} se o símbolo tiver mais de um.
+	 */
+	private static int singleCodePoint(String str) {
+		return !str.isEmpty() && str.length() == Character.charCount(str.codePointAt(0)) ? str.codePointAt(0) : NONE;
 	}
 
 	/**
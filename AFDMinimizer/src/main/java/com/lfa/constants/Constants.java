@@ -55,14 +55,11 @@ public class Constants {
 	/** Constante da opção de arquivo de saída com AFD minimizado */
 	public static final String OPT_MINIMIZED = "-m";
 
-	/** O alfabeto do AFD. */
-	public static Alphabet ALPHABET;
-
 	/** O alfabeto do APD de sintaxe */
-	public static Alphabet ALPHABET_APD;
+	public static final Alphabet ALPHABET_APD = new Alphabet(SEPARATORS);
 
 	/** O alfabeto da pilha do APD. */
-	public static Alphabet ALPHABET_APD_STACK;
+	public static final Alphabet ALPHABET_APD_STACK = new Alphabet("X", "Y", "Z", "1", "2", "K", "L", "M", "N", "O", "3", "4");
 
 	/** Constante da opção de arquivo de entrada */
 	public static final String INPUT = "input";
@@ -0,0 +1,103 @@
+package com.lfa.minimize;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import com.lfa.automata.afd.AFD;
+import com.lfa.automata.afd.State;
+import com.lfa.automata.afd.State.Transition;
+import com.lfa.collections.ImmutableLinkedSet;
+import com.lfa.constants.Alphabet;
+
+/**
+ * Classe AFDForest. Resultado da minimização conjunta de vários AFDs, como
+ * calculada por {@link AFDMinimizer#minimizeJointly(java.util.Collection)}.
+ * Todos os AFDs compartilham um único conjunto de estados mínimo, no qual
+ * estados equivalentes, de um mesmo AFD ou de AFDs diferentes, aparecem uma
+ * única vez. Cada AFD é representado apenas por seu estado inicial.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+@Data
+@EqualsAndHashCode(callSuper = false, of = { "states", "initialStates", "finalStates" })
+@ToString(callSuper = false, of = { "states", "initialStates", "finalStates" })
+public final class AFDForest {
+
+	/** A união dos alfabetos dos AFDs. */
+	private final Alphabet alphabet;
+
+	/** Os estados compartilhados. */
+	private final ImmutableLinkedSet<State> states;
+
+	/** O estado inicial de cada AFD, na ordem em que os AFDs foram informados. */
+	private final List<State> initialStates;
+
+	/** Os estados finais compartilhados. */
+	private final ImmutableLinkedSet<State> finalStates;
+
+	/**
+	 * Instancia uma nova AFDForest.
+	 *
+	 * @param alphabet
+	 *            O alfabeto.
+	 * @param states
+	 *            Os estados compartilhados.
+	 * @param initialStates
+	 *            O estado inicial de cada AFD.
+	 * @param finalStates
+	 *            Os estados finais.
+	 */
+	AFDForest(Alphabet alphabet, List<State> states, List<State> initialStates, Collection<State> finalStates) {
+		this.alphabet = alphabet;
+		this.states = ImmutableLinkedSet.<State> builder().addAll(states).build();
+		this.initialStates = Collections.unmodifiableList(initialStates);
+		this.finalStates = ImmutableLinkedSet.<State> builder().addAll(finalStates).build();
+	}
+
+	/**
+	 * Retorna o número de AFDs.
+	 *
+	 * @return O número de AFDs.
+	 */
+	public int size() {
+		return initialStates.size();
+	}
+
+	/**
+	 * Monta um dos AFDs a partir dos estados compartilhados. O AFD contém
+	 * apenas os estados alcançáveis a partir de seu estado inicial, que são os
+	 * mesmos objetos usados pelos demais AFDs, e é mínimo. Seu alfabeto é o
+	 * alfabeto comum a todos os AFDs.
+	 *
+	 * @param index
+	 *            A posição do AFD entre os AFDs informados.
+	 * @return O AFD mínimo.
+	 */
+	public AFD getAFD(int index) {
+		State initial = initialStates.get(index);
+		LinkedHashSet<State> reachable = new LinkedHashSet<>();
+		LinkedHashSet<State> finals = new LinkedHashSet<>();
+		ArrayDeque<State> queue = new ArrayDeque<>();
+		reachable.add(initial);
+		queue.add(initial);
+		while (!queue.isEmpty()) {
+			State state = queue.poll();
+			if (finalStates.contains(state)) {
+				finals.add(state);
+			}
+			for (Transition transition : state.getTransitions()) {
+				if (reachable.add(transition.getDestination())) {
+					queue.add(transition.getDestination());
+				}
+			}
+		}
+		return new AFD(alphabet, initial, reachable, finals);
+	}
+}
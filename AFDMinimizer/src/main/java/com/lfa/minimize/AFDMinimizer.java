@@ -1,17 +1,30 @@
 package com.lfa.minimize;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.function.Function;
 
 import org.apache.commons.collections4.CollectionUtils;
 
 import com.lfa.automata.afd.AFD;
+import com.lfa.automata.afd.CompactAFD;
 import com.lfa.automata.afd.State;
+import com.lfa.automata.afd.TableAFD;
 import com.lfa.automata.afd.State.Transition;
 import com.lfa.collections.ImmutableLinkedSet;
+import com.lfa.exception.ValidationException;
+import com.lfa.exception.ValidationException.ErrorType;
 import com.lfa.minimize.Group.GroupBuilder;
+import com.lfa.minimize.Group.GroupContext;
 import com.lfa.minimize.Group.GroupTransition;
 
 /**
@@ -22,13 +35,520 @@ import com.lfa.minimize.Group.GroupTransition;
  */
 public class AFDMinimizer {
 
+	/**
+	 * Minimiza um AFD com a {@link MinimizationStrategy} de menor custo
+	 * estimado para ele, selecionada por
+	 * {@link MinimizationStrategies#select(AFDStatistics)} a partir do número
+	 * de estados, do tamanho do alfabeto, do número de transições e da
+	 * presença de ciclos. Se nenhuma estratégia se aplicar, é usada a
+	 * estratégia "hopcroft", o refinamento padrão desta biblioteca: símbolos
+	 * com colunas idênticas são agrupados, AFDs acíclicos são minimizados pelo
+	 * algoritmo de Revuz, AFDs pequenos são refinados com conjuntos de estados
+	 * em máscaras de bits e os demais pelo algoritmo de Hopcroft. Estados
+	 * inalcançáveis e estados mortos são removidos antes da minimização, e o
+	 * AFD é indexado e podado uma única vez, tanto para as estatísticas quanto
+	 * para as estratégias desta biblioteca. Para escolher a estratégia, use
+	 * {@link #minimizeByStrategy(AFD, String)}.
+	 *
+	 * Se o AFD for completo nos estados alcançáveis, o AFD mínimo também é
+	 * completo: os estados mortos são reunidos em um único estado de descarte,
+	 * não final, com laços para todos os símbolos. Se o AFD já for parcial, os
+	 * estados mortos são apenas removidos, e o AFD mínimo também é parcial.
+	 * Nos dois casos, o resultado é o AFD mínimo da mesma linguagem.
+	 *
+	 * @param original
+	 *            O AFD original.
+	 * @return O AFD minimizado.
+	 */
 	public static AFD minimize(AFD original) {
+		return MinimizationStrategies.minimize(original);
+	}
+
+	/**
+	 * Minimiza um AFD representado por tabela, como {@link CompactAFD}, como
+	 * em {@link #minimize(AFD)}, sem criar objetos por estado ou por
+	 * transição. Um AFD completo também resulta em um AFD completo.
+	 *
+	 * A tabela é copiada para um vetor no heap, de n·k inteiros, além dos
+	 * vetores da remoção de estados inúteis, qualquer que seja a representação
+	 * da entrada. Para um {@link com.lfa.automata.afd.OffHeapAFD} ou um AFD
+	 * maior que o heap, use {@link #minimizeOutOfCore(TableAFD, File, long)},
+	 * que respeita um limite de memória.
+	 *
+	 * @param original
+	 *            O AFD original.
+	 * @return O AFD minimizado, com os estados nomeados G1, G2, ....
+	 */
+	public static CompactAFD minimize(TableAFD original) {
+		Trimmer trimmer = new Trimmer(IndexedAFD.of(original));
+		return trimmer.compactQuotient(refine(trimmer.trimmed));
+	}
+
+	/**
+	 * Minimiza um AFD com acompanhamento do andamento, cancelamento e limites
+	 * de tempo e de rodadas, conforme as opções. Se um limite for atingido, o
+	 * refinamento é interrompido e o AFD retornado é o original sem os estados
+	 * inalcançáveis e com os estados mortos removidos ou reunidos, como em
+	 * {@link #minimize(AFD)}: equivalente ao original, mas não
+	 * necessariamente mínimo. Nesse caso, o último andamento enviado ao
+	 * listener não é marcado como terminado. Com um arquivo de checkpoint, o
+	 * refinamento interrompido, por um limite ou pelo fim do processo, é
+	 * retomado na próxima chamada com o mesmo AFD.
+	 *
+	 * @param original
+	 *            O AFD original.
+	 * @param options
+	 *            As opções.
+	 * @return O AFD minimizado, ou apenas podado se um limite for atingido.
+	 */
+	public static AFD minimize(AFD original, MinimizationOptions options) {
+		MinimizationMonitor monitor = new MinimizationMonitor(options);
+		Trimmer trimmer = new Trimmer(IndexedAFD.of(original));
+		int[] classes = refine(trimmer.trimmed, monitor);
+		return classes != null ? trimmer.quotient(classes) : trimmer.complete(trimmer.trimmed).toAFD();
+	}
+
+	/**
+	 * Minimiza um AFD cujos estados finais são rotulados, como os de um
+	 * analisador léxico, em que cada estado final indica um tipo de token.
+	 * Estados finais só são agrupados se tiverem rótulos iguais (segundo
+	 * {@link Object#equals(Object)}); com um único rótulo, o resultado é o
+	 * mesmo de {@link #minimize(AFD)}. Para saber o rótulo de cada estado do
+	 * AFD mínimo, utilize {@link #partition(AFD, Function)}.
+	 *
+	 * @param original
+	 *            O AFD original.
+	 * @param tagOf
+	 *            A função que retorna o rótulo de cada estado final. Não é
+	 *            chamada para estados não finais.
+	 * @return O AFD mínimo que respeita os rótulos.
+	 */
+	public static AFD minimize(AFD original, Function<? super State, ?> tagOf) {
+		Trimmer trimmer = new Trimmer(IndexedAFD.of(original, tagOf));
+		return trimmer.quotient(refine(trimmer.trimmed));
+	}
+
+	/**
+	 * Calcula as classes de equivalência dos estados de um AFD, da mesma forma
+	 * que {@link #minimize(AFD)}, mas sem montar o AFD mínimo.
+	 *
+	 * @param original
+	 *            O AFD original.
+	 * @return A partição dos estados.
+	 */
+	public static StatePartition partition(AFD original) {
+		return partition(IndexedAFD.of(original));
+	}
+
+	/**
+	 * Calcula a partição dos estados de um AFD cujos estados finais são
+	 * rotulados, como em {@link #minimize(AFD, Function)}. Todos os estados de
+	 * uma classe que contém estados finais têm o mesmo rótulo, e o estado i do
+	 * AFD retornado por {@link #materialize(StatePartition)} corresponde à
+	 * classe i.
+	 *
+	 * @param original
+	 *            O AFD original.
+	 * @param tagOf
+	 *            A função que retorna o rótulo de cada estado final.
+	 * @return A partição dos estados.
+	 */
+	public static StatePartition partition(AFD original, Function<? super State, ?> tagOf) {
+		return partition(IndexedAFD.of(original, tagOf));
+	}
+
+	/**
+	 * Calcula a partição dos estados de um AFD indexado.
+	 *
+	 * @param indexed
+	 *            O AFD indexado.
+	 * @return A partição dos estados.
+	 */
+	private static StatePartition partition(IndexedAFD indexed) {
+		Trimmer trimmer = new Trimmer(indexed);
+		int[] expanded = trimmer.expand(refine(trimmer.trimmed));
+		int classCount = 0;
+		for (int c : expanded) {
+			classCount = Math.max(classCount, c + 1);
+		}
+		return new StatePartition(expanded, classCount, trimmer.unreachable, trimmer.removedDead(), indexed);
+	}
+
+	/**
+	 * Verifica se um AFD é mínimo: se não tem estados inalcançáveis, não tem
+	 * estados equivalentes e não tem estados mortos, exceto por um único
+	 * estado de descarte em um AFD completo, como o mantido por
+	 * {@link #minimize(AFD)}. Nenhum AFD é montado.
+	 *
+	 * @param original
+	 *            O AFD.
+	 * @return true, se o AFD for mínimo.
+	 */
+	public static boolean isMinimal(AFD original) {
+		Trimmer trimmer = new Trimmer(IndexedAFD.of(original));
+		if (trimmer.unreachable + trimmer.removedDead() > 0) {
+			return false;
+		}
+		int[] classes = refine(trimmer.trimmed);
+		for (int s = 0; s < classes.length; s++) {
+			if (classes[s] != s) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Monta o AFD mínimo correspondente a uma partição calculada por
+	 * {@link #partition(AFD)}. O resultado é o mesmo de {@link #minimize(AFD)}.
+	 *
+	 * @param partition
+	 *            A partição.
+	 * @return O AFD minimizado.
+	 */
+	public static AFD materialize(StatePartition partition) {
+		return partition.indexed.quotient(partition.getClasses());
+	}
+
+	/**
+	 * Refina a partição de um AFD podado com o motor mais adequado ao seu
+	 * tamanho. Símbolos com colunas idênticas são agrupados antes do
+	 * refinamento, e AFDs acíclicos são minimizados em tempo linear por
+	 * {@link RevuzMinimizer}.
+	 *
+	 * @param trimmed
+	 *            O AFD podado.
+	 * @return A classe de cada estado.
+	 */
+	static int[] refine(IndexedAFD trimmed) {
+		return refine(trimmed, null);
+	}
+
+	/**
+	 * Refina a partição de um AFD podado, como em {@link #refine(IndexedAFD)},
+	 * acompanhada por um {@link MinimizationMonitor}. Apenas o algoritmo de
+	 * Hopcroft é interrompido pelos limites; os demais motores são lineares
+	 * ou só tratam AFDs pequenos.
+	 *
+	 * @param trimmed
+	 *            O AFD podado.
+	 * @param monitor
+	 *            O monitor, ou null.
+	 * @return A classe de cada estado, ou null, se algum limite foi atingido.
+	 */
+	private static int[] refine(IndexedAFD trimmed, MinimizationMonitor monitor) {
+		IndexedAFD compressed = SymbolCompressor.compress(trimmed);
+		int[] classes = RevuzMinimizer.refine(compressed);
+		if (classes == null && BitmaskMinimizer.fits(compressed)) {
+			classes = BitmaskMinimizer.refine(compressed);
+		}
+		if (classes == null) {
+			return HopcroftMinimizer.refine(compressed, monitor);
+		}
+		if (monitor != null) {
+			int[] sizes = new int[trimmed.size];
+			int count = 0;
+			int largest = 0;
+			for (int c : classes) {
+				count = Math.max(count, c + 1);
+				largest = Math.max(largest, ++sizes[c]);
+			}
+			monitor.finish(count, largest, true);
+		}
+		return classes;
+	}
+
+	/**
+	 * Remove de um AFD os estados inalcançáveis a partir do estado inicial e
+	 * os estados a partir dos quais não se alcança um estado final. É a mesma
+	 * etapa executada antes de cada motor de minimização. Como em
+	 * {@link #minimize(AFD)}, se o AFD for completo, os estados mortos são
+	 * reunidos no primeiro deles, que passa a ter laços para todos os
+	 * símbolos, e o resultado também é completo.
+	 *
+	 * @param original
+	 *            O AFD original.
+	 * @return O AFD sem esses estados, com os nomes originais, e a contagem
+	 *         dos estados removidos.
+	 */
+	public static TrimResult trim(AFD original) {
+		Trimmer trimmer = new Trimmer(IndexedAFD.of(original));
+		IndexedAFD trimmed = trimmer.complete(trimmer.trimmed);
+		int k = trimmed.alphabetSize();
+		State[] states = new State[trimmed.size];
+		for (int s = 0; s < trimmer.kept.length; s++) {
+			if (trimmer.kept[s] != IndexedAFD.NONE) {
+				states[trimmer.kept[s]] = new State(original.getStates().get(s).getName());
+			}
+		}
+		if (trimmed.size > trimmer.trimmed.size) {
+			states[trimmer.trimmed.size] = new State(original.getStates().get(trimmer.firstDead).getName());
+		}
+		HashSet<State> finalStates = new HashSet<>();
+		for (int s = 0; s < trimmed.size; s++) {
+			for (int a = 0; a < k; a++) {
+				int d = trimmed.next(s, a);
+				if (d != IndexedAFD.NONE) {
+					states[s].addTransition(trimmed.symbols[a], states[d]);
+				}
+			}
+			if (trimmed.finals.get(s)) {
+				finalStates.add(states[s]);
+			}
+		}
+		AFD afd = new AFD(original.getAlphabet(), states[trimmed.initial], Arrays.asList(states), finalStates);
+		return new TrimResult(afd, trimmer.unreachable, trimmer.removedDead());
+	}
+
+	/**
+	 * Minimiza um AFD com uma {@link MinimizationStrategy} escolhida pelo nome,
+	 * em vez da selecionada por {@link #minimize(AFD)}. Qualquer que seja a
+	 * estratégia, um AFD completo resulta em um AFD completo, mesmo com a
+	 * estratégia "partial".
+	 *
+	 * @param original
+	 *            O AFD original.
+	 * @param strategy
+	 *            O nome da estratégia, como "hopcroft", "revuz", "parallel"
+	 *            ou "partial".
+	 * @return O AFD minimizado.
+	 */
+	public static AFD minimizeByStrategy(AFD original, String strategy) {
+		return MinimizationStrategies.minimize(original, MinimizationStrategies.getStrategy(strategy));
+	}
+
+	/**
+	 * Minimiza um AFD componente por componente, em ordem topológica inversa
+	 * das componentes fortemente conexas. É indicado para AFDs
+	 * majoritariamente acíclicos, formados por cadeias de componentes
+	 * pequenas. O resultado é o mesmo de {@link #minimize(AFD)}.
+	 *
+	 * @param original
+	 *            O AFD original.
+	 * @return O AFD minimizado.
+	 */
+	public static AFD minimizeBySCCs(AFD original) {
+		Trimmer trimmer = new Trimmer(IndexedAFD.of(original));
+		return trimmer.quotient(SCCMinimizer.refine(SymbolCompressor.compress(trimmer.trimmed)));
+	}
+
+	/**
+	 * Minimiza vários AFDs em conjunto, sobre uma única partição da união
+	 * disjunta de seus estados. Estados equivalentes são representados uma
+	 * única vez, mesmo que pertençam a AFDs diferentes, e cada AFD passa a ser
+	 * identificado por seu estado inicial no conjunto compartilhado. Os
+	 * estados inalcançáveis e mortos de cada AFD são removidos, mesmo que os
+	 * AFDs sejam completos, e os AFDs resultantes são parciais.
+	 *
+	 * @param afds
+	 *            Os AFDs.
+	 * @return Os estados compartilhados e o estado inicial de cada AFD.
+	 */
+	public static AFDForest minimizeJointly(Collection<AFD> afds) {
+		if (afds.isEmpty()) {
+			throw new ValidationException(ErrorType.MINIMIZE, "Nenhum AFD para minimizar.");
+		}
+		List<AFD> list = new ArrayList<>(afds);
+		int[] roots = new int[list.size()];
+		IndexedAFD union = IndexedAFD.union(list, roots);
+		Trimmer trimmer = new Trimmer(union, roots);
+		int[] classes = refine(trimmer.trimmed);
+		LinkedHashSet<State> finalStates = new LinkedHashSet<>();
+		State[] states = trimmer.trimmed.quotientStates(classes, finalStates);
+		List<State> initialStates = new ArrayList<>(roots.length);
+		for (int root : roots) {
+			initialStates.add(states[classes[trimmer.kept[root]]]);
+		}
+		return new AFDForest(trimmer.trimmed.alphabet, Arrays.asList(states), initialStates, finalStates);
+	}
+
+	/**
+	 * Minimiza um AFD com refinamento de partição paralelo, utilizando todos
+	 * os processadores disponíveis.
+	 *
+	 * @param original
+	 *            O AFD original.
+	 * @return O AFD minimizado.
+	 */
+	public static AFD minimizeParallel(AFD original) {
+		return minimizeParallel(original, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Minimiza um AFD com refinamento de partição paralelo. O resultado é o
+	 * mesmo de {@link #minimize(AFD)}.
+	 *
+	 * @param original
+	 *            O AFD original.
+	 * @param parallelism
+	 *            O número de threads a utilizar.
+	 * @return O AFD minimizado.
+	 */
+	public static AFD minimizeParallel(AFD original, int parallelism) {
+		Trimmer trimmer = new Trimmer(IndexedAFD.of(original));
+		return trimmer.quotient(ParallelMinimizer.refine(SymbolCompressor.compress(trimmer.trimmed), parallelism));
+	}
+
+	/**
+	 * Minimiza um AFD parcial utilizando o algoritmo de Valmari e Lehtinen,
+	 * sem completá-lo com um estado de descarte. Estados inalcançáveis e
+	 * estados que não alcançam um estado final são removidos, e o resultado
+	 * também é parcial.
+	 *
+	 * @param original
+	 *            O AFD original, possivelmente parcial.
+	 * @return O AFD minimizado.
+	 */
+	public static AFD minimizePartial(AFD original) {
+		return ValmariMinimizer.minimize(original);
+	}
+
+	/**
+	 * Minimiza um AFD pelo algoritmo de Brzozowski, invertendo-o e
+	 * determinizando-o duas vezes, com os limites padrão de estados e de
+	 * memória por determinização. O resultado é o mesmo de
+	 * {@link #minimize(AFD)}, inclusive quanto ao estado de descarte.
+	 *
+	 * @param original
+	 *            O AFD original.
+	 * @return O AFD minimizado.
+	 */
+	public static AFD minimizeBrzozowski(AFD original) {
+		return minimizeBrzozowski(original, BrzozowskiMinimizer.DEFAULT_MAX_STATES);
+	}
+
+	/**
+	 * Minimiza um AFD pelo algoritmo de Brzozowski, invertendo-o e
+	 * determinizando-o duas vezes.
+	 *
+	 * @param original
+	 *            O AFD original.
+	 * @param maxStates
+	 *            O número máximo de estados gerados em cada determinização.
+	 * @return O AFD minimizado.
+	 */
+	public static AFD minimizeBrzozowski(AFD original, int maxStates) {
+		return minimizeBrzozowski(original, maxStates, BrzozowskiMinimizer.DEFAULT_MAX_BYTES);
+	}
+
+	/**
+	 * Minimiza um AFD pelo algoritmo de Brzozowski, invertendo-o e
+	 * determinizando-o duas vezes. Cada subconjunto pode ter até um bit por
+	 * estado, então o limite de memória é o que protege contra entradas com
+	 * muitos estados.
+	 *
+	 * @param original
+	 *            O AFD original.
+	 * @param maxStates
+	 *            O número máximo de estados gerados em cada determinização.
+	 * @param maxBytes
+	 *            A memória máxima estimada, em bytes, dos subconjuntos de cada
+	 *            determinização.
+	 * @return O AFD minimizado.
+	 */
+	public static AFD minimizeBrzozowski(AFD original, int maxStates, long maxBytes) {
+		Trimmer trimmer = new Trimmer(IndexedAFD.of(original));
+		return trimmer.complete(BrzozowskiMinimizer.minimize(trimmer.trimmed, maxStates, maxBytes)).toAFD();
+	}
+
+	/**
+	 * Minimiza um AFD gravado em um {@link AFDTableFile} sem carregá-lo na
+	 * memória, e grava o resultado em outro arquivo. A tabela de transições,
+	 * o índice de predecessores e a partição ficam em arquivos mapeados,
+	 * criados no diretório do arquivo de saída e apagados ao final. O
+	 * resultado é o mesmo de {@link #minimize(AFD)}.
+	 *
+	 * @param input
+	 *            O arquivo do AFD original.
+	 * @param output
+	 *            O arquivo do AFD minimizado. É sobrescrito se existir.
+	 * @param memoryBudget
+	 *            A memória de trabalho, em bytes. Define quantas passadas
+	 *            sobre os estados são feitas em cada rodada de refinamento.
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	public static void minimizeOutOfCore(File input, File output, long memoryBudget) throws IOException {
+		OutOfCoreMinimizer.minimize(input, output, memoryBudget);
+	}
+
+	/**
+	 * Minimiza um AFD lido pela API de tabela, como um
+	 * {@link com.lfa.automata.afd.OffHeapAFD}, com o mesmo algoritmo de
+	 * {@link #minimizeOutOfCore(File, File, long)}, gravando o AFD mínimo em
+	 * um arquivo de tabela.
+	 *
+	 * @param input
+	 *            O AFD original.
+	 * @param output
+	 *            O arquivo do AFD mínimo. É sobrescrito se existir, e seus
+	 *            arquivos temporários são criados no mesmo diretório.
+	 * @param memoryBudget
+	 *            A memória de trabalho, em bytes.
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	public static void minimizeOutOfCore(TableAFD input, File output, long memoryBudget) throws IOException {
+		OutOfCoreMinimizer.minimize(input, output, memoryBudget);
+	}
+
+	/**
+	 * Aplica alterações de transições a um AFD já mínimo e retorna o novo AFD
+	 * mínimo. As classes dos estados não são recalculadas: só são testados
+	 * os pares de estados que podem ter passado a ser equivalentes, a partir
+	 * dos estados alterados. A conversão do AFD, a busca dos estados vivos e a
+	 * montagem do AFD resultante ainda percorrem o AFD inteiro, em tempo
+	 * linear. Como em {@link #minimize(AFD)}, se o AFD alterado for completo
+	 * nos estados alcançáveis, os estados mortos são reunidos em um único
+	 * estado de descarte.
+	 *
+	 * @param minimized
+	 *            O AFD mínimo, como retornado por {@link #minimize(AFD)}.
+	 * @param edits
+	 *            As alterações, aplicadas na ordem da coleção.
+	 * @return O AFD mínimo após as alterações.
+	 * @throws ValidationException
+	 *             Se uma alteração não for compatível com o AFD ou se o AFD
+	 *             tiver mais de um estado morto ou mais de um estado final sem
+	 *             transições para estados vivos, o que mostra que não é mínimo.
+	 */
+	public static AFD reminimize(AFD minimized, Collection<TransitionEdit> edits) {
+		return IncrementalMinimizer.reminimize(minimized, edits);
+	}
+
+	/**
+	 * Minimiza um AFD refinando a partição em rodadas, com os estados
+	 * agrupados pelo hash de suas assinaturas de blocos de destino. Faz o
+	 * mesmo trabalho de {@link #minimizeByGroups(AFD)} sem criar objetos em
+	 * cada rodada, e o resultado é o mesmo de {@link #minimize(AFD)}.
+	 *
+	 * @param original
+	 *            O AFD original.
+	 * @return O AFD minimizado.
+	 */
+	public static AFD minimizeBySignatures(AFD original) {
+		Trimmer trimmer = new Trimmer(IndexedAFD.of(original));
+		return trimmer.quotient(SignatureMinimizer.refine(SymbolCompressor.compress(trimmer.trimmed)));
+	}
+
+	/**
+	 * Minimiza um AFD refinando grupos de {@link State} em rodadas, até que
+	 * nenhum grupo possa mais ser dividido. É a implementação original do
+	 * minimizador, mais lenta que {@link #minimize(AFD)} e
+	 * {@link #minimizeBySignatures(AFD)}.
+	 *
+	 * @param original
+	 *            O AFD original.
+	 * @return O AFD minimizado.
+	 */
+	public static AFD minimizeByGroups(AFD original) {
 
 		HashSet<Group> groups = new HashSet<>();
 		boolean modified = false;
 
 		// Definindo a transição dos grupos iniciais:
-		groups.addAll(GroupBuilder.buildInitialGroups(original));
+		GroupContext context = new GroupContext();
+		groups.addAll(context.buildInitialGroups(original));
 
 		do {
 
@@ -49,7 +569,7 @@ public class AFDMinimizer {
 							if (groupBuilderToAdd != null) {
 								groupBuilderToAdd.add(state);
 							} else {
-								groupBuildersForThisGroup.add(createGroup(groups, state));
+								groupBuildersForThisGroup.add(createGroup(context, groups, state));
 							}
 							statesToRemoveFromThisGroup.add(state);
 							break;
@@ -88,7 +608,7 @@ public class AFDMinimizer {
 			}
 		}
 
-		return new AFD(minimizedInitialState, minimizedAFDStates.values(), minimizedFinalStates);
+		return new AFD(original.getAlphabet(), minimizedInitialState, minimizedAFDStates.values(), minimizedFinalStates);
 
 	}
 
@@ -112,14 +632,16 @@ public class AFDMinimizer {
 	/**
 	 * Cria um grupo com o estado passado.
 	 *
+	 * @param context
+	 *            O contexto da minimização.
 	 * @param groups
 	 *            O conjunto de grupos.
 	 * @param state
 	 *            O estado.
 	 * @return O builder.
 	 */
-	private static GroupBuilder createGroup(Set<Group> groups, State state) {
-		GroupBuilder builder = Group.builder().add(state);
+	private static GroupBuilder createGroup(GroupContext context, Set<Group> groups, State state) {
+		GroupBuilder builder = context.builder().add(state);
 		for (Transition trans : state.getTransitions()) {
 			builder.addTransition(trans.getConsumed(), findGroup(groups, trans.getDestination()));
 		}
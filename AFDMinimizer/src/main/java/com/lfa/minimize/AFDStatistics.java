@@ -0,0 +1,113 @@
+package com.lfa.minimize;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import com.lfa.automata.afd.AFD;
+
+/**
+ * Classe AFDStatistics. Estatísticas de um AFD, usadas para selecionar uma
+ * {@link MinimizationStrategy}. São calculadas sobre o AFD sem os estados
+ * inalcançáveis e mortos, já que um estado de descarte tornaria cíclico
+ * qualquer AFD completo. O cálculo custa O(n·k), tanto quanto indexar e
+ * podar o AFD, e por isso {@link AFDMinimizer#minimize(AFD)} repassa o
+ * AFD podado às estratégias desta biblioteca em vez de refazê-lo.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@ToString(callSuper = false)
+public final class AFDStatistics {
+
+	/** O número de estados alcançáveis e vivos. */
+	private final int stateCount;
+
+	/** O número de símbolos do alfabeto. */
+	private final int alphabetSize;
+
+	/** O número de transições entre estados alcançáveis e vivos. */
+	private final long transitionCount;
+
+	/** Indica se o AFD, sem os estados mortos, é acíclico. */
+	private final boolean acyclic;
+
+	/**
+	 * O tamanho da maior palavra aceita a partir de algum estado, se o AFD for
+	 * acíclico, ou -1.
+	 */
+	private final int height;
+
+	/**
+	 * Instancia um novo AFDStatistics.
+	 *
+	 * @param stateCount
+	 *            O número de estados.
+	 * @param alphabetSize
+	 *            O número de símbolos.
+	 * @param transitionCount
+	 *            O número de transições.
+	 * @param height
+	 *            A altura do AFD, ou -1, se ele for cíclico.
+	 */
+	AFDStatistics(int stateCount, int alphabetSize, long transitionCount, int height) {
+		this.stateCount = stateCount;
+		this.alphabetSize = alphabetSize;
+		this.transitionCount = transitionCount;
+		this.acyclic = height != IndexedAFD.NONE;
+		this.height = height;
+	}
+
+	/**
+	 * Calcula as estatísticas de um AFD.
+	 *
+	 * @param afd
+	 *            O AFD.
+	 * @return As estatísticas.
+	 */
+	public static AFDStatistics of(AFD afd) {
+		return of(new Trimmer(IndexedAFD.of(afd)).trimmed);
+	}
+
+	/**
+	 * Calcula as estatísticas de um AFD já podado.
+	 *
+	 * @param trimmed
+	 *            O AFD indexado, sem estados inalcançáveis ou mortos.
+	 * @return As estatísticas.
+	 */
+	static AFDStatistics of(IndexedAFD trimmed) {
+		long transitions = 0;
+		for (int d : trimmed.table) {
+			if (d != IndexedAFD.NONE) {
+				transitions++;
+			}
+		}
+		return new AFDStatistics(trimmed.size, trimmed.alphabetSize(), transitions, RevuzMinimizer.height(trimmed));
+	}
+
+	/**
+	 * Retorna um limite superior para o número de rodadas de um refinamento
+	 * em rodadas, como o de Moore, em que cada rodada distingue os estados
+	 * por palavras um símbolo mais longas. Em um AFD acíclico, a partição se
+	 * estabiliza depois de altura + 1 rodadas, mais a rodada que o confirma;
+	 * em um AFD cíclico, o único limite conhecido sem refinar é o número de
+	 * estados.
+	 *
+	 * @return O número máximo de rodadas.
+	 */
+	public long getRoundBound() {
+		return acyclic ? height + 2L : Math.max(stateCount, 1);
+	}
+
+	/**
+	 * Retorna o logaritmo na base 2 do número de estados, no mínimo 1, usado
+	 * nas estimativas de custo dos algoritmos O(n·k·log n).
+	 *
+	 * @return O logaritmo do número de estados.
+	 */
+	public double getLogStateCount() {
+		return Math.max(1, Math.log(stateCount) / Math.log(2));
+	}
+}
@@ -0,0 +1,262 @@
+package com.lfa.minimize;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+
+import com.lfa.automata.afd.AFD;
+import com.lfa.automata.afd.TableAFD;
+import com.lfa.constants.Alphabet;
+import com.lfa.exception.ValidationException;
+import com.lfa.exception.ValidationException.ErrorType;
+
+/**
+ * Classe AFDTableFile. Arquivo com a tabela de transições de um AFD, usado
+ * como entrada e saída da minimização fora da memória. O arquivo contém um
+ * cabeçalho com o número de estados, o número de símbolos e o estado inicial,
+ * os símbolos em UTF-8, os estados finais como um conjunto de bits e, por
+ * fim, a tabela de transições, com uma linha de inteiros por estado e -1 para
+ * transições inexistentes. Os estados são identificados somente por seus
+ * índices.
+ *
+ * A tabela e os estados finais são acessados por {@link MappedArray}s, sem
+ * que o arquivo seja carregado na memória, e um arquivo aberto pode ser lido
+ * pela API de {@link TableAFD}, por exemplo para reconhecer palavras
+ * diretamente sobre o arquivo.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+public final class AFDTableFile implements TableAFD, Closeable {
+
+	/** Identifica o formato do arquivo ("AFDT"). */
+	private static final int MAGIC = 0x41464454;
+
+	/** O número de estados. */
+	final int size;
+
+	/** Os símbolos, na ordem das colunas da tabela. */
+	final String[] symbols;
+
+	/** O índice do estado inicial. */
+	final int initial;
+
+	/** Os estados finais, como conjunto de bits. */
+	final MappedLongArray finals;
+
+	/** A tabela de transições. */
+	final MappedIntArray table;
+
+	/** O alfabeto, formado pelos símbolos. */
+	private final Alphabet alphabet;
+
+
+	private final RandomAccessFile file;
+
+	private AFDTableFile(RandomAccessFile file, int size, String[] symbols, int initial, long dataOffset, MapMode mode) throws IOException {
+		this.file = file;
+		this.size = size;
+		this.symbols = symbols;
+		this.initial = initial;
+		long finalWords = (size + 63L) >>> 6;
+		this.finals = new MappedLongArray(file.getChannel(), dataOffset, finalWords, mode);
+		this.table = new MappedIntArray(file.getChannel(), dataOffset + (finalWords << 3), (long) size * symbols.length, mode);
+		this.alphabet = new Alphabet(symbols);
+	}
+
+	/**
+	 * Abre um arquivo de tabela existente para leitura.
+	 *
+	 * @param input
+	 *            O arquivo.
+	 * @return O arquivo aberto, que deve ser fechado.
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	public static AFDTableFile open(File input) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(input, "r");
+		try {
+			if (file.length() < 16 || file.readInt() != MAGIC) {
+				throw new ValidationException(ErrorType.MINIMIZE, "O arquivo " + input.getName() + " não contém uma tabela de AFD.");
+			}
+			int size = file.readInt();
+			String[] symbols = new String[file.readInt()];
+			int initial = file.readInt();
+			for (int a = 0; a < symbols.length; a++) {
+				byte[] bytes = new byte[file.readInt()];
+				file.readFully(bytes);
+				symbols[a] = new String(bytes, StandardCharsets.UTF_8);
+			}
+			long dataOffset = align(file.getFilePointer());
+			long expected = dataOffset + (((size + 63L) >>> 6) << 3) + ((long) size * symbols.length << 2);
+			if (file.length() < expected) {
+				throw new ValidationException(ErrorType.MINIMIZE, "O arquivo " + input.getName() + " está incompleto.");
+			}
+			return new AFDTableFile(file, size, symbols, initial, dataOffset, MapMode.READ_ONLY);
+		} catch (IOException | RuntimeException e) {
+			file.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Cria um arquivo de tabela, com todas as transições inexistentes e
+	 * nenhum estado final.
+	 *
+	 * @param output
+	 *            O arquivo. É sobrescrito se existir.
+	 * @param size
+	 *            O número de estados.
+	 * @param symbols
+	 *            Os símbolos.
+	 * @param initial
+	 *            O índice do estado inicial.
+	 * @return O arquivo aberto para escrita.
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	static AFDTableFile create(File output, int size, String[] symbols, int initial) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(output, "rw");
+		try {
+			file.setLength(0);
+			file.writeInt(MAGIC);
+			file.writeInt(size);
+			file.writeInt(symbols.length);
+			file.writeInt(initial);
+			for (String symbol : symbols) {
+				byte[] bytes = symbol.getBytes(StandardCharsets.UTF_8);
+				file.writeInt(bytes.length);
+				file.write(bytes);
+			}
+			long dataOffset = align(file.getFilePointer());
+			file.setLength(dataOffset + (((size + 63L) >>> 6) << 3) + ((long) size * symbols.length << 2));
+			AFDTableFile created = new AFDTableFile(file, size, symbols, initial, dataOffset, MapMode.READ_WRITE);
+			created.table.fill(IndexedAFD.NONE);
+			return created;
+		} catch (IOException | RuntimeException e) {
+			file.close();
+			throw e;
+		}
+	}
+
+	@Override
+	public Alphabet getAlphabet() {
+		return alphabet;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public int alphabetSize() {
+		return symbols.length;
+	}
+
+	@Override
+	public int getInitialState() {
+		return initial;
+	}
+
+	@Override
+	public int next(int state, int symbol) {
+		return table.get((long) state * symbols.length + symbol);
+	}
+
+	@Override
+	public boolean isFinal(int state) {
+		return finals.getBit(state);
+	}
+
+	/**
+	 * Retorna o nome de um estado. Os nomes não são gravados, e os estados são
+	 * nomeados G1, G2, ..., na ordem do arquivo.
+	 *
+	 * @param state
+	 *            O índice do estado.
+	 * @return O nome.
+	 */
+	@Override
+	public String getStateName(int state) {
+		return "G" + (state + 1);
+	}
+
+	/**
+	 * Arredonda uma posição do arquivo para um múltiplo de 8.
+	 *
+	 * @param position
+	 *            A posição.
+	 * @return A posição arredondada.
+	 */
+	private static long align(long position) {
+		return (position + 7) & ~7L;
+	}
+
+	/**
+	 * Grava um AFD em um arquivo de tabela. Os nomes dos estados não são
+	 * gravados.
+	 *
+	 * @param afd
+	 *            O AFD.
+	 * @param output
+	 *            O arquivo. É sobrescrito se existir.
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	public static void write(AFD afd, File output) throws IOException {
+		IndexedAFD indexed = IndexedAFD.of(afd);
+		String[] symbols = new String[indexed.alphabetSize()];
+		for (int a = 0; a < symbols.length; a++) {
+			symbols[a] = indexed.symbols[a].getStr();
+		}
+		try (AFDTableFile file = create(output, indexed.size, symbols, indexed.initial)) {
+			for (int i = 0; i < indexed.table.length; i++) {
+				file.table.set(i, indexed.table[i]);
+			}
+			for (int s = indexed.finals.nextSetBit(0); s >= 0; s = indexed.finals.nextSetBit(s + 1)) {
+				file.finals.setBit(s);
+			}
+		}
+	}
+
+	/**
+	 * Lê um AFD de um arquivo de tabela para a memória. Os estados são
+	 * nomeados G1, G2, ..., na ordem do arquivo.
+	 *
+	 * @param input
+	 *            O arquivo.
+	 * @return O AFD.
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	public static AFD read(File input) throws IOException {
+		try (AFDTableFile file = open(input)) {
+			int[] table = new int[file.size * file.symbols.length];
+			for (int i = 0; i < table.length; i++) {
+				table[i] = file.table.get(i);
+			}
+			BitSet finals = new BitSet(file.size);
+			for (int s = 0; s < file.size; s++) {
+				finals.set(s, file.finals.getBit(s));
+			}
+			return new IndexedAFD(file.size, file.alphabet, table, finals, file.initial).toAFD();
+		}
+	}
+
+	/**
+	 * Fecha o arquivo.
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	@Override
+	public void close() throws IOException {
+		finals.close();
+		table.close();
+		file.close();
+	}
+}
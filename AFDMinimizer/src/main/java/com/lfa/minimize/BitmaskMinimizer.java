@@ -0,0 +1,213 @@
+package com.lfa.minimize;
+
+/**
+ * Classe BitmaskMinimizer. Refinamento de partição para AFDs pequenos, de até
+ * {@link #MAX_STATES} estados contando o estado de descarte implícito. Cada
+ * conjunto de estados é um par de longs (bits 0 a 63 e 64 a 127), e os
+ * predecessores de cada estado por cada símbolo são guardados como conjuntos
+ * do mesmo tipo, de modo que a pré-imagem de um divisor é a união de algumas
+ * máscaras.
+ *
+ * A lista de trabalho guarda os próprios conjuntos divisores, e não
+ * identificadores de blocos. Um divisor continua válido depois que seu bloco
+ * é dividido, pois é a união dos novos blocos, então basta acrescentar a menor
+ * metade de cada divisão, como no algoritmo de Hopcroft. A partição final é a
+ * mesma calculada por {@link HopcroftMinimizer}.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+final class BitmaskMinimizer {
+
+	/** O número máximo de estados, incluindo o estado de descarte. */
+	static final int MAX_STATES = 128;
+
+	private BitmaskMinimizer() {
+	}
+
+	/**
+	 * Verifica se um AFD é pequeno o bastante para este minimizador.
+	 *
+	 * @param afd
+	 *            O AFD indexado.
+	 * @return true, se couber em um par de longs.
+	 */
+	static boolean fits(IndexedAFD afd) {
+		return afd.size + (afd.isComplete() ? 0 : 1) <= MAX_STATES;
+	}
+
+	/**
+	 * Calcula a partição dos estados em classes de equivalência.
+	 *
+	 * @param afd
+	 *            O AFD indexado, que deve satisfazer {@link #fits(IndexedAFD)}.
+	 *            Transições inexistentes são tratadas como transições para um
+	 *            estado de descarte.
+	 * @return A classe de cada estado, numeradas na ordem em que aparecem.
+	 */
+	static int[] refine(IndexedAFD afd) {
+		int n = afd.size;
+		int k = afd.alphabetSize();
+		boolean complete = afd.isComplete();
+		int sink = complete ? IndexedAFD.NONE : n;
+		int total = complete ? n : n + 1;
+
+		// Predecessores de cada par (destino, símbolo).
+		long[] predLo = new long[total * k];
+		long[] predHi = new long[total * k];
+		for (int s = 0; s < total; s++) {
+			for (int a = 0; a < k; a++) {
+				int d = s == sink ? sink : afd.table[s * k + a];
+				if (d == IndexedAFD.NONE) {
+					d = sink;
+				}
+				if (s < 64) {
+					predLo[d * k + a] |= 1L << s;
+				} else {
+					predHi[d * k + a] |= 1L << (s - 64);
+				}
+			}
+		}
+
+		long[] blockLo = new long[total];
+		long[] blockHi = new long[total];
+		int[] blockOf = afd.initialBlocks(total);
+		int blockCount = 0;
+		for (int s = 0; s < total; s++) {
+			int b = blockOf[s];
+			blockCount = Math.max(blockCount, b + 1);
+			if (s < 64) {
+				blockLo[b] |= 1L << s;
+			} else {
+				blockHi[b] |= 1L << (s - 64);
+			}
+		}
+
+		// Cada divisão acrescenta no máximo um divisor, e todos os blocos
+		// iniciais, exceto um dos maiores, entram na lista.
+		long[] worklistLo = new long[total];
+		long[] worklistHi = new long[total];
+		int worklistSize = 0;
+		int largest = 0;
+		for (int b = 1; b < blockCount; b++) {
+			if (size(blockLo[b], blockHi[b]) > size(blockLo[largest], blockHi[largest])) {
+				largest = b;
+			}
+		}
+		for (int b = 0; b < blockCount; b++) {
+			if (b != largest) {
+				worklistLo[worklistSize] = blockLo[b];
+				worklistHi[worklistSize++] = blockHi[b];
+			}
+		}
+
+		while (worklistSize > 0) {
+			worklistSize--;
+			long splitterLo = worklistLo[worklistSize];
+			long splitterHi = worklistHi[worklistSize];
+			for (int a = 0; a < k; a++) {
+				long preLo = 0;
+				long preHi = 0;
+				for (long bits = splitterLo; bits != 0; bits &= bits - 1) {
+					int t = Long.numberOfTrailingZeros(bits);
+					preLo |= predLo[t * k + a];
+					preHi |= predHi[t * k + a];
+				}
+				for (long bits = splitterHi; bits != 0; bits &= bits - 1) {
+					int t = 64 + Long.numberOfTrailingZeros(bits);
+					preLo |= predLo[t * k + a];
+					preHi |= predHi[t * k + a];
+				}
+
+				// Os blocos atingidos pela pré-imagem, também como máscara.
+				long touchedLo = 0;
+				long touchedHi = 0;
+				for (long bits = preLo; bits != 0; bits &= bits - 1) {
+					int b = blockOf[Long.numberOfTrailingZeros(bits)];
+					if (b < 64) {
+						touchedLo |= 1L << b;
+					} else {
+						touchedHi |= 1L << (b - 64);
+					}
+				}
+				for (long bits = preHi; bits != 0; bits &= bits - 1) {
+					int b = blockOf[64 + Long.numberOfTrailingZeros(bits)];
+					if (b < 64) {
+						touchedLo |= 1L << b;
+					} else {
+						touchedHi |= 1L << (b - 64);
+					}
+				}
+
+				for (int half = 0; half < 2; half++) {
+					for (long bits = half == 0 ? touchedLo : touchedHi; bits != 0; bits &= bits - 1) {
+						int b = half * 64 + Long.numberOfTrailingZeros(bits);
+						long outLo = blockLo[b] & ~preLo;
+						long outHi = blockHi[b] & ~preHi;
+						if ((outLo | outHi) == 0) {
+							continue;
+						}
+						long inLo = blockLo[b] & preLo;
+						long inHi = blockHi[b] & preHi;
+
+						// A menor metade vira um novo bloco e entra na lista.
+						long newLo = inLo;
+						long newHi = inHi;
+						if (size(inLo, inHi) <= size(outLo, outHi)) {
+							blockLo[b] = outLo;
+							blockHi[b] = outHi;
+						} else {
+							newLo = outLo;
+							newHi = outHi;
+							blockLo[b] = inLo;
+							blockHi[b] = inHi;
+						}
+						blockLo[blockCount] = newLo;
+						blockHi[blockCount] = newHi;
+						assign(blockOf, blockCount++, newLo, newHi);
+						worklistLo[worklistSize] = newLo;
+						worklistHi[worklistSize++] = newHi;
+					}
+				}
+			}
+		}
+
+		int[] classes = new int[n];
+		System.arraycopy(blockOf, 0, classes, 0, n);
+		IndexedAFD.canonicalize(classes, blockCount);
+		return classes;
+	}
+
+	/**
+	 * Atribui um bloco aos estados de um conjunto.
+	 *
+	 * @param blockOf
+	 *            O bloco de cada estado.
+	 * @param block
+	 *            O bloco.
+	 * @param lo
+	 *            Os bits 0 a 63 do conjunto.
+	 * @param hi
+	 *            Os bits 64 a 127 do conjunto.
+	 */
+	private static void assign(int[] blockOf, int block, long lo, long hi) {
+		for (long bits = lo; bits != 0; bits &= bits - 1) {
+			blockOf[Long.numberOfTrailingZeros(bits)] = block;
+		}
+		for (long bits = hi; bits != 0; bits &= bits - 1) {
+			blockOf[64 + Long.numberOfTrailingZeros(bits)] = block;
+		}
+	}
+
+	/**
+	 * Retorna o número de estados de um conjunto.
+	 *
+	 * @param lo
+	 *            Os bits 0 a 63.
+	 * @param hi
+	 *            Os bits 64 a 127.
+	 * @return O número de estados.
+	 */
+	private static int size(long lo, long hi) {
+		return Long.bitCount(lo) + Long.bitCount(hi);
+	}
+}
@@ -0,0 +1,194 @@
+package com.lfa.minimize;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+
+import com.lfa.autotest.AFDAutotester;
+import com.lfa.exception.ValidationException;
+import com.lfa.exception.ValidationException.ErrorType;
+
+/**
+ * Classe BrzozowskiMinimizer. Minimização pelo algoritmo de Brzozowski: o AFD
+ * é invertido e determinizado duas vezes, e o resultado é o AFD mínimo sem
+ * estados inalcançáveis ou inúteis. A inversão segue a mesma ideia de
+ * {@link AFDAutotester}, mas gera um autômato não determinístico com todos os
+ * estados finais como iniciais.
+ *
+ * Os estados da construção de subconjuntos são identificados por
+ * {@link BitSet}s. Cada determinização é limitada tanto no número de estados
+ * gerados quanto na memória estimada dos subconjuntos guardados, já que cada
+ * subconjunto pode ter até um bit por estado do autômato invertido, para que
+ * uma explosão de estados não esgote a memória.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+final class BrzozowskiMinimizer {
+
+	/** O limite padrão de estados gerados em cada determinização. */
+	static final int DEFAULT_MAX_STATES = 1 << 20;
+
+	/** O limite padrão de memória dos subconjuntos de cada determinização. */
+	static final long DEFAULT_MAX_BYTES = 256L << 20;
+
+	/**
+	 * Uma estimativa dos bytes usados por subconjunto além dos seus bits: os
+	 * objetos {@link BitSet} e {@link Integer}, o nó do {@link HashMap}, a
+	 * referência na fila e a linha da tabela de transições, sem os símbolos.
+	 */
+	private static final int SUBSET_OVERHEAD = 112;
+
+	/**
+	 * Classe Reversed. Um autômato não determinístico, resultado da inversão
+	 * de um AFD, com os sucessores de cada par (estado, símbolo) em formato
+	 * compactado.
+	 */
+	private static final class Reversed {
+
+		private final int size;
+		private final int k;
+		private final int[] start;
+		private final int[] targets;
+		private final BitSet initials;
+		private final BitSet finals;
+
+		/**
+		 * Inverte um AFD indexado.
+		 *
+		 * @param afd
+		 *            O AFD indexado.
+		 */
+		private Reversed(IndexedAFD afd) {
+			this.size = afd.size;
+			this.k = afd.alphabetSize();
+			this.start = new int[size * k + 1];
+			for (int s = 0; s < size; s++) {
+				for (int a = 0; a < k; a++) {
+					int d = afd.next(s, a);
+					if (d != IndexedAFD.NONE) {
+						start[d * k + a + 1]++;
+					}
+				}
+			}
+			for (int i = 0; i < size * k; i++) {
+				start[i + 1] += start[i];
+			}
+			this.targets = new int[start[size * k]];
+			int[] cursor = Arrays.copyOf(start, size * k);
+			for (int s = 0; s < size; s++) {
+				for (int a = 0; a < k; a++) {
+					int d = afd.next(s, a);
+					if (d != IndexedAFD.NONE) {
+						targets[cursor[d * k + a]++] = s;
+					}
+				}
+			}
+			this.initials = (BitSet) afd.finals.clone();
+			this.finals = new BitSet(size);
+			finals.set(afd.initial);
+		}
+	}
+
+	/**
+	 * Minimiza um AFD indexado.
+	 *
+	 * @param afd
+	 *            O AFD indexado.
+	 * @param maxStates
+	 *            O número máximo de estados em cada determinização.
+	 * @param maxBytes
+	 *            A memória máxima estimada, em bytes, dos subconjuntos de cada
+	 *            determinização.
+	 * @return O AFD mínimo, indexado.
+	 */
+	static IndexedAFD minimize(IndexedAFD afd, int maxStates, long maxBytes) {
+		if (maxStates < 1) {
+			throw new ValidationException(ErrorType.MINIMIZE, "O limite de estados deve ser positivo: " + maxStates + ".");
+		}
+		if (maxBytes < 1) {
+			throw new ValidationException(ErrorType.MINIMIZE, "O limite de memória deve ser positivo: " + maxBytes + ".");
+		}
+		return determinize(new Reversed(determinize(new Reversed(afd), afd, maxStates, maxBytes)), afd, maxStates, maxBytes);
+	}
+
+	/**
+	 * Determiniza um autômato invertido pela construção de subconjuntos,
+	 * gerando somente os subconjuntos alcançáveis e não vazios. Os sucessores
+	 * são calculados em um {@link BitSet} reaproveitado, e só os subconjuntos
+	 * novos são copiados, com o tamanho exato.
+	 *
+	 * @param nfa
+	 *            O autômato invertido.
+	 * @param original
+	 *            O AFD original, de onde vêm os símbolos.
+	 * @param maxStates
+	 *            O número máximo de estados gerados.
+	 * @param maxBytes
+	 *            A memória máxima estimada, em bytes, dos subconjuntos.
+	 * @return O AFD determinizado.
+	 */
+	private static IndexedAFD determinize(Reversed nfa, IndexedAFD original, int maxStates, long maxBytes) {
+		int k = nfa.k;
+		HashMap<BitSet, Integer> index = new HashMap<>();
+		ArrayDeque<BitSet> queue = new ArrayDeque<>();
+		int[] table = new int[Math.max(k, 16)];
+		BitSet finals = new BitSet();
+		BitSet successor = new BitSet();
+
+		index.put(nfa.initials, 0);
+		queue.add(nfa.initials);
+		int count = 1;
+		long bytes = subsetBytes(nfa.initials, k);
+		for (int id = 0; !queue.isEmpty(); id++) {
+			BitSet subset = queue.poll();
+			if (subset.intersects(nfa.finals)) {
+				finals.set(id);
+			}
+			for (int a = 0; a < k; a++) {
+				successor.clear();
+				for (int s = subset.nextSetBit(0); s >= 0; s = subset.nextSetBit(s + 1)) {
+					for (int j = nfa.start[s * k + a]; j < nfa.start[s * k + a + 1]; j++) {
+						successor.set(nfa.targets[j]);
+					}
+				}
+				int destination = IndexedAFD.NONE;
+				if (!successor.isEmpty()) {
+					Integer known = index.get(successor);
+					if (known == null) {
+						if (count == maxStates) {
+							throw new ValidationException(ErrorType.MINIMIZE, "A construção de subconjuntos excedeu o limite de " + maxStates + " estados.");
+						}
+						BitSet subsetCopy = BitSet.valueOf(successor.toLongArray());
+						bytes += subsetBytes(subsetCopy, k);
+						if (bytes > maxBytes) {
+							throw new ValidationException(ErrorType.MINIMIZE, "A construção de subconjuntos excedeu o limite de " + maxBytes + " bytes.");
+						}
+						known = count++;
+						index.put(subsetCopy, known);
+						queue.add(subsetCopy);
+					}
+					destination = known;
+				}
+				if (table.length < (id + 1) * k) {
+					table = Arrays.copyOf(table, Math.max(table.length * 2, (id + 1) * k));
+				}
+				table[id * k + a] = destination;
+			}
+		}
+		return new IndexedAFD(count, original.alphabet, Arrays.copyOf(table, count * k), finals, 0);
+	}
+
+	/**
+	 * Estima a memória usada por um subconjunto guardado.
+	 *
+	 * @param subset
+	 *            O subconjunto.
+	 * @param k
+	 *            O tamanho do alfabeto.
+	 * @return A memória estimada, em bytes.
+	 */
+	private static long subsetBytes(BitSet subset, int k) {
+		return ((subset.length() + 63L) >>> 6) * 8L + SUBSET_OVERHEAD + k * 4L;
+	}
+}
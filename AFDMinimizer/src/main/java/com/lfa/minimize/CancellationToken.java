@@ -0,0 +1,30 @@
+package com.lfa.minimize;
+
+/**
+ * Classe CancellationToken. Permite cancelar, a partir de outra thread, uma
+ * minimização executada com {@link MinimizationOptions}. O cancelamento é
+ * cooperativo: a minimização verifica o token periodicamente e, ao perceber o
+ * cancelamento, lança uma {@link com.lfa.exception.ValidationException}.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+public final class CancellationToken {
+
+	private volatile boolean cancelled;
+
+	/**
+	 * Solicita o cancelamento.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Verifica se o cancelamento foi solicitado.
+	 *
+	 * @return true, se {@link #cancel()} já foi chamado.
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+}
@@ -69,6 +69,48 @@ public final class Group {
 		}
 	}
 
+	/**
+	 * Classe GroupContext. Guarda o estado de uma minimização por grupos: o
+	 * número de grupos criados, usado para nomeá-los, e se os grupos iniciais
+	 * já foram construídos. Cada minimização usa o seu próprio contexto, de
+	 * forma que várias podem ser executadas ao mesmo tempo.
+	 */
+	public final static class GroupContext {
+
+		private int numGroups = 0;
+		private boolean builtInitial = false;
+
+		/**
+		 * Constrói os grupos iniciais de um AFD.
+		 *
+		 * @param original
+		 *            O AFD original.
+		 * @return the O conjunto de estados iniciais criados.
+		 */
+		public Set<Group> buildInitialGroups(AFD original) {
+
+			if (builtInitial) {
+				throw new ValidationException(ErrorType.MINIMIZE, "Grupos iniciais já criados.");
+			}
+
+			Group nonFinalGroup = builder().addAll(CollectionUtils.removeAll(original.getStates(), original.getFinalStates())).buildProcess();
+			Group finalGroup = builder().addAll(original.getFinalStates()).buildProcess();
+
+			builtInitial = true;
+
+			return new HashSet<>(Arrays.asList(nonFinalGroup, finalGroup));
+		}
+
+		/**
+		 * Retorna um novo {@link GroupBuilder} deste contexto.
+		 *
+		 * @return O novo builder
+		 */
+		public GroupBuilder builder() {
+			return new GroupBuilder(this);
+		}
+	}
+
 	/**
 	 * Classe GroupBuilder. Serve para construir um novo {@link Group}, de forma
 	 * que adições de estados e transições podem ser feitas somente através
@@ -77,30 +119,21 @@ public final class Group {
 	@ToString(callSuper = false, of = "name")
 	public final static class GroupBuilder {
 
-		private static int NUM_GROUPS = 0;
-
+		private final GroupContext context;
 		private final String name;
 		private final LinkedHashSet<State> states;
 		private final LinkedHashSet<GroupTransition> groupTransitions;
 		private boolean built;
 
-		private static boolean builtInitial = false;
-
-		/**
-		 * Reseta o número de grupos criados para 0. Deve ser usado SOMENTE
-		 * quando se minimiza um novo {@link AFD} e já se usou a minimização
-		 * antes.
-		 */
-		public static void reset() {
-			builtInitial = false;
-			NUM_GROUPS = 0;
-		}
-
 		/**
 		 * Instancia um novo GroupBuilder
+		 *
+		 * @param context
+		 *            O contexto da minimização.
 		 */
-		private GroupBuilder() {
-			this.name = "G" + (++NUM_GROUPS);
+		private GroupBuilder(GroupContext context) {
+			this.context = context;
+			this.name = "G" + (++context.numGroups);
 			this.states = new LinkedHashSet<>();
 			this.groupTransitions = new LinkedHashSet<>();
 			this.built = false;
@@ -115,7 +148,7 @@ public final class Group {
 			if (built) {
 				throw new ValidationException(ErrorType.MINIMIZE, "Tentativa de reuso de um builder de grupo.");
 			}
-			if (!builtInitial) {
+			if (!context.builtInitial) {
 				throw new ValidationException(ErrorType.MINIMIZE, "Grupos iniciais não foram construídos ainda.");
 			}
 			built = true;
@@ -131,33 +164,6 @@ public final class Group {
 			return new Group(name, states, groupTransitions);
 		}
 
-		/**
-		 * Constrói os grupos iniciais de um AFD.
-		 *
-		 * @param original
-		 *            O AFD original.
-		 * @return the O conjunto de estados iniciais criados.
-		 */
-		public static Set<Group> buildInitialGroups(AFD original) {
-
-			if (builtInitial) {
-				throw new ValidationException(ErrorType.MINIMIZE, "Grupos iniciais já criados.");
-			}
-
-			try {
-				Group nonFinalGroup = builder().addAll(CollectionUtils.removeAll(original.getStates(), original.getFinalStates())).buildProcess();
-				Group finalGroup = builder().addAll(original.getFinalStates()).buildProcess();
-
-				builtInitial = true;
-
-				return new HashSet<>(Arrays.asList(nonFinalGroup, finalGroup));
-
-			} catch (Throwable ex) {
-				reset();
-				throw ex;
-			}
-		}
-
 		/**
 		 * Adiciona um estado aos estados do grupo a ser construído.
 		 *
@@ -338,13 +344,4 @@ public final class Group {
 		return groupTransitions.contains(new GroupTransition(consumed, destination));
 	}
 
-	/**
-	 * Retorna um novo {@link GroupBuilder}.
-	 *
-	 * @return O novo builder
-	 */
-	public static GroupBuilder builder() {
-		return new GroupBuilder();
-	}
-
 }
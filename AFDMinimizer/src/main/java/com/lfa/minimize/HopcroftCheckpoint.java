@@ -0,0 +1,185 @@
+package com.lfa.minimize;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import com.lfa.exception.ValidationException;
+import com.lfa.exception.ValidationException.ErrorType;
+
+/**
+ * Classe HopcroftCheckpoint. Estado salvo do refinamento de
+ * {@link HopcroftMinimizer}, que permite retomar uma minimização interrompida.
+ * Entre duas rodadas, o estado se resume ao bloco de cada estado e à lista de
+ * trabalho; as faixas dos blocos são reconstruídas a partir deles.
+ *
+ * O arquivo contém um cabeçalho com uma impressão digital do AFD, o número de
+ * estados e o número de blocos, seguido do bloco de cada estado e da lista de
+ * trabalho. Ele é escrito em um arquivo temporário, que então substitui o
+ * anterior, de modo que uma interrupção durante a escrita não corrompe o
+ * último checkpoint.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+final class HopcroftCheckpoint {
+
+	/** Identifica o formato do arquivo ("AFDC"). */
+	private static final int MAGIC = 0x41464443;
+
+	/** O bloco de cada estado. */
+	final int[] blockOf;
+
+	/** O número de blocos. */
+	final int blockCount;
+
+	/** Os blocos da lista de trabalho, na ordem da pilha. */
+	final int[] worklist;
+
+	private HopcroftCheckpoint(int[] blockOf, int blockCount, int[] worklist) {
+		this.blockOf = blockOf;
+		this.blockCount = blockCount;
+		this.worklist = worklist;
+	}
+
+	/**
+	 * Calcula a impressão digital de um AFD, que identifica a entrada de um
+	 * checkpoint.
+	 *
+	 * @param afd
+	 *            O AFD indexado.
+	 * @return A impressão digital.
+	 */
+	static long fingerprint(IndexedAFD afd) {
+		long hash = (afd.size * 31L + afd.alphabetSize()) * 31L + afd.initial;
+		for (int s = 0; s < afd.size; s++) {
+			hash = (hash ^ afd.label(s)) * 0x9E3779B97F4A7C15L;
+			hash ^= hash >>> 31;
+		}
+		for (int d : afd.table) {
+			hash = (hash ^ d) * 0xC2B2AE3D27D4EB4FL;
+			hash ^= hash >>> 29;
+		}
+		return hash;
+	}
+
+	/**
+	 * Lê um checkpoint.
+	 *
+	 * @param file
+	 *            O arquivo.
+	 * @param fingerprint
+	 *            A impressão digital do AFD sendo minimizado.
+	 * @param total
+	 *            O número de estados do refinamento, incluindo o estado de
+	 *            descarte implícito.
+	 * @return O checkpoint, ou null, se o arquivo não existir.
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	static HopcroftCheckpoint read(File file, long fingerprint, int total) throws IOException {
+		if (!file.exists()) {
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC) {
+				throw new ValidationException(ErrorType.MINIMIZE, "O arquivo " + file.getName() + " não contém um checkpoint de minimização.");
+			}
+			if (in.readLong() != fingerprint || in.readInt() != total) {
+				throw new ValidationException(ErrorType.MINIMIZE, "O checkpoint " + file.getName() + " pertence a outro AFD.");
+			}
+			int blockCount = in.readInt();
+			if (blockCount < 1 || blockCount > total) {
+				throw invalid(file);
+			}
+			int[] blockOf = new int[total];
+			int[] sizes = new int[blockCount];
+			for (int s = 0; s < total; s++) {
+				blockOf[s] = in.readInt();
+				if (blockOf[s] < 0 || blockOf[s] >= blockCount) {
+					throw invalid(file);
+				}
+				sizes[blockOf[s]]++;
+			}
+			for (int size : sizes) {
+				if (size == 0) {
+					throw invalid(file);
+				}
+			}
+			int[] worklist = new int[in.readInt()];
+			if (worklist.length > blockCount) {
+				throw invalid(file);
+			}
+			boolean[] seen = new boolean[blockCount];
+			for (int i = 0; i < worklist.length; i++) {
+				worklist[i] = in.readInt();
+				if (worklist[i] < 0 || worklist[i] >= blockCount || seen[worklist[i]]) {
+					throw invalid(file);
+				}
+				seen[worklist[i]] = true;
+			}
+			return new HopcroftCheckpoint(blockOf, blockCount, worklist);
+		} catch (EOFException e) {
+			throw invalid(file);
+		}
+	}
+
+	/**
+	 * Escreve um checkpoint, substituindo o anterior.
+	 *
+	 * @param file
+	 *            O arquivo.
+	 * @param fingerprint
+	 *            A impressão digital do AFD sendo minimizado.
+	 * @param blockOf
+	 *            O bloco de cada estado.
+	 * @param blockCount
+	 *            O número de blocos.
+	 * @param worklist
+	 *            A lista de trabalho.
+	 * @param worklistSize
+	 *            O número de blocos na lista de trabalho.
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	static void write(File file, long fingerprint, int[] blockOf, int blockCount, int[] worklist, int worklistSize) throws IOException {
+		File temporary = new File(file.getPath() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)))) {
+			out.writeInt(MAGIC);
+			out.writeLong(fingerprint);
+			out.writeInt(blockOf.length);
+			out.writeInt(blockCount);
+			for (int block : blockOf) {
+				out.writeInt(block);
+			}
+			out.writeInt(worklistSize);
+			for (int i = 0; i < worklistSize; i++) {
+				out.writeInt(worklist[i]);
+			}
+		}
+		try {
+			Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Cria a exceção de um checkpoint inválido.
+	 *
+	 * @param file
+	 *            O arquivo.
+	 * @return A exceção.
+	 */
+	private static ValidationException invalid(File file) {
+		return new ValidationException(ErrorType.MINIMIZE, "O checkpoint " + file.getName() + " está corrompido.");
+	}
+}
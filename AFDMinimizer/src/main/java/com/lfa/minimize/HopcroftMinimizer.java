@@ -0,0 +1,393 @@
+package com.lfa.minimize;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.function.IntSupplier;
+
+import com.lfa.exception.ValidationException;
+
+/**
+ * Classe HopcroftMinimizer. Implementação do algoritmo de Hopcroft sobre um
+ * {@link IndexedAFD}, em tempo O(k·n·log n). A partição é mantida em vetores
+ * de inteiros (cada bloco é uma faixa contígua de um vetor de elementos) e os
+ * divisores pendentes ficam em uma lista de trabalho, da qual sempre se
+ * processa a menor metade de cada bloco dividido.
+ *
+ * Transições inexistentes são tratadas como transições para um estado de
+ * descarte implícito, que não faz parte do resultado.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+final class HopcroftMinimizer {
+
+	private final int k;
+	private final int total;
+
+	// Predecessores de cada par (destino, símbolo), em formato compactado.
+	private final int[] predStart;
+	private final int[] preds;
+
+	// A partição: elementos agrupados por bloco e a posição de cada estado.
+	private final int[] elements;
+	private final int[] location;
+	private final int[] blockOf;
+	private final int[] blockStart;
+	private final int[] blockEnd;
+	private final int[] marked;
+	private int blockCount;
+
+	// A lista de trabalho dos blocos divisores.
+	private final int[] worklist;
+	private final boolean[] inWorklist;
+	private int worklistSize;
+
+	private final int[] touched;
+	private int touchedCount;
+
+	// O checkpoint, se houver.
+	private File checkpointFile;
+	private long fingerprint;
+
+	/**
+	 * Instancia um novo HopcroftMinimizer, montando os predecessores e a
+	 * partição inicial (finais e não finais).
+	 *
+	 * @param afd
+	 *            O AFD indexado.
+	 */
+	private HopcroftMinimizer(IndexedAFD afd) {
+		int n = afd.size;
+		this.k = afd.alphabetSize();
+		boolean partial = !afd.isComplete();
+		int sink = partial ? n : IndexedAFD.NONE;
+		this.total = partial ? n + 1 : n;
+
+		this.predStart = new int[total * k + 1];
+		for (int s = 0; s < total; s++) {
+			for (int a = 0; a < k; a++) {
+				predStart[destination(afd, s, a, sink) * k + a + 1]++;
+			}
+		}
+		for (int i = 0; i < total * k; i++) {
+			predStart[i + 1] += predStart[i];
+		}
+		this.preds = new int[predStart[total * k]];
+		int[] cursor = new int[total * k];
+		System.arraycopy(predStart, 0, cursor, 0, total * k);
+		for (int s = 0; s < total; s++) {
+			for (int a = 0; a < k; a++) {
+				preds[cursor[destination(afd, s, a, sink) * k + a]++] = s;
+			}
+		}
+
+		this.elements = new int[total];
+		this.location = new int[total];
+		this.blockOf = new int[total];
+		this.blockStart = new int[total];
+		this.blockEnd = new int[total];
+		this.marked = new int[total];
+		this.worklist = new int[total];
+		this.inWorklist = new boolean[total];
+		this.touched = new int[total];
+
+		// A partição inicial, com os estados agrupados por bloco.
+		int[] initial = afd.initialBlocks(total);
+		for (int s = 0; s < total; s++) {
+			blockCount = Math.max(blockCount, initial[s] + 1);
+			blockEnd[initial[s]]++;
+		}
+		int position = 0;
+		for (int b = 0; b < blockCount; b++) {
+			blockStart[b] = position;
+			position += blockEnd[b];
+			blockEnd[b] = blockStart[b];
+		}
+		for (int s = 0; s < total; s++) {
+			int b = initial[s];
+			elements[blockEnd[b]] = s;
+			location[s] = blockEnd[b]++;
+			blockOf[s] = b;
+		}
+
+		// Todos os blocos iniciais, exceto um dos maiores, são divisores.
+		int largest = 0;
+		for (int b = 1; b < blockCount; b++) {
+			if (blockSize(b) > blockSize(largest)) {
+				largest = b;
+			}
+		}
+		for (int b = 0; b < blockCount; b++) {
+			if (b != largest) {
+				push(b);
+			}
+		}
+	}
+
+	/**
+	 * Calcula a partição dos estados de um AFD em classes de equivalência.
+	 *
+	 * @param afd
+	 *            O AFD indexado.
+	 * @return A classe de cada estado, numeradas a partir de 0 na ordem dos
+	 *         estados.
+	 */
+	static int[] refine(IndexedAFD afd) {
+		return refine(afd, null);
+	}
+
+	/**
+	 * Calcula a partição dos estados de um AFD em classes de equivalência,
+	 * acompanhada por um {@link MinimizationMonitor}. Cada bloco divisor
+	 * processado é uma rodada. Se o monitor tiver um arquivo de checkpoint, o
+	 * refinamento é retomado a partir dele, quando existir, e gravado no
+	 * intervalo definido e quando algum limite for atingido ou o refinamento
+	 * for cancelado.
+	 *
+	 * @param afd
+	 *            O AFD indexado.
+	 * @param monitor
+	 *            O monitor, ou null.
+	 * @return A classe de cada estado, numeradas a partir de 0 na ordem dos
+	 *         estados, ou null, se algum limite do monitor foi atingido.
+	 */
+	static int[] refine(IndexedAFD afd, MinimizationMonitor monitor) {
+		HopcroftMinimizer minimizer = new HopcroftMinimizer(afd);
+		File file = monitor != null ? monitor.getCheckpointFile() : null;
+		boolean finished;
+		try {
+			if (file != null) {
+				minimizer.checkpointFile = file;
+				minimizer.fingerprint = HopcroftCheckpoint.fingerprint(afd);
+				HopcroftCheckpoint checkpoint = HopcroftCheckpoint.read(file, minimizer.fingerprint, minimizer.total);
+				if (checkpoint != null) {
+					minimizer.restore(checkpoint);
+				}
+			}
+			try {
+				finished = minimizer.run(monitor);
+			} catch (ValidationException e) {
+				// O cancelamento ocorre entre duas rodadas, então o andamento
+				// pode ser gravado antes de propagar a exceção.
+				if (file != null) {
+					minimizer.checkpoint();
+				}
+				throw e;
+			}
+			if (file != null) {
+				if (finished) {
+					Files.deleteIfExists(file.toPath());
+				} else {
+					minimizer.checkpoint();
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		if (monitor != null) {
+			monitor.finish(minimizer.blockCount, minimizer.largestBlock(), finished);
+		}
+		if (!finished) {
+			return null;
+		}
+		int[] classes = new int[afd.size];
+		System.arraycopy(minimizer.blockOf, 0, classes, 0, afd.size);
+		IndexedAFD.canonicalize(classes, minimizer.blockCount);
+		return classes;
+	}
+
+	/**
+	 * Processa a lista de trabalho até que nenhum bloco possa ser dividido.
+	 *
+	 * @param monitor
+	 *            O monitor, ou null.
+	 * @return false, se algum limite do monitor foi atingido antes do fim.
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	private boolean run(MinimizationMonitor monitor) throws IOException {
+		int[] splitter = new int[total];
+		IntSupplier largest = this::largestBlock;
+		while (worklistSize > 0) {
+			if (monitor != null) {
+				if (!monitor.round(blockCount, largest)) {
+					return false;
+				}
+				if (monitor.checkpointDue()) {
+					checkpoint();
+				}
+			}
+			int block = worklist[--worklistSize];
+			inWorklist[block] = false;
+
+			// O bloco pode ser dividido enquanto é usado como divisor, então
+			// usa-se uma cópia de seus elementos.
+			int length = blockSize(block);
+			System.arraycopy(elements, blockStart[block], splitter, 0, length);
+
+			for (int a = 0; a < k; a++) {
+				touchedCount = 0;
+				for (int i = 0; i < length; i++) {
+					int key = splitter[i] * k + a;
+					for (int j = predStart[key]; j < predStart[key + 1]; j++) {
+						mark(preds[j]);
+					}
+				}
+				for (int i = 0; i < touchedCount; i++) {
+					split(touched[i]);
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Grava o estado atual do refinamento no arquivo de checkpoint.
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	private void checkpoint() throws IOException {
+		HopcroftCheckpoint.write(checkpointFile, fingerprint, blockOf, blockCount, worklist, worklistSize);
+	}
+
+	/**
+	 * Substitui a partição inicial pela de um checkpoint, reagrupando os
+	 * estados por bloco.
+	 *
+	 * @param checkpoint
+	 *            O checkpoint.
+	 */
+	private void restore(HopcroftCheckpoint checkpoint) {
+		blockCount = checkpoint.blockCount;
+		System.arraycopy(checkpoint.blockOf, 0, blockOf, 0, total);
+		for (int b = 0; b < blockCount; b++) {
+			blockEnd[b] = 0;
+		}
+		for (int s = 0; s < total; s++) {
+			blockEnd[blockOf[s]]++;
+		}
+		int position = 0;
+		for (int b = 0; b < blockCount; b++) {
+			blockStart[b] = position;
+			position += blockEnd[b];
+			blockEnd[b] = blockStart[b];
+		}
+		for (int s = 0; s < total; s++) {
+			int b = blockOf[s];
+			elements[blockEnd[b]] = s;
+			location[s] = blockEnd[b]++;
+		}
+		while (worklistSize > 0) {
+			inWorklist[worklist[--worklistSize]] = false;
+		}
+		for (int block : checkpoint.worklist) {
+			push(block);
+		}
+	}
+
+	/**
+	 * Marca um estado, movendo-o para o início da faixa de seu bloco.
+	 *
+	 * @param state
+	 *            O estado.
+	 */
+	private void mark(int state) {
+		int block = blockOf[state];
+		int position = location[state];
+		int target = blockStart[block] + marked[block];
+		int other = elements[target];
+		elements[position] = other;
+		location[other] = position;
+		elements[target] = state;
+		location[state] = target;
+		if (marked[block]++ == 0) {
+			touched[touchedCount++] = block;
+		}
+	}
+
+	/**
+	 * Separa os estados marcados de um bloco em um novo bloco, se nem todos os
+	 * estados foram marcados, e atualiza a lista de trabalho.
+	 *
+	 * @param block
+	 *            O bloco.
+	 */
+	private void split(int block) {
+		int count = marked[block];
+		marked[block] = 0;
+		if (count == blockSize(block)) {
+			return;
+		}
+		int created = blockCount++;
+		blockStart[created] = blockStart[block];
+		blockEnd[created] = blockStart[block] + count;
+		blockStart[block] += count;
+		for (int i = blockStart[created]; i < blockEnd[created]; i++) {
+			blockOf[elements[i]] = created;
+		}
+		if (inWorklist[block]) {
+			push(created);
+		} else {
+			push(blockSize(created) <= blockSize(block) ? created : block);
+		}
+	}
+
+	/**
+	 * Adiciona um bloco à lista de trabalho.
+	 *
+	 * @param block
+	 *            O bloco.
+	 */
+	private void push(int block) {
+		inWorklist[block] = true;
+		worklist[worklistSize++] = block;
+	}
+
+	/**
+	 * Retorna o tamanho do maior bloco da partição.
+	 *
+	 * @return O número de estados do maior bloco.
+	 */
+	private int largestBlock() {
+		int largest = 0;
+		for (int b = 0; b < blockCount; b++) {
+			largest = Math.max(largest, blockSize(b));
+		}
+		return largest;
+	}
+
+	/**
+	 * Retorna o tamanho de um bloco.
+	 *
+	 * @param block
+	 *            O bloco.
+	 * @return O número de estados do bloco.
+	 */
+	private int blockSize(int block) {
+		return blockEnd[block] - blockStart[block];
+	}
+
+	/**
+	 * Retorna o destino de uma transição, trocando transições inexistentes
+	 * pelo estado de descarte.
+	 *
+	 * @param afd
+	 *            O AFD indexado.
+	 * @param state
+	 *            O estado de origem.
+	 * @param symbol
+	 *            O símbolo.
+	 * @param sink
+	 *            O estado de descarte.
+	 * @return O destino.
+	 */
+	private static int destination(IndexedAFD afd, int state, int symbol, int sink) {
+		if (state == sink) {
+			return sink;
+		}
+		int destination = afd.next(state, symbol);
+		return destination == IndexedAFD.NONE ? sink : destination;
+	}
+}
@@ -0,0 +1,639 @@
+package com.lfa.minimize;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+
+import com.lfa.automata.afd.AFD;
+import com.lfa.automata.afd.State;
+import com.lfa.collections.ImmutableLinkedSet;
+import com.lfa.constants.Alphabet;
+import com.lfa.constants.Alphabet.Symbol;
+import com.lfa.constants.Constants;
+import com.lfa.exception.ValidationException;
+import com.lfa.exception.ValidationException.ErrorType;
+
+/**
+ * Classe IncrementalMinimizer. Reminimiza um AFD mínimo depois de alterações
+ * em algumas de suas transições, sem refazer o refinamento do AFD inteiro.
+ *
+ * Como os estados de um AFD mínimo são distintos dois a dois, as alterações só
+ * podem juntar classes: cada estado começa em uma classe própria, que nunca é
+ * dividida. Um par de estados que passa a ser equivalente segue, pelas mesmas
+ * palavras, até um par que contém uma semente: um estado alterado ou um estado
+ * com transição para um estado que deixou de alcançar um estado final. Cada
+ * semente é comparada, por um teste de equivalência de pares, com os estados
+ * que têm a mesma impressão digital (um hash dos primeiros níveis de sua
+ * linguagem), e cada união de classes é propagada para os pares de
+ * predecessores pelo mesmo símbolo. Somente esses pares são testados.
+ *
+ * A conversão do AFD para a forma indexada, a busca dos estados vivos, as
+ * impressões digitais e a construção do quociente ainda percorrem o AFD
+ * inteiro, em tempo linear no número de transições. Se os testes de pares
+ * passarem de um limite proporcional a esse tamanho, o AFD é minimizado por
+ * inteiro.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+final class IncrementalMinimizer {
+
+	// Impressão digital dos estados que não alcançam um estado final.
+	private static final long DEAD = 0L;
+	private static final long FINAL = 0x2545F4914F6CDD1DL;
+	private static final long NON_FINAL = 0x5851F42D4C957F2DL;
+
+	// Tamanho de grupo de estados com a impressão de uma semente a partir do
+	// qual as impressões ainda são refinadas.
+	private static final int MAX_CANDIDATES = 64;
+	private static final int MAX_ROUNDS = 32;
+	private static final int STABLE_ROUNDS = 3;
+
+	// Maior tamanho de vetor aceito pela máquina virtual.
+	private static final int MAX_LENGTH = Integer.MAX_VALUE - 8;
+
+	private final IndexedAFD afd;
+	private final int n;
+	private final int k;
+
+	// Predecessores de cada par (destino, símbolo), em formato compactado.
+	private final int[] predStart;
+	private final int[] preds;
+
+	// Estados que alcançam algum estado final.
+	private final BitSet live;
+
+	// Impressão digital de cada estado, com o estado de descarte no índice n.
+	private final long[] print;
+
+	// União e busca das classes, sem compressão de caminhos para que os
+	// testes que falham possam ser desfeitos.
+	private final int[] parent;
+	private final int[] weight;
+	private final int[] used;
+	private int usedCount;
+
+	// Os membros de cada classe, em uma lista circular.
+	private final int[] link;
+
+	private int[] stack;
+	private int[] pairs;
+	private int pairCount;
+	private long work;
+	private final long workLimit;
+
+	/**
+	 * Instancia um novo IncrementalMinimizer.
+	 *
+	 * @param afd
+	 *            O AFD já alterado, indexado.
+	 */
+	private IncrementalMinimizer(IndexedAFD afd) {
+		this.afd = afd;
+		this.n = afd.size;
+		this.k = afd.alphabetSize();
+		int[][] predecessors = predecessors(afd);
+		this.predStart = predecessors[0];
+		this.preds = predecessors[1];
+		this.live = liveStates(afd, predStart, preds);
+		this.print = new long[n + 1];
+		this.parent = new int[n + 1];
+		this.weight = new int[n + 1];
+		this.used = new int[n];
+		this.link = new int[n];
+		this.stack = new int[16];
+		this.pairs = new int[16];
+		// Cada par ocupa duas posições de pairs.
+		this.workLimit = Math.min((long) n * (k + 1) + 1024, MAX_LENGTH / 2);
+	}
+
+	/**
+	 * Aplica as alterações a um AFD mínimo e o reminimiza.
+	 *
+	 * @param minimized
+	 *            O AFD mínimo.
+	 * @param edits
+	 *            As alterações.
+	 * @return O novo AFD mínimo.
+	 */
+	static AFD reminimize(AFD minimized, Collection<TransitionEdit> edits) {
+		IndexedAFD base = IndexedAFD.of(minimized);
+		int n = base.size;
+		int[][] basePredecessors = predecessors(base);
+		BitSet baseLive = liveStates(base, basePredecessors[0], basePredecessors[1]);
+		checkMinimal(base, baseLive);
+
+		ImmutableLinkedSet<State> states = minimized.getStates();
+		// Símbolos fora do alfabeto do AFD mínimo são acrescentados ao final.
+		LinkedHashSet<String> symbols = new LinkedHashSet<>();
+		for (Symbol symbol : base.symbols) {
+			symbols.add(symbol.getStr());
+		}
+		for (TransitionEdit edit : edits) {
+			if (edit.getConsumed() == null) {
+				throw new ValidationException(ErrorType.MINIMIZE, "Alteração sem símbolo: " + edit + ".");
+			}
+			symbols.add(edit.getConsumed().getStr());
+		}
+		Alphabet alphabet = symbols.size() == base.alphabetSize() ? base.alphabet : new Alphabet(symbols);
+
+		int k = alphabet.size();
+		int[] table = new int[n * k];
+		Arrays.fill(table, IndexedAFD.NONE);
+		for (int s = 0; s < n; s++) {
+			System.arraycopy(base.table, s * base.alphabetSize(), table, s * k, base.alphabetSize());
+		}
+		BitSet edited = new BitSet(n);
+		for (TransitionEdit edit : edits) {
+			int source = indexOf(states, edit.getSource());
+			int slot = source * k + alphabet.ordinalOf(edit.getConsumed());
+			boolean exists = table[slot] != IndexedAFD.NONE;
+			if (exists == (edit.getKind() == TransitionEdit.Kind.ADD)) {
+				throw new ValidationException(ErrorType.MINIMIZE, "Alteração incompatível com as transições do AFD: " + edit + "." + Constants.NEWLINE + "Estado: "
+						+ edit.getSource().getName() + ". Símbolo da transição: " + edit.getConsumed().getStr() + ".");
+			}
+			table[slot] = edit.getKind() == TransitionEdit.Kind.REMOVE ? IndexedAFD.NONE : indexOf(states, edit.getDestination());
+			edited.set(source);
+		}
+
+		IndexedAFD changed = new IndexedAFD(n, alphabet, table, base.finals, base.initial);
+		IncrementalMinimizer minimizer = new IncrementalMinimizer(changed);
+		int[] classes = minimizer.refine(minimizer.seeds(edited, baseLive));
+		if (classes == null) {
+			Trimmer trimmer = new Trimmer(changed);
+			return trimmer.quotient(HopcroftMinimizer.refine(trimmer.trimmed));
+		}
+		return changed.quotient(classes);
+	}
+
+	/**
+	 * Verifica se o AFD possui no máximo um estado morto e no máximo um
+	 * estado final sem transições para estados vivos, o que vale para todo AFD
+	 * mínimo. A reminimização supõe que os estados do AFD sejam distintos dois
+	 * a dois e não teria como juntar os que não forem.
+	 *
+	 * @param base
+	 *            O AFD mínimo, indexado.
+	 * @param live
+	 *            Os estados que alcançam algum estado final.
+	 */
+	private static void checkMinimal(IndexedAFD base, BitSet live) {
+		int dead = base.size - live.cardinality();
+		int leaves = 0;
+		for (int s = base.finals.nextSetBit(0); s >= 0; s = base.finals.nextSetBit(s + 1)) {
+			if (!hasLiveSuccessor(base, live, s)) {
+				leaves++;
+			}
+		}
+		if (dead > 1) {
+			throw new ValidationException(ErrorType.MINIMIZE, "O AFD não é mínimo: " + dead + " estados não alcançam um estado final.");
+		}
+		if (leaves > 1) {
+			throw new ValidationException(ErrorType.MINIMIZE, "O AFD não é mínimo: " + leaves + " estados finais não possuem transições para estados que alcançam um estado final.");
+		}
+	}
+
+	/**
+	 * Retorna as sementes: os estados vivos alterados e os estados vivos com
+	 * transições para estados que deixaram de alcançar um estado final. Só
+	 * esses estados tiveram transições alteradas, considerando iguais as
+	 * transições inexistentes e as transições para estados mortos.
+	 *
+	 * @param edited
+	 *            Os estados cujas transições foram alteradas.
+	 * @param baseLive
+	 *            Os estados vivos antes das alterações.
+	 * @return As sementes.
+	 */
+	private BitSet seeds(BitSet edited, BitSet baseLive) {
+		BitSet seeds = new BitSet(n);
+		seeds.or(edited);
+		for (int d = baseLive.nextSetBit(0); d >= 0; d = baseLive.nextSetBit(d + 1)) {
+			if (!live.get(d)) {
+				for (int j = predStart[d * k]; j < predStart[(d + 1) * k]; j++) {
+					seeds.set(preds[j]);
+				}
+			}
+		}
+		seeds.and(live);
+		return seeds;
+	}
+
+	/**
+	 * Junta as classes dos estados que passaram a ser equivalentes.
+	 *
+	 * @param seeds
+	 *            As sementes.
+	 * @return A classe de cada estado, ou null se o trabalho passou do limite.
+	 */
+	private int[] refine(BitSet seeds) {
+		// Os estados mortos ficam na classe do estado de descarte e os demais
+		// em classes próprias.
+		for (int s = 0; s < n; s++) {
+			parent[s] = live.get(s) ? s : n;
+			weight[s] = 1;
+			link[s] = s;
+		}
+		parent[n] = n;
+
+		int[] seedList = seeds.stream().toArray();
+		long[] keys = fingerprints(seedList);
+
+		// Cada semente é comparada com os estados de mesma impressão digital.
+		int[] bucketStart = new int[keys.length + 1];
+		for (int s = live.nextSetBit(0); s >= 0; s = live.nextSetBit(s + 1)) {
+			int b = Arrays.binarySearch(keys, print[s]);
+			if (b >= 0) {
+				bucketStart[b + 1]++;
+			}
+		}
+		for (int b = 0; b < keys.length; b++) {
+			bucketStart[b + 1] += bucketStart[b];
+		}
+		int[] buckets = new int[bucketStart[keys.length]];
+		int[] cursor = Arrays.copyOf(bucketStart, keys.length);
+		for (int s = live.nextSetBit(0); s >= 0; s = live.nextSetBit(s + 1)) {
+			int b = Arrays.binarySearch(keys, print[s]);
+			if (b >= 0) {
+				buckets[cursor[b]++] = s;
+			}
+		}
+		for (int s : seedList) {
+			int b = Arrays.binarySearch(keys, print[s]);
+			for (int j = bucketStart[b]; j < bucketStart[b + 1] && work <= workLimit; j++) {
+				if (buckets[j] != s) {
+					addPair(s, buckets[j]);
+				}
+			}
+			if (work > workLimit) {
+				return null;
+			}
+		}
+
+		for (int i = 0; i < pairCount && work <= workLimit; i += 2) {
+			if (find(pairs[i]) != find(pairs[i + 1]) && equivalent(pairs[i], pairs[i + 1])) {
+				merge();
+			}
+		}
+		if (work > workLimit) {
+			return null;
+		}
+
+		// Estados inalcançáveis são descartados, como na minimização completa.
+		// Os estados mortos alcançáveis ficam na classe do estado de descarte
+		// se o AFD for completo e são descartados se não for. O estado inicial
+		// é mantido mesmo se estiver morto.
+		int[] classes = new int[n];
+		Arrays.fill(classes, IndexedAFD.NONE);
+		int[] queue = new int[n];
+		int tail = 0;
+		boolean complete = true;
+		queue[tail++] = afd.initial;
+		classes[afd.initial] = find(afd.initial);
+		for (int head = 0; head < tail; head++) {
+			for (int a = 0; a < k; a++) {
+				int d = afd.next(queue[head], a);
+				if (d == IndexedAFD.NONE) {
+					complete = false;
+				} else if (classes[d] == IndexedAFD.NONE) {
+					classes[d] = find(d);
+					queue[tail++] = d;
+				}
+			}
+		}
+		if (!complete) {
+			for (int i = 0; i < tail; i++) {
+				if (!live.get(queue[i]) && queue[i] != afd.initial) {
+					classes[queue[i]] = IndexedAFD.NONE;
+				}
+			}
+		}
+		IndexedAFD.canonicalize(classes, n + 1);
+		return classes;
+	}
+
+	/**
+	 * Calcula as impressões digitais dos estados, refinando-as a cada rodada
+	 * com as impressões dos sucessores, até que nenhuma semente tenha mais de
+	 * {@link #MAX_CANDIDATES} estados com a sua impressão ou que esses grupos
+	 * parem de diminuir. Estados equivalentes têm sempre a mesma impressão.
+	 *
+	 * @param seedList
+	 *            As sementes.
+	 * @return As impressões distintas das sementes, em ordem.
+	 */
+	private long[] fingerprints(int[] seedList) {
+		for (int s = 0; s < n; s++) {
+			print[s] = !live.get(s) ? DEAD : afd.finals.get(s) ? FINAL : NON_FINAL;
+		}
+		print[n] = DEAD;
+		long[] next = new long[n];
+		long[] keys = new long[0];
+		int previous = -1;
+		int stable = 0;
+		for (int round = 0; round <= MAX_ROUNDS; round++) {
+			keys = new long[seedList.length];
+			for (int i = 0; i < seedList.length; i++) {
+				keys[i] = print[seedList[i]];
+			}
+			Arrays.sort(keys);
+			int distinct = 0;
+			for (int i = 0; i < keys.length; i++) {
+				if (i == 0 || keys[i] != keys[i - 1]) {
+					keys[distinct++] = keys[i];
+				}
+			}
+			keys = Arrays.copyOf(keys, distinct);
+			int[] counts = new int[distinct];
+			int total = 0;
+			int largest = 0;
+			for (int s = live.nextSetBit(0); s >= 0; s = live.nextSetBit(s + 1)) {
+				int b = Arrays.binarySearch(keys, print[s]);
+				if (b >= 0) {
+					total++;
+					largest = Math.max(largest, ++counts[b]);
+				}
+			}
+			stable = total == previous ? stable + 1 : 0;
+			previous = total;
+			if (largest <= MAX_CANDIDATES || stable >= STABLE_ROUNDS || round == MAX_ROUNDS) {
+				break;
+			}
+			for (int s = 0; s < n; s++) {
+				if (live.get(s)) {
+					long h = print[s] * 0x9E3779B97F4A7C15L;
+					for (int a = 0; a < k; a++) {
+						h = (h ^ print[next(s, a)]) * 0xC2B2AE3D27D4EB4FL + a;
+						h ^= h >>> 31;
+					}
+					next[s] = h == DEAD ? 1 : h;
+				}
+			}
+			System.arraycopy(next, 0, print, 0, n);
+			for (int s = live.nextClearBit(0); s < n; s = live.nextClearBit(s + 1)) {
+				print[s] = DEAD;
+			}
+		}
+		return keys;
+	}
+
+	/**
+	 * Testa se dois estados são equivalentes, unindo as classes dos pares de
+	 * estados alcançados pelas mesmas palavras até encontrar uma diferença ou
+	 * fechar todos os pares. Se forem equivalentes, as uniões são mantidas e
+	 * ficam registradas para {@link #merge()}; senão, são desfeitas.
+	 *
+	 * @param p
+	 *            Um estado.
+	 * @param q
+	 *            O outro estado.
+	 * @return true, se forem equivalentes.
+	 */
+	private boolean equivalent(int p, int q) {
+		usedCount = 0;
+		int top = 0;
+		stack[top++] = p;
+		stack[top++] = q;
+		while (top > 0) {
+			int y = stack[--top];
+			int x = stack[--top];
+			int rx = find(x);
+			int ry = find(y);
+			if (rx == ry) {
+				continue;
+			}
+			if (print[x] != print[y]) {
+				while (usedCount > 0) {
+					int r = used[--usedCount];
+					weight[parent[r]] -= weight[r];
+					parent[r] = r;
+				}
+				return false;
+			}
+			if (weight[rx] > weight[ry]) {
+				int t = rx;
+				rx = ry;
+				ry = t;
+			}
+			parent[rx] = ry;
+			weight[ry] += weight[rx];
+			used[usedCount++] = rx;
+			work += k;
+			if (top + 2L * k > stack.length) {
+				stack = grow(stack, top + 2L * k);
+			}
+			for (int a = 0; a < k; a++) {
+				stack[top++] = next(x, a);
+				stack[top++] = next(y, a);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Confirma as uniões do último teste de equivalência, juntando as listas
+	 * de membros das classes e testando os pares de predecessores, pelo mesmo
+	 * símbolo, de cada par de estados que passou a ficar na mesma classe.
+	 */
+	private void merge() {
+		for (int i = 0; i < usedCount; i++) {
+			int x = used[i];
+			int y = parent[x];
+			int u = x;
+			do {
+				int v = y;
+				do {
+					for (int a = 0; a < k; a++) {
+						for (int j = predStart[u * k + a]; j < predStart[u * k + a + 1]; j++) {
+							int p = preds[j];
+							if (print[p] == DEAD) {
+								continue;
+							}
+							for (int l = predStart[v * k + a]; l < predStart[v * k + a + 1]; l++) {
+								if (preds[l] != p && print[preds[l]] == print[p]) {
+									addPair(p, preds[l]);
+								}
+							}
+						}
+					}
+					v = link[v];
+				} while (v != y);
+				u = link[u];
+			} while (u != x);
+			int t = link[x];
+			link[x] = link[y];
+			link[y] = t;
+		}
+		usedCount = 0;
+	}
+
+	/**
+	 * Acrescenta um par de estados a testar. Passado o limite de trabalho, o
+	 * par é descartado, pois o AFD será minimizado por inteiro.
+	 *
+	 * @param p
+	 *            Um estado.
+	 * @param q
+	 *            O outro estado.
+	 */
+	private void addPair(int p, int q) {
+		if (++work > workLimit) {
+			return;
+		}
+		if (pairCount + 2 > pairs.length) {
+			pairs = grow(pairs, pairCount + 2L);
+		}
+		pairs[pairCount++] = p;
+		pairs[pairCount++] = q;
+	}
+
+	/**
+	 * Aumenta um vetor, no mínimo dobrando o seu tamanho, sem passar do maior
+	 * tamanho aceito pela máquina virtual.
+	 *
+	 * @param array
+	 *            O vetor.
+	 * @param needed
+	 *            O tamanho necessário.
+	 * @return O vetor aumentado.
+	 */
+	private static int[] grow(int[] array, long needed) {
+		if (needed > MAX_LENGTH) {
+			throw new ValidationException(ErrorType.MINIMIZE, "AFD grande demais para a reminimização.");
+		}
+		return Arrays.copyOf(array, (int) Math.min(MAX_LENGTH, Math.max(needed, 2L * array.length)));
+	}
+
+	/**
+	 * Busca o representante de um estado na estrutura de união e busca.
+	 *
+	 * @param s
+	 *            O estado.
+	 * @return O representante.
+	 */
+	private int find(int s) {
+		while (parent[s] != s) {
+			s = parent[s];
+		}
+		return s;
+	}
+
+	/**
+	 * Retorna o destino de uma transição, com o estado de descarte no índice
+	 * n. Transições para estados mortos também levam ao estado de descarte.
+	 *
+	 * @param s
+	 *            O estado.
+	 * @param a
+	 *            O símbolo.
+	 * @return O destino.
+	 */
+	private int next(int s, int a) {
+		if (s == n) {
+			return n;
+		}
+		int d = afd.next(s, a);
+		return d == IndexedAFD.NONE || !live.get(d) ? n : d;
+	}
+
+	/**
+	 * Monta os predecessores de cada par (destino, símbolo) em formato
+	 * compactado.
+	 *
+	 * @param afd
+	 *            O AFD indexado.
+	 * @return O início de cada par e os predecessores, nessa ordem.
+	 */
+	private static int[][] predecessors(IndexedAFD afd) {
+		int n = afd.size;
+		int k = afd.alphabetSize();
+		int[] predStart = new int[n * k + 1];
+		for (int i = 0; i < n * k; i++) {
+			if (afd.table[i] != IndexedAFD.NONE) {
+				predStart[afd.table[i] * k + i % k + 1]++;
+			}
+		}
+		for (int i = 0; i < n * k; i++) {
+			predStart[i + 1] += predStart[i];
+		}
+		int[] preds = new int[predStart[n * k]];
+		int[] cursor = Arrays.copyOf(predStart, n * k);
+		for (int i = 0; i < n * k; i++) {
+			if (afd.table[i] != IndexedAFD.NONE) {
+				preds[cursor[afd.table[i] * k + i % k]++] = i / k;
+			}
+		}
+		return new int[][] { predStart, preds };
+	}
+
+	/**
+	 * Busca, de trás para a frente, os estados que alcançam algum estado
+	 * final.
+	 *
+	 * @param afd
+	 *            O AFD indexado.
+	 * @param predStart
+	 *            O início dos predecessores de cada par (destino, símbolo).
+	 * @param preds
+	 *            Os predecessores.
+	 * @return Os estados vivos.
+	 */
+	private static BitSet liveStates(IndexedAFD afd, int[] predStart, int[] preds) {
+		int k = afd.alphabetSize();
+		BitSet live = new BitSet(afd.size);
+		int[] queue = new int[afd.size];
+		int tail = 0;
+		for (int s = afd.finals.nextSetBit(0); s >= 0; s = afd.finals.nextSetBit(s + 1)) {
+			live.set(s);
+			queue[tail++] = s;
+		}
+		for (int head = 0; head < tail; head++) {
+			int s = queue[head];
+			for (int j = predStart[s * k]; j < predStart[(s + 1) * k]; j++) {
+				if (!live.get(preds[j])) {
+					live.set(preds[j]);
+					queue[tail++] = preds[j];
+				}
+			}
+		}
+		return live;
+	}
+
+	/**
+	 * Verifica se um estado possui alguma transição para um estado vivo.
+	 *
+	 * @param afd
+	 *            O AFD indexado.
+	 * @param live
+	 *            Os estados vivos.
+	 * @param s
+	 *            O estado.
+	 * @return true, se possuir.
+	 */
+	private static boolean hasLiveSuccessor(IndexedAFD afd, BitSet live, int s) {
+		for (int a = 0; a < afd.alphabetSize(); a++) {
+			int d = afd.next(s, a);
+			if (d != IndexedAFD.NONE && live.get(d)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Retorna o índice de um estado do AFD.
+	 *
+	 * @param states
+	 *            Os estados do AFD.
+	 * @param state
+	 *            O estado.
+	 * @return O índice.
+	 */
+	private static int indexOf(ImmutableLinkedSet<State> states, State state) {
+		int index = states.indexOf(state);
+		if (index < 0) {
+			throw new ValidationException(ErrorType.MINIMIZE, "Estado não pertence ao AFD: " + state + ".");
+		}
+		return index;
+	}
+}
@@ -0,0 +1,490 @@
+package com.lfa.minimize;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.lfa.automata.afd.AFD;
+import com.lfa.automata.afd.CompactAFD;
+import com.lfa.automata.afd.State;
+import com.lfa.automata.afd.TableAFD;
+import com.lfa.automata.afd.State.Transition;
+import com.lfa.collections.ImmutableLinkedSet;
+import com.lfa.constants.Alphabet;
+import com.lfa.constants.Alphabet.Symbol;
+
+/**
+ * Classe IndexedAFD. Representação indexada de um {@link AFD}, na qual estados
+ * e símbolos são numerados e as transições ficam em uma tabela densa de
+ * inteiros. É a forma de trabalho dos motores de minimização, que não precisam
+ * lidar com objetos {@link State} e {@link Transition}.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+final class IndexedAFD {
+
+	/** Marca uma transição inexistente na tabela ou um estado sem classe. */
+	static final int NONE = -1;
+
+	/** O número de estados. */
+	final int size;
+
+	/** O alfabeto. */
+	final Alphabet alphabet;
+
+	/** Os símbolos do alfabeto, na ordem de seus índices. */
+	final Symbol[] symbols;
+
+	/** A tabela de transições, com uma linha de tamanho k para cada estado. */
+	final int[] table;
+
+	/** Os estados finais. */
+	final BitSet finals;
+
+	/** O índice do estado inicial. */
+	final int initial;
+
+	/**
+	 * O rótulo de cada estado: 0 para os não finais e a partir de 1 para os
+	 * finais. É null quando todos os estados finais têm o mesmo rótulo.
+	 */
+	final int[] labels;
+
+	/** O número de rótulos diferentes, contando o 0. */
+	final int labelCount;
+
+	/**
+	 * Instancia um novo IndexedAFD, no qual todos os estados finais têm o
+	 * mesmo rótulo.
+	 *
+	 * @param size
+	 *            O número de estados.
+	 * @param alphabet
+	 *            O alfabeto. Cada símbolo é uma coluna da tabela.
+	 * @param table
+	 *            A tabela de transições.
+	 * @param finals
+	 *            Os estados finais.
+	 * @param initial
+	 *            O estado inicial.
+	 */
+	IndexedAFD(int size, Alphabet alphabet, int[] table, BitSet finals, int initial) {
+		this(size, alphabet, table, finals, initial, null, 2);
+	}
+
+	/**
+	 * Instancia um novo IndexedAFD.
+	 *
+	 * @param size
+	 *            O número de estados.
+	 * @param alphabet
+	 *            O alfabeto. Cada símbolo é uma coluna da tabela.
+	 * @param table
+	 *            A tabela de transições.
+	 * @param finals
+	 *            Os estados finais.
+	 * @param initial
+	 *            O estado inicial.
+	 * @param labels
+	 *            O rótulo de cada estado, ou null.
+	 * @param labelCount
+	 *            O número de rótulos.
+	 */
+	IndexedAFD(int size, Alphabet alphabet, int[] table, BitSet finals, int initial, int[] labels, int labelCount) {
+		this.size = size;
+		this.alphabet = alphabet;
+		this.symbols = new Symbol[alphabet.size()];
+		for (int a = 0; a < symbols.length; a++) {
+			symbols[a] = alphabet.getSymbol(a);
+		}
+		this.table = table;
+		this.finals = finals;
+		this.initial = initial;
+		this.labels = labels;
+		this.labelCount = labelCount;
+	}
+
+	/**
+	 * Monta a representação indexada de um AFD. Os estados recebem o índice de
+	 * sua posição em {@link AFD#getStates()} e os símbolos, o de sua posição
+	 * no alfabeto do AFD.
+	 *
+	 * @param afd
+	 *            O AFD.
+	 * @return O AFD indexado.
+	 */
+	static IndexedAFD of(AFD afd) {
+		ImmutableLinkedSet<State> states = afd.getStates();
+		int n = states.size();
+		HashMap<State, Integer> stateIndex = new HashMap<>(n * 2);
+		for (int i = 0; i < n; i++) {
+			stateIndex.put(states.get(i), i);
+		}
+		Alphabet alphabet = afd.getAlphabet();
+		int k = alphabet.size();
+		int[] table = new int[n * k];
+		Arrays.fill(table, NONE);
+		for (int i = 0; i < n; i++) {
+			for (Transition transition : states.get(i).getTransitions()) {
+				table[i * k + alphabet.ordinalOf(transition.getConsumed())] = stateIndex.get(transition.getDestination());
+			}
+		}
+		BitSet finals = new BitSet(n);
+		for (State state : afd.getFinalStates()) {
+			finals.set(stateIndex.get(state));
+		}
+		return new IndexedAFD(n, alphabet, table, finals, stateIndex.get(afd.getInitialState()));
+	}
+
+	/**
+	 * Monta a representação indexada de um {@link TableAFD}, com os mesmos
+	 * índices de estados e símbolos.
+	 *
+	 * @param afd
+	 *            O AFD em tabela.
+	 * @return O AFD indexado.
+	 */
+	static IndexedAFD of(TableAFD afd) {
+		int n = afd.size();
+		int k = afd.alphabetSize();
+		int[] table = new int[n * k];
+		for (int i = 0; i < n; i++) {
+			for (int a = 0; a < k; a++) {
+				table[i * k + a] = afd.next(i, a);
+			}
+		}
+		BitSet finals = new BitSet(n);
+		for (int i = 0; i < n; i++) {
+			if (afd.isFinal(i)) {
+				finals.set(i);
+			}
+		}
+		return new IndexedAFD(n, afd.getAlphabet(), table, finals, afd.getInitialState());
+	}
+
+	/**
+	 * Cria o AFD indexado de um AFD cujos estados finais são rotulados. Estados
+	 * finais com rótulos diferentes nunca são equivalentes, e estados finais
+	 * com rótulos iguais (segundo {@link Object#equals(Object)}) se comportam
+	 * como estados finais comuns.
+	 *
+	 * @param afd
+	 *            O AFD.
+	 * @param tagOf
+	 *            A função que retorna o rótulo de cada estado final. Pode
+	 *            retornar null, que é tratado como um rótulo qualquer.
+	 * @return O AFD indexado.
+	 */
+	static IndexedAFD of(AFD afd, Function<? super State, ?> tagOf) {
+		IndexedAFD indexed = of(afd);
+		ImmutableLinkedSet<State> states = afd.getStates();
+		HashMap<Object, Integer> labelOfTag = new HashMap<>();
+		int[] labels = new int[indexed.size];
+		for (int s = indexed.finals.nextSetBit(0); s >= 0; s = indexed.finals.nextSetBit(s + 1)) {
+			Object tag = tagOf.apply(states.get(s));
+			Integer label = labelOfTag.get(tag);
+			if (label == null) {
+				label = labelOfTag.size() + 1;
+				labelOfTag.put(tag, label);
+			}
+			labels[s] = label;
+		}
+		return new IndexedAFD(indexed.size, indexed.alphabet, indexed.table, indexed.finals, indexed.initial, labels, labelOfTag.size() + 1);
+	}
+
+	/**
+	 * Cria o AFD indexado da união disjunta de vários AFDs. Os estados de cada
+	 * AFD são numerados em sequência, na ordem dos AFDs, e o alfabeto é a união
+	 * dos alfabetos, com os símbolos identificados por seu texto. O estado
+	 * inicial é o do primeiro AFD.
+	 *
+	 * @param afds
+	 *            Os AFDs.
+	 * @param roots
+	 *            O vetor que recebe o índice do estado inicial de cada AFD na
+	 *            união.
+	 * @return O AFD indexado.
+	 */
+	static IndexedAFD union(List<AFD> afds, int[] roots) {
+		LinkedHashSet<String> symbolSet = new LinkedHashSet<>();
+		int n = 0;
+		for (AFD afd : afds) {
+			Alphabet alphabet = afd.getAlphabet();
+			for (int a = 0; a < alphabet.size(); a++) {
+				symbolSet.add(alphabet.getSymbol(a).getStr());
+			}
+			n += afd.getStates().size();
+		}
+		Alphabet alphabet = new Alphabet(symbolSet);
+		int k = alphabet.size();
+
+		int[] table = new int[n * k];
+		Arrays.fill(table, NONE);
+		BitSet finals = new BitSet(n);
+		int offset = 0;
+		for (int i = 0; i < afds.size(); i++) {
+			IndexedAFD part = of(afds.get(i));
+			int partK = part.alphabetSize();
+			int[] column = new int[partK];
+			for (int a = 0; a < partK; a++) {
+				column[a] = alphabet.ordinalOf(part.symbols[a]);
+			}
+			for (int s = 0; s < part.size; s++) {
+				for (int a = 0; a < partK; a++) {
+					int d = part.table[s * partK + a];
+					if (d != NONE) {
+						table[(offset + s) * k + column[a]] = offset + d;
+					}
+				}
+			}
+			for (int s = part.finals.nextSetBit(0); s >= 0; s = part.finals.nextSetBit(s + 1)) {
+				finals.set(offset + s);
+			}
+			roots[i] = offset + part.initial;
+			offset += part.size;
+		}
+		return new IndexedAFD(n, alphabet, table, finals, roots[0]);
+	}
+
+	/**
+	 * Retorna o tamanho do alfabeto.
+	 *
+	 * @return O número de símbolos.
+	 */
+	int alphabetSize() {
+		return symbols.length;
+	}
+
+	/**
+	 * Retorna o destino da transição de um estado por um símbolo.
+	 *
+	 * @param state
+	 *            O índice do estado.
+	 * @param symbol
+	 *            O índice do símbolo.
+	 * @return O índice do destino, ou {@link #NONE} se não houver transição.
+	 */
+	int next(int state, int symbol) {
+		return table[state * symbols.length + symbol];
+	}
+
+	/**
+	 * Retorna o rótulo de um estado, que define seu bloco na partição
+	 * inicial.
+	 *
+	 * @param state
+	 *            O índice do estado.
+	 * @return 0 para estados não finais, ou o rótulo do estado final.
+	 */
+	int label(int state) {
+		if (labels != null) {
+			return labels[state];
+		}
+		return finals.get(state) ? 1 : 0;
+	}
+
+	/**
+	 * Monta a partição inicial dos motores de refinamento, com um bloco para
+	 * cada rótulo presente. Índices a partir de {@link #size} representam
+	 * estados de descarte, que ficam no bloco dos estados não finais.
+	 *
+	 * @param total
+	 *            O número de estados, contando os de descarte.
+	 * @return O bloco inicial de cada estado, numerados a partir de 0.
+	 */
+	int[] initialBlocks(int total) {
+		int[] blockOfLabel = new int[labelCount];
+		Arrays.fill(blockOfLabel, NONE);
+		int[] blocks = new int[total];
+		int count = 0;
+		for (int s = 0; s < total; s++) {
+			int label = s < size ? label(s) : 0;
+			if (blockOfLabel[label] == NONE) {
+				blockOfLabel[label] = count++;
+			}
+			blocks[s] = blockOfLabel[label];
+		}
+		return blocks;
+	}
+
+	/**
+	 * Verifica se todos os estados possuem transição para todos os símbolos.
+	 *
+	 * @return true, se o AFD for completo.
+	 */
+	boolean isComplete() {
+		for (int destination : table) {
+			if (destination == NONE) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Completa o AFD com um estado de descarte, não final, de índice
+	 * {@link #size}, para onde passam a ir as transições inexistentes. Se
+	 * nenhum estado for final, como no AFD podado de uma linguagem vazia, que
+	 * só tem o estado inicial, as transições inexistentes passam a levar ao
+	 * próprio estado inicial, e nenhum estado é acrescentado. Um AFD que já é
+	 * completo é retornado sem alterações.
+	 *
+	 * @return O AFD completo.
+	 */
+	IndexedAFD withSink() {
+		if (isComplete()) {
+			return this;
+		}
+		int k = symbols.length;
+		boolean empty = finals.isEmpty();
+		int sink = empty ? initial : size;
+		int completeSize = empty ? size : size + 1;
+		int[] completeTable = Arrays.copyOf(table, completeSize * k);
+		for (int i = 0; i < completeTable.length; i++) {
+			if (i >= table.length || completeTable[i] == NONE) {
+				completeTable[i] = sink;
+			}
+		}
+		int[] completeLabels = labels == null ? null : Arrays.copyOf(labels, completeSize);
+		return new IndexedAFD(completeSize, alphabet, completeTable, finals, initial, completeLabels, labelCount);
+	}
+
+	/**
+	 * Monta o AFD quociente a partir de uma partição dos estados. Cada classe
+	 * vira um estado nomeado G1, G2, ..., na ordem em que as classes aparecem, e
+	 * as transições são copiadas do primeiro estado de cada classe. Estados com
+	 * classe {@link #NONE} são descartados, assim como as transições que levam
+	 * a eles.
+	 *
+	 * @param classes
+	 *            A classe de cada estado, numeradas a partir de 0.
+	 * @return O AFD quociente.
+	 */
+	AFD quotient(int[] classes) {
+		LinkedHashSet<State> finalStates = new LinkedHashSet<>();
+		State[] states = quotientStates(classes, finalStates);
+		return new AFD(alphabet, states[classes[initial]], Arrays.asList(states), finalStates);
+	}
+
+	/**
+	 * Monta o AFD quociente, como em {@link #quotient(int[])}, na
+	 * representação compacta.
+	 *
+	 * @param classes
+	 *            A classe de cada estado, numeradas a partir de 0.
+	 * @return O AFD quociente compacto.
+	 */
+	CompactAFD compactQuotient(int[] classes) {
+		int count = 0;
+		for (int c : classes) {
+			count = Math.max(count, c + 1);
+		}
+		int k = symbols.length;
+		String[] names = new String[count];
+		int[] quotientTable = new int[count * k];
+		BitSet quotientFinals = new BitSet(count);
+		for (int i = 0; i < size; i++) {
+			int c = classes[i];
+			if (c == NONE || names[c] != null) {
+				continue;
+			}
+			names[c] = "G" + (c + 1);
+			for (int a = 0; a < k; a++) {
+				int destination = table[i * k + a];
+				quotientTable[c * k + a] = destination == NONE ? NONE : classes[destination];
+			}
+			if (finals.get(i)) {
+				quotientFinals.set(c);
+			}
+		}
+		return new CompactAFD(alphabet, names, classes[initial], quotientTable, quotientFinals);
+	}
+
+	/**
+	 * Monta os estados do AFD quociente, como em {@link #quotient(int[])}, sem
+	 * escolher um estado inicial.
+	 *
+	 * @param classes
+	 *            A classe de cada estado, numeradas a partir de 0.
+	 * @param finalStates
+	 *            O conjunto que recebe os estados finais do quociente.
+	 * @return O estado de cada classe.
+	 */
+	State[] quotientStates(int[] classes, Set<State> finalStates) {
+		int count = 0;
+		for (int c : classes) {
+			count = Math.max(count, c + 1);
+		}
+		int k = symbols.length;
+		State[] states = new State[count];
+		int[] representatives = new int[count];
+		for (int i = 0; i < size; i++) {
+			int c = classes[i];
+			if (c != NONE && states[c] == null) {
+				states[c] = new State("G" + (c + 1));
+				representatives[c] = i;
+			}
+		}
+		for (int i = finals.nextSetBit(0); i >= 0; i = finals.nextSetBit(i + 1)) {
+			if (classes[i] != NONE) {
+				finalStates.add(states[classes[i]]);
+			}
+		}
+		for (int c = 0; c < count; c++) {
+			int row = representatives[c] * k;
+			for (int a = 0; a < k; a++) {
+				int destination = table[row + a];
+				if (destination != NONE && classes[destination] != NONE) {
+					states[c].addTransition(symbols[a], states[classes[destination]]);
+				}
+			}
+		}
+		return states;
+	}
+
+	/**
+	 * Monta um AFD com um estado para cada estado indexado, nomeados G1, G2,
+	 * ....
+	 *
+	 * @return O AFD.
+	 */
+	AFD toAFD() {
+		int[] classes = new int[size];
+		for (int i = 0; i < size; i++) {
+			classes[i] = i;
+		}
+		return quotient(classes);
+	}
+
+	/**
+	 * Renumera os blocos de uma partição de forma que as classes sejam
+	 * numeradas a partir de 0, na ordem em que aparecem no vetor. Entradas
+	 * {@link #NONE} são mantidas.
+	 *
+	 * @param blocks
+	 *            O bloco de cada estado. É alterado no lugar.
+	 * @param blockCount
+	 *            Um limite superior para os identificadores de bloco.
+	 * @return O número de classes.
+	 */
+	static int canonicalize(int[] blocks, int blockCount) {
+		int[] renumber = new int[blockCount];
+		Arrays.fill(renumber, NONE);
+		int count = 0;
+		for (int i = 0; i < blocks.length; i++) {
+			int b = blocks[i];
+			if (b == NONE) {
+				continue;
+			}
+			if (renumber[b] == NONE) {
+				renumber[b] = count++;
+			}
+			blocks[i] = renumber[b];
+		}
+		return count;
+	}
+}
@@ -0,0 +1,114 @@
+package com.lfa.minimize;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * Classe MappedArray. Base dos vetores mapeados em arquivo usados pela
+ * minimização fora da memória. Um vetor pode ocupar mais de 2 GB, então o
+ * trecho do arquivo é mapeado em segmentos de tamanho fixo, e os índices são
+ * do tipo long.
+ *
+ * Os vetores temporários ficam em um arquivo próprio, apagado no
+ * {@link #close()}. Os demais são trechos de um arquivo aberto por quem os
+ * cria, como em {@link AFDTableFile}.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+abstract class MappedArray implements Closeable {
+
+	/** O logaritmo do tamanho de cada segmento, em bytes. */
+	private static final int SEGMENT_SHIFT = 30;
+
+	private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+	/** O número de elementos. */
+	final long length;
+
+	private final MappedByteBuffer[] segments;
+	private final File temporary;
+
+	/**
+	 * Mapeia um trecho de um arquivo.
+	 *
+	 * @param channel
+	 *            O canal do arquivo.
+	 * @param offset
+	 *            A posição do trecho no arquivo, em bytes.
+	 * @param length
+	 *            O número de elementos.
+	 * @param elementShift
+	 *            O logaritmo do tamanho de cada elemento, em bytes.
+	 * @param mode
+	 *            O modo de mapeamento.
+	 * @param temporary
+	 *            O arquivo a apagar no fechamento, ou null.
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	MappedArray(FileChannel channel, long offset, long length, int elementShift, MapMode mode, File temporary) throws IOException {
+		this.length = length;
+		this.temporary = temporary;
+		long bytes = length << elementShift;
+		int count = (int) ((bytes + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+		this.segments = new MappedByteBuffer[Math.max(count, 1)];
+		for (int i = 0; i < segments.length; i++) {
+			long start = (long) i << SEGMENT_SHIFT;
+			segments[i] = channel.map(mode, offset + start, Math.min(bytes - start, SEGMENT_MASK + 1));
+		}
+	}
+
+	/**
+	 * Cria o arquivo de um vetor temporário, apagado ao final da execução se
+	 * não for apagado antes.
+	 *
+	 * @param directory
+	 *            O diretório do arquivo, ou null para o diretório temporário
+	 *            do sistema.
+	 * @return O arquivo.
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	static File createTemporaryFile(File directory) throws IOException {
+		File file = File.createTempFile("afd", ".map", directory);
+		file.deleteOnExit();
+		return file;
+	}
+
+	/**
+	 * Retorna o segmento de uma posição.
+	 *
+	 * @param position
+	 *            A posição, em bytes.
+	 * @return O segmento.
+	 */
+	final MappedByteBuffer segment(long position) {
+		return segments[(int) (position >>> SEGMENT_SHIFT)];
+	}
+
+	/**
+	 * Retorna a posição de um byte dentro de seu segmento.
+	 *
+	 * @param position
+	 *            A posição, em bytes.
+	 * @return A posição dentro do segmento.
+	 */
+	static int offset(long position) {
+		return (int) (position & SEGMENT_MASK);
+	}
+
+	/**
+	 * Libera o vetor e, se for temporário, apaga seu arquivo. Os segmentos
+	 * são desmapeados pela coleta de lixo.
+	 */
+	@Override
+	public void close() {
+		if (temporary != null) {
+			temporary.delete();
+		}
+	}
+}
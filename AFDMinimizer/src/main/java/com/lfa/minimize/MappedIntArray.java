@@ -0,0 +1,94 @@
+package com.lfa.minimize;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * Classe MappedIntArray. Vetor de inteiros mapeado em arquivo, com índices do
+ * tipo long.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+final class MappedIntArray extends MappedArray {
+
+	/**
+	 * Mapeia um trecho de um arquivo como vetor de inteiros.
+	 *
+	 * @param channel
+	 *            O canal do arquivo.
+	 * @param offset
+	 *            A posição do trecho no arquivo, em bytes.
+	 * @param length
+	 *            O número de elementos.
+	 * @param mode
+	 *            O modo de mapeamento.
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	MappedIntArray(FileChannel channel, long offset, long length, MapMode mode) throws IOException {
+		super(channel, offset, length, 2, mode, null);
+	}
+
+	private MappedIntArray(FileChannel channel, long length, File temporary) throws IOException {
+		super(channel, 0, length, 2, MapMode.READ_WRITE, temporary);
+	}
+
+	/**
+	 * Cria um vetor temporário, preenchido com zeros.
+	 *
+	 * @param directory
+	 *            O diretório do arquivo temporário, ou null.
+	 * @param length
+	 *            O número de elementos.
+	 * @return O vetor.
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	static MappedIntArray temporary(File directory, long length) throws IOException {
+		File file = createTemporaryFile(directory);
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(length << 2);
+			return new MappedIntArray(raf.getChannel(), length, file);
+		}
+	}
+
+	/**
+	 * Retorna um elemento.
+	 *
+	 * @param index
+	 *            O índice.
+	 * @return O elemento.
+	 */
+	int get(long index) {
+		long position = index << 2;
+		return segment(position).getInt(offset(position));
+	}
+
+	/**
+	 * Altera um elemento.
+	 *
+	 * @param index
+	 *            O índice.
+	 * @param value
+	 *            O novo valor.
+	 */
+	void set(long index, int value) {
+		long position = index << 2;
+		segment(position).putInt(offset(position), value);
+	}
+
+	/**
+	 * Preenche o vetor com um valor.
+	 *
+	 * @param value
+	 *            O valor.
+	 */
+	void fill(int value) {
+		for (long i = 0; i < length; i++) {
+			set(i, value);
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package com.lfa.minimize;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * Classe MappedLongArray. Vetor de longs mapeado em arquivo, com índices do
+ * tipo long.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+final class MappedLongArray extends MappedArray {
+
+	/**
+	 * Mapeia um trecho de um arquivo como vetor de longs.
+	 *
+	 * @param channel
+	 *            O canal do arquivo.
+	 * @param offset
+	 *            A posição do trecho no arquivo, em bytes.
+	 * @param length
+	 *            O número de elementos.
+	 * @param mode
+	 *            O modo de mapeamento.
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	MappedLongArray(FileChannel channel, long offset, long length, MapMode mode) throws IOException {
+		super(channel, offset, length, 3, mode, null);
+	}
+
+	private MappedLongArray(FileChannel channel, long length, File temporary) throws IOException {
+		super(channel, 0, length, 3, MapMode.READ_WRITE, temporary);
+	}
+
+	/**
+	 * Cria um vetor temporário, preenchido com zeros.
+	 *
+	 * @param directory
+	 *            O diretório do arquivo temporário, ou null.
+	 * @param length
+	 *            O número de elementos.
+	 * @return O vetor.
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	static MappedLongArray temporary(File directory, long length) throws IOException {
+		File file = createTemporaryFile(directory);
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(length << 3);
+			return new MappedLongArray(raf.getChannel(), length, file);
+		}
+	}
+
+	/**
+	 * Retorna um elemento.
+	 *
+	 * @param index
+	 *            O índice.
+	 * @return O elemento.
+	 */
+	long get(long index) {
+		long position = index << 3;
+		return segment(position).getLong(offset(position));
+	}
+
+	/**
+	 * Altera um elemento.
+	 *
+	 * @param index
+	 *            O índice.
+	 * @param value
+	 *            O novo valor.
+	 */
+	void set(long index, long value) {
+		long position = index << 3;
+		segment(position).putLong(offset(position), value);
+	}
+
+	/**
+	 * Preenche o vetor com um valor.
+	 *
+	 * @param value
+	 *            O valor.
+	 */
+	void fill(long value) {
+		for (long i = 0; i < length; i++) {
+			set(i, value);
+		}
+	}
+
+	/**
+	 * Lê um bit, considerando o vetor como um conjunto de bits.
+	 *
+	 * @param bit
+	 *            O índice do bit.
+	 * @return true, se o bit estiver ligado.
+	 */
+	boolean getBit(long bit) {
+		return (get(bit >>> 6) & (1L << bit)) != 0;
+	}
+
+	/**
+	 * Liga um bit, considerando o vetor como um conjunto de bits.
+	 *
+	 * @param bit
+	 *            O índice do bit.
+	 */
+	void setBit(long bit) {
+		set(bit >>> 6, get(bit >>> 6) | (1L << bit));
+	}
+}
@@ -0,0 +1,393 @@
+package com.lfa.minimize;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+
+import com.lfa.automata.afd.AFD;
+import com.lfa.automata.afd.State;
+import com.lfa.constants.Alphabet;
+import com.lfa.constants.Alphabet.Symbol;
+import com.lfa.exception.ValidationException;
+import com.lfa.exception.ValidationException.ErrorType;
+
+/**
+ * Classe MinimalAFDBuilder. Construção direta do AFD mínimo que aceita uma
+ * lista ordenada de palavras, pelo algoritmo de Daciuk, Mihov, Watson e
+ * Watson. As palavras são acrescentadas uma a uma, e apenas o caminho da
+ * última palavra fica em aberto: quando uma palavra diverge da anterior, os
+ * estados do caminho anterior abaixo do ponto de divergência não recebem mais
+ * transições e são substituídos por um estado equivalente já registrado, ou
+ * registrados, se não houver um. Assim, a memória usada fica próxima do
+ * tamanho do AFD mínimo, sem que a árvore de prefixos seja construída.
+ *
+ * Cada caractere (unidade UTF-16) é um símbolo, e as palavras devem estar em
+ * ordem crescente segundo {@link String#compareTo(String)}. Palavras repetidas
+ * são ignoradas. Espaços em branco e λ não podem ser símbolos de um AFD, então
+ * palavras que os contenham são rejeitadas já em {@link #add(CharSequence)}. Os estados registrados ficam em vetores de inteiros, e os
+ * objetos {@link State} só são criados por {@link #build()}.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+public final class MinimalAFDBuilder {
+
+	/** O caractere de {@link Alphabet#LAMBDA}. */
+	private static final char LAMBDA = Alphabet.LAMBDA.charAt(0);
+
+	/** Os caracteres das transições dos estados registrados. */
+	private char[] edgeSymbol = new char[1024];
+
+	/** Os destinos das transições dos estados registrados. */
+	private int[] edgeTarget = new int[1024];
+
+	/** O número de transições registradas. */
+	private int edgeCount;
+
+	/**
+	 * A posição da primeira transição de cada estado registrado. As
+	 * transições do estado i terminam onde começam as do estado i + 1.
+	 */
+	private int[] edgeStart = new int[1024];
+
+	/** Os estados registrados que são finais. */
+	private final BitSet finals = new BitSet();
+
+	/** O número de estados registrados. */
+	private int stateCount;
+
+	/** Tabela hash dos estados registrados, com endereçamento aberto. */
+	private int[] register;
+	private long[] registerHash;
+
+	/** Os estados do caminho da última palavra, um por prefixo. */
+	private final ArrayList<OpenState> path = new ArrayList<>();
+
+	/** A última palavra acrescentada. */
+	private final StringBuilder previous = new StringBuilder();
+
+	/** Os caracteres usados nas palavras. */
+	private final BitSet characters = new BitSet();
+
+	private boolean built;
+
+	/**
+	 * Classe OpenState. Um estado do caminho da última palavra, que ainda pode
+	 * receber transições. A última transição leva ao próximo estado do
+	 * caminho, cujo número só é conhecido quando ele é registrado.
+	 */
+	private static final class OpenState {
+
+		private boolean isFinal;
+		private char[] symbols = new char[4];
+		private int[] targets = new int[4];
+		private int size;
+
+		/**
+		 * Acrescenta uma transição.
+		 *
+		 * @param symbol
+		 *            O caractere.
+		 */
+		private void add(char symbol) {
+			if (size == symbols.length) {
+				symbols = Arrays.copyOf(symbols, size * 2);
+				targets = Arrays.copyOf(targets, size * 2);
+			}
+			symbols[size++] = symbol;
+		}
+
+		/**
+		 * Esvazia o estado para reutilizá-lo.
+		 */
+		private void clear() {
+			isFinal = false;
+			size = 0;
+		}
+	}
+
+	/**
+	 * Instancia um novo MinimalAFDBuilder, sem nenhuma palavra.
+	 */
+	public MinimalAFDBuilder() {
+		register = new int[1024];
+		registerHash = new long[1024];
+		Arrays.fill(register, IndexedAFD.NONE);
+		path.add(new OpenState());
+	}
+
+	/**
+	 * Constrói o AFD mínimo de uma sequência ordenada de palavras.
+	 *
+	 * @param words
+	 *            As palavras, em ordem crescente.
+	 * @return O AFD mínimo.
+	 */
+	public static AFD build(Iterator<? extends CharSequence> words) {
+		MinimalAFDBuilder builder = new MinimalAFDBuilder();
+		while (words.hasNext()) {
+			builder.add(words.next());
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Constrói o AFD mínimo das palavras de um arquivo UTF-8, uma por linha,
+	 * em ordem crescente.
+	 *
+	 * @param file
+	 *            O arquivo.
+	 * @return O AFD mínimo.
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	public static AFD build(File file) throws IOException {
+		return build(file, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Constrói o AFD mínimo das palavras de um arquivo, uma por linha, em
+	 * ordem crescente. O arquivo é lido linha a linha, sem ser carregado na
+	 * memória.
+	 *
+	 * @param file
+	 *            O arquivo.
+	 * @param charset
+	 *            A codificação do arquivo.
+	 * @return O AFD mínimo.
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	public static AFD build(File file, Charset charset) throws IOException {
+		MinimalAFDBuilder builder = new MinimalAFDBuilder();
+		try (BufferedReader reader = Files.newBufferedReader(file.toPath(), charset)) {
+			for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+				builder.add(line);
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Acrescenta uma palavra, que não pode ser menor que a anterior nem conter
+	 * espaços em branco ou λ.
+	 *
+	 * @param word
+	 *            A palavra.
+	 * @return Este builder.
+	 */
+	public MinimalAFDBuilder add(CharSequence word) {
+		if (built) {
+			throw new ValidationException(ErrorType.MINIMIZE, "O AFD já foi construído.");
+		}
+		int common = 0;
+		int limit = Math.min(word.length(), previous.length());
+		while (common < limit && word.charAt(common) == previous.charAt(common)) {
+			common++;
+		}
+		if (common == word.length() && common == previous.length() && path.get(common).isFinal) {
+			return this;
+		}
+		if (common < previous.length() && (common == word.length() || word.charAt(common) < previous.charAt(common))) {
+			throw new ValidationException(ErrorType.MINIMIZE, "As palavras não estão ordenadas: \"" + word + "\" após \"" + previous + "\".");
+		}
+		for (int i = common; i < word.length(); i++) {
+			char c = word.charAt(i);
+			if (Character.isWhitespace(c) || c == LAMBDA) {
+				throw new ValidationException(ErrorType.MINIMIZE, "Caractere inválido na palavra \"" + word + "\": espaços em branco e λ não podem ser símbolos de um AFD.");
+			}
+		}
+
+		// O caminho abaixo do prefixo comum não recebe mais transições.
+		close(common);
+		for (int i = common; i < word.length(); i++) {
+			char symbol = word.charAt(i);
+			characters.set(symbol);
+			path.get(i).add(symbol);
+			if (path.size() == i + 1) {
+				path.add(new OpenState());
+			} else {
+				path.get(i + 1).clear();
+			}
+		}
+		path.get(word.length()).isFinal = true;
+		previous.setLength(common);
+		previous.append(word, common, word.length());
+		return this;
+	}
+
+	/**
+	 * Constrói o AFD mínimo das palavras acrescentadas. Os estados são
+	 * nomeados G1, G2, ..., em ordem de busca em largura a partir do estado
+	 * inicial, G1. O builder não pode mais ser usado depois disso.
+	 *
+	 * @return O AFD mínimo.
+	 */
+	public AFD build() {
+		if (built) {
+			throw new ValidationException(ErrorType.MINIMIZE, "O AFD já foi construído.");
+		}
+		built = true;
+		close(0);
+		int initial = freeze(path.get(0));
+		path.clear();
+		register = null;
+		registerHash = null;
+
+		ArrayList<String> symbolList = new ArrayList<>();
+		for (int c = characters.nextSetBit(0); c >= 0; c = characters.nextSetBit(c + 1)) {
+			symbolList.add(String.valueOf((char) c));
+		}
+		Alphabet alphabet = new Alphabet(symbolList);
+		Symbol[] symbolOf = new Symbol[Character.MAX_VALUE + 1];
+		for (int c = characters.nextSetBit(0); c >= 0; c = characters.nextSetBit(c + 1)) {
+			symbolOf[c] = alphabet.getSymbol(alphabet.ordinalOf((char) c));
+		}
+
+		// Numera os estados em ordem de busca em largura.
+		int[] order = new int[stateCount];
+		int[] number = new int[stateCount];
+		Arrays.fill(number, IndexedAFD.NONE);
+		int count = 0;
+		number[initial] = count;
+		order[count++] = initial;
+		for (int head = 0; head < count; head++) {
+			int s = order[head];
+			for (int e = edgeStart[s]; e < edgeStart[s + 1]; e++) {
+				int d = edgeTarget[e];
+				if (number[d] == IndexedAFD.NONE) {
+					number[d] = count;
+					order[count++] = d;
+				}
+			}
+		}
+
+		State[] states = new State[count];
+		for (int i = 0; i < count; i++) {
+			states[i] = new State("G" + (i + 1));
+		}
+		ArrayList<State> finalStates = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			int s = order[i];
+			for (int e = edgeStart[s]; e < edgeStart[s + 1]; e++) {
+				states[i].addTransition(symbolOf[edgeSymbol[e]], states[number[edgeTarget[e]]]);
+			}
+			if (finals.get(s)) {
+				finalStates.add(states[i]);
+			}
+		}
+		return new AFD(alphabet, states[0], Arrays.asList(states), finalStates);
+	}
+
+	/**
+	 * Registra os estados do caminho abaixo de uma profundidade, do mais
+	 * profundo para o mais raso, ligando cada um ao seu pai.
+	 *
+	 * @param depth
+	 *            A profundidade do último estado que continua em aberto.
+	 */
+	private void close(int depth) {
+		for (int i = previous.length(); i > depth; i--) {
+			OpenState parent = path.get(i - 1);
+			parent.targets[parent.size - 1] = freeze(path.get(i));
+		}
+	}
+
+	/**
+	 * Substitui um estado do caminho por um estado registrado equivalente, ou
+	 * o registra, se não houver um. Como os destinos já estão registrados,
+	 * dois estados são equivalentes se e somente se forem ambos finais ou não
+	 * finais e tiverem as mesmas transições.
+	 *
+	 * @param state
+	 *            O estado do caminho.
+	 * @return O número do estado registrado.
+	 */
+	private int freeze(OpenState state) {
+		long hash = state.isFinal ? 0x9E3779B97F4A7C15L : 0;
+		for (int i = 0; i < state.size; i++) {
+			hash = (hash ^ (state.symbols[i] | (long) state.targets[i] << 16)) * 0xC2B2AE3D27D4EB4FL;
+			hash ^= hash >>> 29;
+		}
+		int mask = register.length - 1;
+		int slot = (int) (hash ^ (hash >>> 32)) & mask;
+		while (register[slot] != IndexedAFD.NONE) {
+			if (registerHash[slot] == hash && sameState(register[slot], state)) {
+				return register[slot];
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		int s = stateCount++;
+		if (stateCount + 1 >= edgeStart.length) {
+			edgeStart = Arrays.copyOf(edgeStart, edgeStart.length * 2);
+		}
+		if (edgeCount + state.size > edgeSymbol.length) {
+			int capacity = Math.max(edgeSymbol.length * 2, edgeCount + state.size);
+			edgeSymbol = Arrays.copyOf(edgeSymbol, capacity);
+			edgeTarget = Arrays.copyOf(edgeTarget, capacity);
+		}
+		System.arraycopy(state.symbols, 0, edgeSymbol, edgeCount, state.size);
+		System.arraycopy(state.targets, 0, edgeTarget, edgeCount, state.size);
+		edgeCount += state.size;
+		edgeStart[s + 1] = edgeCount;
+		finals.set(s, state.isFinal);
+
+		register[slot] = s;
+		registerHash[slot] = hash;
+		if (stateCount * 2 > register.length) {
+			rehash();
+		}
+		return s;
+	}
+
+	/**
+	 * Compara um estado registrado com um estado do caminho.
+	 *
+	 * @param s
+	 *            O estado registrado.
+	 * @param state
+	 *            O estado do caminho.
+	 * @return true, se tiverem as mesmas transições e forem ambos finais ou
+	 *         não finais.
+	 */
+	private boolean sameState(int s, OpenState state) {
+		if (finals.get(s) != state.isFinal || edgeStart[s + 1] - edgeStart[s] != state.size) {
+			return false;
+		}
+		for (int i = 0, e = edgeStart[s]; i < state.size; i++, e++) {
+			if (edgeSymbol[e] != state.symbols[i] || edgeTarget[e] != state.targets[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Dobra a capacidade da tabela de estados registrados.
+	 */
+	private void rehash() {
+		int[] oldRegister = register;
+		long[] oldHash = registerHash;
+		register = new int[oldRegister.length * 2];
+		registerHash = new long[oldRegister.length * 2];
+		Arrays.fill(register, IndexedAFD.NONE);
+		int mask = register.length - 1;
+		for (int i = 0; i < oldRegister.length; i++) {
+			if (oldRegister[i] != IndexedAFD.NONE) {
+				int slot = (int) (oldHash[i] ^ (oldHash[i] >>> 32)) & mask;
+				while (register[slot] != IndexedAFD.NONE) {
+					slot = (slot + 1) & mask;
+				}
+				register[slot] = oldRegister[i];
+				registerHash[slot] = oldHash[i];
+			}
+		}
+	}
+}
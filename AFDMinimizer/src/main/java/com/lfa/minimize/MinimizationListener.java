@@ -0,0 +1,19 @@
+package com.lfa.minimize;
+
+/**
+ * Interface MinimizationListener. Recebe o andamento de uma minimização
+ * executada com {@link MinimizationOptions}. É chamada na thread da
+ * minimização, que fica parada enquanto a chamada não retornar.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+public interface MinimizationListener {
+
+	/**
+	 * Recebe o andamento da minimização.
+	 *
+	 * @param progress
+	 *            O andamento.
+	 */
+	void progress(MinimizationProgress progress);
+}
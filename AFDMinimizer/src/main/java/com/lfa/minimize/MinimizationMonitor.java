@@ -0,0 +1,126 @@
+package com.lfa.minimize;
+
+import java.io.File;
+import java.util.function.IntSupplier;
+
+import com.lfa.exception.ValidationException;
+import com.lfa.exception.ValidationException.ErrorType;
+
+/**
+ * Classe MinimizationMonitor. Aplica as {@link MinimizationOptions} durante o
+ * refinamento: conta as rodadas, verifica o cancelamento e os limites e envia
+ * o andamento, além de indicar quando um checkpoint deve ser gravado. O
+ * relógio e o token só são consultados a cada {@link #CHECK_INTERVAL}
+ * rodadas, para que a verificação não pese no refinamento.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+final class MinimizationMonitor {
+
+	/** O número de rodadas entre duas consultas ao relógio e ao token. */
+	private static final int CHECK_INTERVAL = 256;
+
+	private final MinimizationOptions options;
+	private final long start;
+	private final long deadline;
+	private long lastProgress;
+	private long lastCheckpoint;
+	private boolean checkpointDue;
+	private long round;
+
+	/**
+	 * Instancia um novo MinimizationMonitor e inicia a contagem do tempo.
+	 *
+	 * @param options
+	 *            As opções.
+	 */
+	MinimizationMonitor(MinimizationOptions options) {
+		this.options = options;
+		this.start = System.nanoTime();
+		this.lastProgress = start;
+		this.lastCheckpoint = start;
+		long budget = options.getTimeBudgetNanos();
+		this.deadline = budget > Long.MAX_VALUE - start ? Long.MAX_VALUE : start + budget;
+		checkCancelled();
+	}
+
+	/**
+	 * Conta uma rodada e verifica se o refinamento pode continuar.
+	 *
+	 * @param blockCount
+	 *            O número de blocos atual.
+	 * @param largestBlock
+	 *            Calcula o tamanho do maior bloco, se o andamento for
+	 *            enviado.
+	 * @return false, se algum limite foi atingido.
+	 */
+	boolean round(int blockCount, IntSupplier largestBlock) {
+		if (++round > options.getRoundBudget()) {
+			return false;
+		}
+		if (round % CHECK_INTERVAL != 0) {
+			return true;
+		}
+		checkCancelled();
+		long now = System.nanoTime();
+		if (now - deadline > 0 && deadline != Long.MAX_VALUE) {
+			return false;
+		}
+		if (options.getCheckpointFile() != null && now - lastCheckpoint >= options.getCheckpointIntervalMillis() * 1000000L) {
+			lastCheckpoint = now;
+			checkpointDue = true;
+		}
+		if (options.getListener() != null && now - lastProgress >= options.getProgressIntervalMillis() * 1000000L) {
+			lastProgress = now;
+			options.getListener().progress(new MinimizationProgress(round, blockCount, largestBlock.getAsInt(), (now - start) / 1000000L, false));
+		}
+		return true;
+	}
+
+	/**
+	 * Retorna o arquivo de checkpoint.
+	 *
+	 * @return O arquivo, ou null.
+	 */
+	File getCheckpointFile() {
+		return options.getCheckpointFile();
+	}
+
+	/**
+	 * Verifica se um checkpoint deve ser gravado, desde a última chamada.
+	 *
+	 * @return true, se o intervalo de checkpoint já passou.
+	 */
+	boolean checkpointDue() {
+		boolean due = checkpointDue;
+		checkpointDue = false;
+		return due;
+	}
+
+	/**
+	 * Envia o último andamento.
+	 *
+	 * @param blockCount
+	 *            O número de blocos final.
+	 * @param largestBlock
+	 *            O tamanho do maior bloco final.
+	 * @param finished
+	 *            Se o refinamento terminou.
+	 */
+	void finish(int blockCount, int largestBlock, boolean finished) {
+		if (options.getListener() != null) {
+			long elapsed = (System.nanoTime() - start) / 1000000L;
+			options.getListener().progress(new MinimizationProgress(Math.min(round, options.getRoundBudget()), blockCount, largestBlock, elapsed, finished));
+		}
+	}
+
+	/**
+	 * Lança uma exceção se o cancelamento foi solicitado.
+	 */
+	void checkCancelled() {
+		CancellationToken token = options.getCancellationToken();
+		if (token != null && token.isCancelled()) {
+			throw new ValidationException(ErrorType.MINIMIZE, "A minimização foi cancelada.");
+		}
+	}
+}
@@ -0,0 +1,205 @@
+package com.lfa.minimize;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import com.lfa.exception.ValidationException;
+import com.lfa.exception.ValidationException.ErrorType;
+
+/**
+ * Classe MinimizationOptions. Opções de uma minimização longa, usadas por
+ * {@link AFDMinimizer#minimize(com.lfa.automata.afd.AFD, MinimizationOptions)}:
+ * um {@link MinimizationListener} para acompanhar o andamento, um
+ * {@link CancellationToken} para cancelá-la, limites de tempo e de rodadas e
+ * um arquivo de checkpoint, que permite retomá-la se for interrompida.
+ * Instâncias são imutáveis e construídas por {@link #builder()}.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@ToString(callSuper = false)
+public final class MinimizationOptions {
+
+	/** Opções sem acompanhamento, cancelamento ou limites. */
+	public static final MinimizationOptions DEFAULT = builder().build();
+
+	/** Recebe o andamento, ou null. */
+	private final MinimizationListener listener;
+
+	/** O intervalo mínimo entre dois andamentos, em milissegundos. */
+	private final long progressIntervalMillis;
+
+	/** Permite cancelar a minimização, ou null. */
+	private final CancellationToken cancellationToken;
+
+	/** O tempo máximo de refinamento, em nanossegundos, ou Long.MAX_VALUE. */
+	private final long timeBudgetNanos;
+
+	/** O número máximo de rodadas, ou Long.MAX_VALUE. */
+	private final long roundBudget;
+
+	/** O arquivo de checkpoint, ou null. */
+	private final File checkpointFile;
+
+	/** O intervalo entre dois checkpoints, em milissegundos. */
+	private final long checkpointIntervalMillis;
+
+	/**
+	 * Instancia um novo MinimizationOptions.
+	 *
+	 * @param builder
+	 *            O builder.
+	 */
+	private MinimizationOptions(OptionsBuilder builder) {
+		this.listener = builder.listener;
+		this.progressIntervalMillis = builder.progressIntervalMillis;
+		this.cancellationToken = builder.cancellationToken;
+		this.timeBudgetNanos = builder.timeBudgetNanos;
+		this.roundBudget = builder.roundBudget;
+		this.checkpointFile = builder.checkpointFile;
+		this.checkpointIntervalMillis = builder.checkpointIntervalMillis;
+	}
+
+	/**
+	 * Retorna um novo {@link OptionsBuilder}.
+	 *
+	 * @return O novo builder.
+	 */
+	public static OptionsBuilder builder() {
+		return new OptionsBuilder();
+	}
+
+	/**
+	 * Classe OptionsBuilder. Serve para construir um novo
+	 * {@link MinimizationOptions}.
+	 */
+	public final static class OptionsBuilder {
+
+		private MinimizationListener listener;
+		private long progressIntervalMillis = 1000;
+		private CancellationToken cancellationToken;
+		private long timeBudgetNanos = Long.MAX_VALUE;
+		private long roundBudget = Long.MAX_VALUE;
+		private File checkpointFile;
+		private long checkpointIntervalMillis = TimeUnit.MINUTES.toMillis(10);
+
+		private OptionsBuilder() {
+		}
+
+		/**
+		 * Define quem recebe o andamento da minimização.
+		 *
+		 * @param listener
+		 *            O listener.
+		 * @return Este builder.
+		 */
+		public OptionsBuilder listener(MinimizationListener listener) {
+			this.listener = listener;
+			return this;
+		}
+
+		/**
+		 * Define o intervalo mínimo entre dois andamentos. O padrão é um
+		 * segundo. O último andamento é sempre enviado.
+		 *
+		 * @param interval
+		 *            O intervalo.
+		 * @param unit
+		 *            A unidade do intervalo.
+		 * @return Este builder.
+		 */
+		public OptionsBuilder progressInterval(long interval, TimeUnit unit) {
+			if (interval < 0) {
+				throw new ValidationException(ErrorType.MINIMIZE, "Intervalo de andamento negativo: " + interval + ".");
+			}
+			this.progressIntervalMillis = unit.toMillis(interval);
+			return this;
+		}
+
+		/**
+		 * Define o token que permite cancelar a minimização.
+		 *
+		 * @param cancellationToken
+		 *            O token.
+		 * @return Este builder.
+		 */
+		public OptionsBuilder cancellationToken(CancellationToken cancellationToken) {
+			this.cancellationToken = cancellationToken;
+			return this;
+		}
+
+		/**
+		 * Define o tempo máximo de refinamento. Ao fim do tempo, a minimização
+		 * retorna um AFD equivalente ao original, mas não necessariamente
+		 * mínimo.
+		 *
+		 * @param budget
+		 *            O tempo.
+		 * @param unit
+		 *            A unidade do tempo.
+		 * @return Este builder.
+		 */
+		public OptionsBuilder timeBudget(long budget, TimeUnit unit) {
+			if (budget < 0) {
+				throw new ValidationException(ErrorType.MINIMIZE, "Limite de tempo negativo: " + budget + ".");
+			}
+			this.timeBudgetNanos = unit.toNanos(budget);
+			return this;
+		}
+
+		/**
+		 * Define o número máximo de rodadas de refinamento. Ao fim das rodadas,
+		 * a minimização retorna um AFD equivalente ao original, mas não
+		 * necessariamente mínimo.
+		 *
+		 * @param rounds
+		 *            O número de rodadas.
+		 * @return Este builder.
+		 */
+		public OptionsBuilder roundBudget(long rounds) {
+			if (rounds < 0) {
+				throw new ValidationException(ErrorType.MINIMIZE, "Limite de rodadas negativo: " + rounds + ".");
+			}
+			this.roundBudget = rounds;
+			return this;
+		}
+
+		/**
+		 * Define o arquivo de checkpoint e o intervalo entre dois checkpoints.
+		 * Se o arquivo existir quando a minimização começar, o refinamento é
+		 * retomado a partir dele, desde que tenha sido gravado para o mesmo
+		 * AFD. Um checkpoint também é gravado quando algum limite é atingido,
+		 * e o arquivo é apagado quando o refinamento termina.
+		 *
+		 * @param file
+		 *            O arquivo.
+		 * @param interval
+		 *            O intervalo.
+		 * @param unit
+		 *            A unidade do intervalo.
+		 * @return Este builder.
+		 */
+		public OptionsBuilder checkpoint(File file, long interval, TimeUnit unit) {
+			if (interval < 0) {
+				throw new ValidationException(ErrorType.MINIMIZE, "Intervalo de checkpoint negativo: " + interval + ".");
+			}
+			this.checkpointFile = file;
+			this.checkpointIntervalMillis = unit.toMillis(interval);
+			return this;
+		}
+
+		/**
+		 * Constrói as opções.
+		 *
+		 * @return As opções.
+		 */
+		public MinimizationOptions build() {
+			return new MinimizationOptions(this);
+		}
+	}
+}
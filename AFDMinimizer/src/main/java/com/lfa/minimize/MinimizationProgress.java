@@ -0,0 +1,58 @@
+package com.lfa.minimize;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Classe MinimizationProgress. O andamento de uma minimização, como recebido
+ * por um {@link MinimizationListener}. Uma rodada corresponde a um bloco
+ * divisor processado pelo refinamento.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@ToString(callSuper = false)
+public final class MinimizationProgress {
+
+	/** O número de rodadas executadas. */
+	private final long round;
+
+	/** O número de blocos da partição atual. */
+	private final int blockCount;
+
+	/** O número de estados do maior bloco da partição atual. */
+	private final int largestBlock;
+
+	/** O tempo decorrido desde o início da minimização, em milissegundos. */
+	private final long elapsedMillis;
+
+	/**
+	 * Indica se o refinamento terminou. Só é true no último andamento de uma
+	 * minimização concluída.
+	 */
+	private final boolean finished;
+
+	/**
+	 * Instancia um novo MinimizationProgress.
+	 *
+	 * @param round
+	 *            O número de rodadas executadas.
+	 * @param blockCount
+	 *            O número de blocos.
+	 * @param largestBlock
+	 *            O tamanho do maior bloco.
+	 * @param elapsedMillis
+	 *            O tempo decorrido, em milissegundos.
+	 * @param finished
+	 *            Se o refinamento terminou.
+	 */
+	MinimizationProgress(long round, int blockCount, int largestBlock, long elapsedMillis, boolean finished) {
+		this.round = round;
+		this.blockCount = blockCount;
+		this.largestBlock = largestBlock;
+		this.elapsedMillis = elapsedMillis;
+		this.finished = finished;
+	}
+}
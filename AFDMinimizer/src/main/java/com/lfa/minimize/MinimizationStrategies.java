@@ -0,0 +1,374 @@
+package com.lfa.minimize;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.ServiceLoader;
+
+import com.lfa.automata.afd.AFD;
+import com.lfa.exception.ValidationException;
+import com.lfa.exception.ValidationException.ErrorType;
+
+/**
+ * Classe MinimizationStrategies. Registro das {@link MinimizationStrategy}
+ * disponíveis, carregadas uma única vez por {@link ServiceLoader}, e das
+ * estratégias fornecidas por esta biblioteca. Se duas estratégias tiverem o
+ * mesmo nome, vale a primeira encontrada.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+public final class MinimizationStrategies {
+
+	/** O número mínimo de estados para o uso do refinamento paralelo. */
+	private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+	/**
+	 * Interface Trimmed. Estratégia desta biblioteca que pode minimizar
+	 * diretamente o AFD já indexado e podado pelo cálculo das estatísticas.
+	 */
+	interface Trimmed extends MinimizationStrategy {
+
+		/**
+		 * Minimiza um AFD já indexado e podado.
+		 *
+		 * @param trimmer
+		 *            A poda do AFD, com o AFD indexado sem estados
+		 *            inalcançáveis ou mortos.
+		 * @return O AFD minimizado, completo se o original for.
+		 */
+		AFD minimize(Trimmer trimmer);
+
+		@Override
+		default AFD minimize(AFD original) {
+			return minimize(new Trimmer(IndexedAFD.of(original)));
+		}
+	}
+
+	/**
+	 * Carrega as estratégias no primeiro uso.
+	 */
+	private static final class Registry {
+
+		private static final List<MinimizationStrategy> STRATEGIES = load();
+	}
+
+	private MinimizationStrategies() {
+	}
+
+	/**
+	 * Retorna as estratégias registradas, na ordem em que foram carregadas.
+	 *
+	 * @return As estratégias.
+	 */
+	public static List<MinimizationStrategy> getStrategies() {
+		return Registry.STRATEGIES;
+	}
+
+	/**
+	 * Retorna uma estratégia pelo nome.
+	 *
+	 * @param name
+	 *            O nome da estratégia.
+	 * @return A estratégia.
+	 */
+	public static MinimizationStrategy getStrategy(String name) {
+		for (MinimizationStrategy strategy : Registry.STRATEGIES) {
+			if (strategy.getName().equals(name)) {
+				return strategy;
+			}
+		}
+		throw new ValidationException(ErrorType.MINIMIZE, "Estratégia de minimização desconhecida: " + name + ".");
+	}
+
+	/**
+	 * Seleciona a estratégia de menor custo estimado para um AFD. Em caso de
+	 * empate, vale a estratégia carregada primeiro. Se nenhuma estratégia se
+	 * aplicar ao AFD, é usada a estratégia "hopcroft".
+	 *
+	 * @param statistics
+	 *            As estatísticas do AFD.
+	 * @return A estratégia selecionada.
+	 */
+	public static MinimizationStrategy select(AFDStatistics statistics) {
+		MinimizationStrategy best = null;
+		double bestCost = Double.POSITIVE_INFINITY;
+		for (MinimizationStrategy strategy : Registry.STRATEGIES) {
+			double cost = strategy.estimateCost(statistics);
+			if (cost < bestCost) {
+				best = strategy;
+				bestCost = cost;
+			}
+		}
+		return best != null ? best : new Hopcroft();
+	}
+
+	/**
+	 * Seleciona e aplica a estratégia de menor custo estimado para um AFD,
+	 * indexando e podando o AFD uma única vez.
+	 *
+	 * @param original
+	 *            O AFD original.
+	 * @return O AFD minimizado.
+	 */
+	static AFD minimize(AFD original) {
+		Trimmer trimmer = new Trimmer(IndexedAFD.of(original));
+		return minimize(original, trimmer, select(AFDStatistics.of(trimmer.trimmed)));
+	}
+
+	/**
+	 * Aplica uma estratégia a um AFD.
+	 *
+	 * @param original
+	 *            O AFD original.
+	 * @param strategy
+	 *            A estratégia.
+	 * @return O AFD minimizado.
+	 */
+	static AFD minimize(AFD original, MinimizationStrategy strategy) {
+		return minimize(original, new Trimmer(IndexedAFD.of(original)), strategy);
+	}
+
+	/**
+	 * Aplica uma estratégia a um AFD já podado. Como em
+	 * {@link AFDMinimizer#minimize(AFD)}, o resultado de um AFD completo é
+	 * completado com um estado de descarte, mesmo que a estratégia, como a
+	 * "partial", retorne um AFD parcial.
+	 *
+	 * @param original
+	 *            O AFD original.
+	 * @param trimmer
+	 *            A poda do AFD.
+	 * @param strategy
+	 *            A estratégia.
+	 * @return O AFD minimizado.
+	 */
+	private static AFD minimize(AFD original, Trimmer trimmer, MinimizationStrategy strategy) {
+		if (strategy instanceof Trimmed) {
+			return ((Trimmed) strategy).minimize(trimmer);
+		}
+		AFD minimized = strategy.minimize(original);
+		return trimmer.sink ? trimmer.complete(IndexedAFD.of(minimized)).toAFD() : minimized;
+	}
+
+	/**
+	 * Carrega as estratégias registradas.
+	 *
+	 * @return As estratégias, sem nomes repetidos.
+	 */
+	private static List<MinimizationStrategy> load() {
+		LinkedHashMap<String, MinimizationStrategy> strategies = new LinkedHashMap<>();
+		for (MinimizationStrategy strategy : ServiceLoader.load(MinimizationStrategy.class)) {
+			strategies.putIfAbsent(strategy.getName(), strategy);
+		}
+		return Collections.unmodifiableList(new ArrayList<>(strategies.values()));
+	}
+
+	/**
+	 * Estratégia "hopcroft": o refinamento padrão desta biblioteca, com custo
+	 * O(n·k·log n). Agrupa os símbolos com colunas idênticas e usa o algoritmo
+	 * de Revuz em AFDs acíclicos e máscaras de bits em AFDs pequenos antes do
+	 * algoritmo de Hopcroft.
+	 */
+	public static final class Hopcroft implements Trimmed {
+
+		@Override
+		public String getName() {
+			return "hopcroft";
+		}
+
+		@Override
+		public double estimateCost(AFDStatistics statistics) {
+			return (double) statistics.getStateCount() * statistics.getAlphabetSize() * statistics.getLogStateCount();
+		}
+
+		@Override
+		public AFD minimize(Trimmer trimmer) {
+			return trimmer.quotient(AFDMinimizer.refine(trimmer.trimmed));
+		}
+	}
+
+	/**
+	 * Estratégia "revuz": o algoritmo de Revuz, com custo O(n·k), apenas para
+	 * AFDs acíclicos.
+	 */
+	public static final class Revuz implements Trimmed {
+
+		@Override
+		public String getName() {
+			return "revuz";
+		}
+
+		@Override
+		public double estimateCost(AFDStatistics statistics) {
+			if (!statistics.isAcyclic()) {
+				return Double.POSITIVE_INFINITY;
+			}
+			return (double) statistics.getStateCount() * statistics.getAlphabetSize();
+		}
+
+		@Override
+		public AFD minimize(Trimmer trimmer) {
+			int[] classes = RevuzMinimizer.refine(SymbolCompressor.compress(trimmer.trimmed));
+			if (classes == null) {
+				throw new ValidationException(ErrorType.MINIMIZE, "O algoritmo de Revuz só minimiza AFDs acíclicos.");
+			}
+			return trimmer.quotient(classes);
+		}
+	}
+
+	/**
+	 * Estratégia "parallel": o refinamento de
+	 * {@link AFDMinimizer#minimizeParallel(AFD)}, apenas para AFDs grandes e
+	 * quando houver mais de um processador. O refinamento é feito em rodadas,
+	 * cada uma com custo O(n·k) dividido entre os processadores, e o número
+	 * de rodadas só é limitado por algo melhor que n em AFDs acíclicos, então
+	 * a estratégia não compensa em AFDs cíclicos.
+	 */
+	public static final class Parallel implements Trimmed {
+
+		@Override
+		public String getName() {
+			return "parallel";
+		}
+
+		@Override
+		public double estimateCost(AFDStatistics statistics) {
+			int processors = Runtime.getRuntime().availableProcessors();
+			if (processors < 2 || statistics.getStateCount() < PARALLEL_THRESHOLD) {
+				return Double.POSITIVE_INFINITY;
+			}
+			// Metade da eficiência ideal, pela sincronização entre as rodadas.
+			return 2.0 * statistics.getRoundBound() * statistics.getStateCount() * statistics.getAlphabetSize() / processors;
+		}
+
+		@Override
+		public AFD minimize(Trimmer trimmer) {
+			return trimmer.quotient(ParallelMinimizer.refine(SymbolCompressor.compress(trimmer.trimmed), Runtime.getRuntime().availableProcessors()));
+		}
+	}
+
+	/**
+	 * Estratégia "partial": o algoritmo de Valmari e Lehtinen de
+	 * {@link AFDMinimizer#minimizePartial(AFD)}, com custo O(m·log n), que
+	 * compensa em AFDs com poucas transições.
+	 */
+	public static final class Partial implements MinimizationStrategy {
+
+		@Override
+		public String getName() {
+			return "partial";
+		}
+
+		@Override
+		public double estimateCost(AFDStatistics statistics) {
+			// Os objetos do AFD são lidos diretamente, o que custa mais por transição.
+			return 1.5 * (statistics.getTransitionCount() + statistics.getStateCount()) * statistics.getLogStateCount();
+		}
+
+		@Override
+		public AFD minimize(AFD original) {
+			return AFDMinimizer.minimizePartial(original);
+		}
+	}
+
+	/**
+	 * Estratégia "scc": a minimização por componentes fortemente conexos de
+	 * {@link AFDMinimizer#minimizeBySCCs(AFD)}. Só é usada quando escolhida
+	 * pelo nome.
+	 */
+	public static final class SCC implements Trimmed {
+
+		@Override
+		public String getName() {
+			return "scc";
+		}
+
+		@Override
+		public double estimateCost(AFDStatistics statistics) {
+			return Double.POSITIVE_INFINITY;
+		}
+
+		@Override
+		public AFD minimize(Trimmer trimmer) {
+			return trimmer.quotient(SCCMinimizer.refine(SymbolCompressor.compress(trimmer.trimmed)));
+		}
+	}
+
+	/**
+	 * Estratégia "signatures": o refinamento em rodadas de
+	 * {@link AFDMinimizer#minimizeBySignatures(AFD)}. Só é usada quando
+	 * escolhida pelo nome.
+	 */
+	public static final class Signatures implements Trimmed {
+
+		@Override
+		public String getName() {
+			return "signatures";
+		}
+
+		@Override
+		public double estimateCost(AFDStatistics statistics) {
+			return Double.POSITIVE_INFINITY;
+		}
+
+		@Override
+		public AFD minimize(Trimmer trimmer) {
+			return trimmer.quotient(SignatureMinimizer.refine(SymbolCompressor.compress(trimmer.trimmed)));
+		}
+	}
+
+	/**
+	 * Estratégia "brzozowski": a dupla reversão de
+	 * {@link AFDMinimizer#minimizeBrzozowski(AFD)}. Só é usada quando
+	 * escolhida pelo nome.
+	 */
+	public static final class Brzozowski implements Trimmed {
+
+		@Override
+		public String getName() {
+			return "brzozowski";
+		}
+
+		@Override
+		public double estimateCost(AFDStatistics statistics) {
+			return Double.POSITIVE_INFINITY;
+		}
+
+		@Override
+		public AFD minimize(Trimmer trimmer) {
+			return trimmer.complete(BrzozowskiMinimizer.minimize(trimmer.trimmed, BrzozowskiMinimizer.DEFAULT_MAX_STATES, BrzozowskiMinimizer.DEFAULT_MAX_BYTES)).toAFD();
+		}
+	}
+
+	/**
+	 * Estratégia "groups": o refinamento por grupos de
+	 * {@link AFDMinimizer#minimizeByGroups(AFD)}. Só é usada quando escolhida
+	 * pelo nome. O minimizador original não remove estados inalcançáveis nem
+	 * mortos e só trata AFDs completos, com estados finais e não finais, então
+	 * recebe o AFD podado e completado com um estado de descarte.
+	 */
+	public static final class Groups implements Trimmed {
+
+		@Override
+		public String getName() {
+			return "groups";
+		}
+
+		@Override
+		public double estimateCost(AFDStatistics statistics) {
+			return Double.POSITIVE_INFINITY;
+		}
+
+		@Override
+		public AFD minimize(Trimmer trimmer) {
+			IndexedAFD complete = trimmer.trimmed.withSink();
+			if (complete.finals.isEmpty() || complete.finals.cardinality() == complete.size) {
+				// Um dos grupos iniciais seria vazio, e todos os estados são equivalentes.
+				return trimmer.quotient(new int[trimmer.trimmed.size]);
+			}
+			AFD minimized = AFDMinimizer.minimizeByGroups(complete.toAFD());
+			return trimmer.sink ? minimized : new Trimmer(IndexedAFD.of(minimized)).trimmed.toAFD();
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package com.lfa.minimize;
+
+import com.lfa.automata.afd.AFD;
+
+/**
+ * Interface MinimizationStrategy. Um algoritmo de minimização de AFDs que pode
+ * ser escolhido pelo nome ou selecionado automaticamente a partir das
+ * estatísticas do AFD, como feito por
+ * {@link AFDMinimizer#minimize(AFD)}. As implementações são
+ * carregadas por {@link java.util.ServiceLoader}, a partir dos arquivos
+ * META-INF/services/com.lfa.minimize.MinimizationStrategy, e devem ter um
+ * construtor público sem parâmetros.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+public interface MinimizationStrategy {
+
+	/**
+	 * Retorna o nome da estratégia, pelo qual ela pode ser escolhida.
+	 *
+	 * @return O nome.
+	 */
+	String getName();
+
+	/**
+	 * Estima o custo de minimizar um AFD com esta estratégia, em unidades
+	 * aproximadas de operações elementares. A estratégia de menor custo é a
+	 * selecionada. Estratégias que não se aplicam ao AFD, ou que só devem ser
+	 * usadas quando escolhidas pelo nome, retornam
+	 * {@link Double#POSITIVE_INFINITY}.
+	 *
+	 * @param statistics
+	 *            As estatísticas do AFD.
+	 * @return O custo estimado.
+	 */
+	double estimateCost(AFDStatistics statistics);
+
+	/**
+	 * Minimiza um AFD.
+	 *
+	 * @param original
+	 *            O AFD original.
+	 * @return O AFD minimizado.
+	 */
+	AFD minimize(AFD original);
+}
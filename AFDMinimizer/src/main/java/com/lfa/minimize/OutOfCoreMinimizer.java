@@ -0,0 +1,510 @@
+package com.lfa.minimize;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.lfa.automata.afd.TableAFD;
+import com.lfa.exception.ValidationException;
+import com.lfa.exception.ValidationException.ErrorType;
+
+/**
+ * Classe OutOfCoreMinimizer. Minimização de AFDs grandes demais para a
+ * memória, lidos por meio de {@link TableAFD}, como um {@link AFDTableFile} ou
+ * um {@link com.lfa.automata.afd.OffHeapAFD}, e gravados como
+ * {@link AFDTableFile}. A tabela de transições, o índice de predecessores e os
+ * vetores da partição ficam em arquivos mapeados, e somente a tabela hash de
+ * cada passada ocupa a memória de trabalho.
+ *
+ * Primeiro são removidos os estados inalcançáveis e mortos, como em
+ * {@link Trimmer}, com buscas em largura sobre a tabela e sobre o índice de
+ * predecessores. Se o AFD original for completo nos estados alcançáveis, o AFD
+ * mínimo gravado é completado com um único estado de descarte, como em
+ * {@link AFDMinimizer#minimize(com.lfa.automata.afd.AFD)}. A partição é então
+ * refinada em rodadas, como em {@link SignatureMinimizer}: em cada rodada, o hash da assinatura de cada
+ * estado é gravado em disco e os estados são agrupados em passadas, cada uma
+ * tratando uma faixa de hashes. A tabela hash guarda uma posição por
+ * assinatura distinta, e não por estado, e nunca passa do orçamento de
+ * memória: se ela encher, os estados com assinaturas novas são marcados em
+ * disco e tratados em uma nova varredura da mesma passada.
+ *
+ * A partição inicial separa apenas os estados finais dos não finais, sem
+ * rótulos. Para um {@link TableAFD}, que não tem rótulos, a partição final é a
+ * mesma calculada por {@link HopcroftMinimizer}. Já um AFD com estados finais
+ * rotulados, como os de
+ * {@link AFDMinimizer#minimize(com.lfa.automata.afd.AFD, java.util.function.Function)},
+ * não deve ser minimizado aqui, pois estados finais com rótulos diferentes
+ * seriam agrupados.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+final class OutOfCoreMinimizer {
+
+	/** Bytes de memória por posição da tabela hash (hash e estado). */
+	private static final int SLOT_BYTES = 12;
+
+	/**
+	 * Posições da tabela hash por estado, usadas para estimar o número de
+	 * passadas, como se todas as assinaturas fossem distintas. A ocupação da
+	 * tabela nunca passa de 1/2.
+	 */
+	private static final int SLOTS_PER_STATE = 4;
+
+	/** Marca uma posição vazia da tabela hash. */
+	private static final int EMPTY = -1;
+
+	/**
+	 * Marca, no vetor de blocos da próxima rodada, um estado adiado para a
+	 * próxima varredura da passada.
+	 */
+	private static final int DEFERRED = -2;
+
+	private final File directory;
+	private final long memoryBudget;
+
+	/** O número de estados após a poda. */
+	private int size;
+
+	/** O número de símbolos. */
+	private int k;
+
+	/** A tabela de transições após a poda. */
+	private MappedIntArray table;
+
+	/** Os estados finais após a poda. */
+	private MappedLongArray finals;
+
+	/** O estado inicial após a poda. */
+	private int initial;
+
+	/**
+	 * Indica se o AFD original é completo nos estados alcançáveis e tem
+	 * estados mortos alcançáveis, representados por um estado de descarte no
+	 * AFD mínimo.
+	 */
+	private boolean sink;
+
+	/** Indica se o estado inicial é morto, ou seja, se a linguagem é vazia. */
+	private boolean empty;
+
+	/** O bloco de cada estado na rodada atual. */
+	private MappedIntArray block;
+
+	/** O bloco de cada estado na próxima rodada. */
+	private MappedIntArray next;
+
+	/** O hash da assinatura de cada estado na rodada atual. */
+	private MappedLongArray hashes;
+
+	/**
+	 * Instancia um novo OutOfCoreMinimizer.
+	 *
+	 * @param directory
+	 *            O diretório dos arquivos temporários.
+	 * @param memoryBudget
+	 *            A memória de trabalho, em bytes.
+	 */
+	private OutOfCoreMinimizer(File directory, long memoryBudget) {
+		this.directory = directory;
+		this.memoryBudget = memoryBudget;
+	}
+
+	/**
+	 * Minimiza o AFD de um arquivo de tabela e grava o resultado em outro.
+	 *
+	 * @param input
+	 *            O arquivo do AFD original.
+	 * @param output
+	 *            O arquivo do AFD mínimo. É sobrescrito se existir.
+	 * @param memoryBudget
+	 *            A memória de trabalho, em bytes, usada pelas tabelas hash do
+	 *            refinamento.
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	static void minimize(File input, File output, long memoryBudget) throws IOException {
+		try (AFDTableFile original = AFDTableFile.open(input)) {
+			minimize(original, output, memoryBudget);
+		}
+	}
+
+	/**
+	 * Minimiza um AFD lido pela API de tabela e grava o resultado em um
+	 * arquivo de tabela.
+	 *
+	 * @param input
+	 *            O AFD original.
+	 * @param output
+	 *            O arquivo do AFD mínimo. É sobrescrito se existir.
+	 * @param memoryBudget
+	 *            A memória de trabalho, em bytes, usada pelas tabelas hash do
+	 *            refinamento.
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	static void minimize(TableAFD input, File output, long memoryBudget) throws IOException {
+		if (memoryBudget < SLOT_BYTES * SLOTS_PER_STATE) {
+			throw new ValidationException(ErrorType.MINIMIZE, "O orçamento de memória é pequeno demais: " + memoryBudget + " bytes.");
+		}
+		OutOfCoreMinimizer minimizer = new OutOfCoreMinimizer(output.getAbsoluteFile().getParentFile(), memoryBudget);
+		try {
+			minimizer.trim(input);
+			int count = minimizer.refine();
+			String[] symbols = new String[input.alphabetSize()];
+			for (int a = 0; a < symbols.length; a++) {
+				symbols[a] = input.getAlphabet().getSymbol(a).getStr();
+			}
+			minimizer.write(output, symbols, count);
+		} finally {
+			minimizer.close();
+		}
+	}
+
+	/**
+	 * Remove os estados inalcançáveis e mortos, gravando o AFD podado em
+	 * vetores temporários.
+	 *
+	 * @param original
+	 *            O AFD original.
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	private void trim(TableAFD original) throws IOException {
+		int n = original.size();
+		this.k = original.alphabetSize();
+		int start = original.getInitialState();
+
+		// Bit 1 marca os estados alcançáveis e bit 2, os vivos. Depois, o vetor
+		// passa a guardar o novo índice de cada estado.
+		try (MappedIntArray mark = MappedIntArray.temporary(directory, n); MappedIntArray queue = MappedIntArray.temporary(directory, n)) {
+			boolean complete = true;
+			mark.set(start, 1);
+			queue.set(0, start);
+			for (int head = 0, tail = 1; head < tail; head++) {
+				int s = queue.get(head);
+				for (int a = 0; a < k; a++) {
+					int d = original.next(s, a);
+					if (d == IndexedAFD.NONE) {
+						complete = false;
+					} else if (mark.get(d) == 0) {
+						mark.set(d, 1);
+						queue.set(tail++, d);
+					}
+				}
+			}
+
+			try (MappedLongArray predStart = MappedLongArray.temporary(directory, n + 1L)) {
+				for (int s = 0; s < n; s++) {
+					for (int a = 0; a < k; a++) {
+						int d = original.next(s, a);
+						if (d != IndexedAFD.NONE) {
+							predStart.set(d + 1L, predStart.get(d + 1L) + 1);
+						}
+					}
+				}
+				for (int s = 0; s < n; s++) {
+					predStart.set(s + 1L, predStart.get(s + 1L) + predStart.get(s));
+				}
+				try (MappedIntArray preds = MappedIntArray.temporary(directory, predStart.get(n))) {
+					// Cada início é avançado até o início do estado seguinte e
+					// depois o vetor é deslocado de volta.
+					for (int s = 0; s < n; s++) {
+						for (int a = 0; a < k; a++) {
+							int d = original.next(s, a);
+							if (d != IndexedAFD.NONE) {
+								long position = predStart.get(d);
+								preds.set(position, s);
+								predStart.set(d, position + 1);
+							}
+						}
+					}
+					for (int s = n; s > 0; s--) {
+						predStart.set(s, predStart.get(s - 1L));
+					}
+					predStart.set(0, 0);
+
+					int tail = 0;
+					for (int s = 0; s < n; s++) {
+						if (original.isFinal(s)) {
+							mark.set(s, mark.get(s) | 2);
+							queue.set(tail++, s);
+						}
+					}
+					for (int head = 0; head < tail; head++) {
+						int s = queue.get(head);
+						for (long j = predStart.get(s); j < predStart.get(s + 1L); j++) {
+							int p = preds.get(j);
+							if ((mark.get(p) & 2) == 0) {
+								mark.set(p, mark.get(p) | 2);
+								queue.set(tail++, p);
+							}
+						}
+					}
+				}
+			}
+
+			this.empty = mark.get(start) != 3;
+			int kept = 0;
+			boolean dead = false;
+			for (int s = 0; s < n; s++) {
+				boolean keep = mark.get(s) == 3 || s == start;
+				dead |= mark.get(s) == 1 && !keep;
+				mark.set(s, keep ? kept++ : IndexedAFD.NONE);
+			}
+			this.sink = complete && dead;
+			this.size = kept;
+			this.initial = mark.get(start);
+			this.table = MappedIntArray.temporary(directory, (long) size * k);
+			this.finals = MappedLongArray.temporary(directory, (size + 63L) >>> 6);
+			for (int s = 0; s < n; s++) {
+				int t = mark.get(s);
+				if (t == IndexedAFD.NONE) {
+					continue;
+				}
+				long to = (long) t * k;
+				for (int a = 0; a < k; a++) {
+					int d = original.next(s, a);
+					table.set(to + a, d == IndexedAFD.NONE ? IndexedAFD.NONE : mark.get(d));
+				}
+				if (original.isFinal(s)) {
+					finals.setBit(t);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Refina a partição em rodadas até que nenhum bloco seja dividido.
+	 *
+	 * @return O número de blocos.
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	private int refine() throws IOException {
+		this.block = MappedIntArray.temporary(directory, size);
+		this.next = MappedIntArray.temporary(directory, size);
+		this.hashes = MappedLongArray.temporary(directory, size);
+		int count = 0;
+		int finalBlock = IndexedAFD.NONE;
+		int nonFinalBlock = IndexedAFD.NONE;
+		for (int s = 0; s < size; s++) {
+			if (finals.getBit(s)) {
+				if (finalBlock == IndexedAFD.NONE) {
+					finalBlock = count++;
+				}
+				block.set(s, finalBlock);
+			} else {
+				if (nonFinalBlock == IndexedAFD.NONE) {
+					nonFinalBlock = count++;
+				}
+				block.set(s, nonFinalBlock);
+			}
+		}
+		while (true) {
+			int newCount = round();
+			MappedIntArray swap = block;
+			block = next;
+			next = swap;
+			if (newCount == count) {
+				return count;
+			}
+			count = newCount;
+		}
+	}
+
+	/**
+	 * Executa uma rodada de refinamento. Os hashes das assinaturas são
+	 * gravados em disco e os estados são agrupados em passadas, uma para cada
+	 * faixa de hashes. A tabela hash tem no máximo o tamanho que cabe no
+	 * orçamento, por mais estados que uma passada tenha: estados com a mesma
+	 * assinatura ocupam uma única posição, e, quando a tabela chega à metade
+	 * da ocupação, os estados com assinaturas novas são adiados para outra
+	 * varredura da passada, com a tabela vazia. Cada varredura cria ao menos
+	 * uma assinatura, então a passada sempre termina.
+	 *
+	 * @return O número de blocos após a rodada.
+	 */
+	private int round() {
+		int passes = (int) Math.max(1, ((long) size * SLOT_BYTES * SLOTS_PER_STATE + memoryBudget - 1) / memoryBudget);
+		int[] perPass = new int[passes];
+		for (int s = 0; s < size; s++) {
+			long hash = hash(s);
+			hashes.set(s, hash);
+			perPass[pass(hash, passes)]++;
+		}
+
+		int largest = 0;
+		for (int count : perPass) {
+			largest = Math.max(largest, count);
+		}
+		long maxSlots = Math.min(Long.highestOneBit(memoryBudget / SLOT_BYTES), 1L << 30);
+		int slots = (int) Math.min(maxSlots, Long.highestOneBit(Math.max(largest, 1)) << 2);
+		int limit = slots / 2;
+		long[] slotHash = new long[slots];
+		int[] slotState = new int[slots];
+		int mask = slots - 1;
+		int count = 0;
+		for (int p = 0; p < passes; p++) {
+			boolean first = true;
+			boolean deferred = true;
+			while (deferred) {
+				deferred = false;
+				Arrays.fill(slotState, EMPTY);
+				int used = 0;
+				for (int s = 0; s < size; s++) {
+					long hash = hashes.get(s);
+					// Na primeira varredura, o vetor ainda guarda a rodada
+					// anterior.
+					if (pass(hash, passes) != p || !first && next.get(s) != DEFERRED) {
+						continue;
+					}
+					int slot = (int) (hash ^ (hash >>> 32)) & mask;
+					while (true) {
+						int representative = slotState[slot];
+						if (representative == EMPTY) {
+							if (used == limit) {
+								next.set(s, DEFERRED);
+								deferred = true;
+							} else {
+								slotState[slot] = s;
+								slotHash[slot] = hash;
+								next.set(s, count++);
+								used++;
+							}
+							break;
+						}
+						if (slotHash[slot] == hash && sameSignature(s, representative)) {
+							next.set(s, next.get(representative));
+							break;
+						}
+						slot = (slot + 1) & mask;
+					}
+				}
+				first = false;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Retorna a passada que trata um hash.
+	 *
+	 * @param hash
+	 *            O hash.
+	 * @param passes
+	 *            O número de passadas.
+	 * @return O índice da passada.
+	 */
+	private static int pass(long hash, int passes) {
+		// O resto sem sinal de Long usa BigInteger para valores negativos.
+		return (int) (((hash * 0x9E3779B97F4A7C15L) >>> 1) % passes);
+	}
+
+	/**
+	 * Calcula o hash da assinatura de um estado.
+	 *
+	 * @param s
+	 *            O estado.
+	 * @return O hash.
+	 */
+	private long hash(int s) {
+		long hash = block.get(s) * 0x9E3779B97F4A7C15L;
+		long row = (long) s * k;
+		for (int a = 0; a < k; a++) {
+			int d = table.get(row + a);
+			hash = (hash ^ (d == IndexedAFD.NONE ? IndexedAFD.NONE : block.get(d))) * 0xC2B2AE3D27D4EB4FL;
+			hash ^= hash >>> 29;
+		}
+		return hash;
+	}
+
+	/**
+	 * Compara as assinaturas de dois estados.
+	 *
+	 * @param s
+	 *            Um estado.
+	 * @param t
+	 *            Outro estado.
+	 * @return true, se os estados estiverem no mesmo bloco e suas transições
+	 *         levarem aos mesmos blocos.
+	 */
+	private boolean sameSignature(int s, int t) {
+		if (block.get(s) != block.get(t)) {
+			return false;
+		}
+		long rowS = (long) s * k;
+		long rowT = (long) t * k;
+		for (int a = 0; a < k; a++) {
+			int ds = table.get(rowS + a);
+			int dt = table.get(rowT + a);
+			if ((ds == IndexedAFD.NONE ? IndexedAFD.NONE : block.get(ds)) != (dt == IndexedAFD.NONE ? IndexedAFD.NONE : block.get(dt))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Grava o AFD quociente. As classes são numeradas na ordem em que aparecem
+	 * e as transições são copiadas do primeiro estado de cada classe. Se o
+	 * AFD original era completo, as transições inexistentes levam a um estado
+	 * de descarte, o último, ou ao estado inicial, se a linguagem for vazia.
+	 *
+	 * @param output
+	 *            O arquivo de saída.
+	 * @param symbols
+	 *            Os símbolos.
+	 * @param count
+	 *            O número de classes.
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	private void write(File output, String[] symbols, int count) throws IOException {
+		try (MappedIntArray renumber = MappedIntArray.temporary(directory, count); MappedIntArray representative = MappedIntArray.temporary(directory, count)) {
+			renumber.fill(IndexedAFD.NONE);
+			int classes = 0;
+			for (int s = 0; s < size; s++) {
+				int b = block.get(s);
+				if (renumber.get(b) == IndexedAFD.NONE) {
+					renumber.set(b, classes);
+					representative.set(classes++, s);
+				}
+			}
+			int start = renumber.get(block.get(initial));
+			int sinkClass = !sink ? IndexedAFD.NONE : empty ? start : count;
+			int total = sinkClass == count ? count + 1 : count;
+			try (AFDTableFile result = AFDTableFile.create(output, total, symbols, start)) {
+				for (int c = 0; c < count; c++) {
+					int s = representative.get(c);
+					long from = (long) s * k;
+					long to = (long) c * k;
+					for (int a = 0; a < k; a++) {
+						int d = table.get(from + a);
+						if (d != IndexedAFD.NONE) {
+							result.table.set(to + a, renumber.get(block.get(d)));
+						} else if (sinkClass != IndexedAFD.NONE) {
+							result.table.set(to + a, sinkClass);
+						}
+					}
+					if (finals.getBit(s)) {
+						result.finals.setBit(c);
+					}
+				}
+				for (int a = 0; total > count && a < k; a++) {
+					result.table.set((long) count * k + a, count);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Apaga os vetores temporários.
+	 */
+	private void close() {
+		for (MappedArray array : new MappedArray[] { table, finals, block, next, hashes }) {
+			if (array != null) {
+				array.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,367 @@
+package com.lfa.minimize;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.lfa.exception.ValidationException;
+import com.lfa.exception.ValidationException.ErrorType;
+
+/**
+ * Classe ParallelMinimizer. Refinamento de partição em rodadas, no qual todo o
+ * trabalho de cada rodada é dividido entre as threads de um
+ * {@link ForkJoinPool} com paralelismo configurável.
+ *
+ * Em cada rodada, os estados de cada bloco são ordenados pela assinatura
+ * formada pelos blocos de destino de suas transições, e estados vizinhos com
+ * assinaturas diferentes passam a pertencer a blocos diferentes. Os blocos não
+ * dependem uns dos outros dentro de uma rodada, e blocos grandes são
+ * ordenados em paralelo. O resultado é a mesma partição calculada por
+ * {@link HopcroftMinimizer}.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+final class ParallelMinimizer {
+
+	/** Tamanho mínimo de uma faixa de trabalho para dividi-la entre threads. */
+	private static final int GRAIN = 4096;
+
+	/** Tamanho abaixo do qual se ordena por inserção. */
+	private static final int INSERTION_SORT_SIZE = 32;
+
+	/**
+	 * Interface RangeBody. Trabalho a ser executado sobre uma faixa de índices.
+	 */
+	private interface RangeBody {
+
+		/**
+		 * Executa o trabalho sobre a faixa [from, to).
+		 *
+		 * @param from
+		 *            O início da faixa.
+		 * @param to
+		 *            O fim da faixa, exclusivo.
+		 */
+		void run(int from, int to);
+	}
+
+	/**
+	 * Classe RangeTask. Divide uma faixa de índices ao meio até que fique
+	 * menor que a granularidade e então executa o trabalho sobre ela.
+	 */
+	private static final class RangeTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 2309480632137548917L;
+
+		private final RangeBody body;
+		private final int from;
+		private final int to;
+		private final int grain;
+
+		private RangeTask(RangeBody body, int from, int to, int grain) {
+			this.body = body;
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= grain) {
+				body.run(from, to);
+			} else {
+				int mid = (from + to) >>> 1;
+				invokeAll(new RangeTask(body, from, mid, grain), new RangeTask(body, mid, to, grain));
+			}
+		}
+	}
+
+	/**
+	 * Classe SortTask. Ordenação por intercalação de uma faixa do vetor de
+	 * ordem, feita em paralelo para faixas grandes.
+	 */
+	private final class SortTask extends RecursiveAction {
+
+		private static final long serialVersionUID = -6016446421768429152L;
+
+		private final int from;
+		private final int to;
+
+		private SortTask(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			sort(from, to);
+		}
+
+		/**
+		 * Ordena a faixa [from, to) do vetor de ordem.
+		 *
+		 * @param from
+		 *            O início da faixa.
+		 * @param to
+		 *            O fim da faixa, exclusivo.
+		 */
+		private void sort(int from, int to) {
+			if (to - from <= INSERTION_SORT_SIZE) {
+				for (int i = from + 1; i < to; i++) {
+					int state = order[i];
+					int j = i - 1;
+					while (j >= from && compare(order[j], state) > 0) {
+						order[j + 1] = order[j];
+						j--;
+					}
+					order[j + 1] = state;
+				}
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			if (to - from > GRAIN) {
+				invokeAll(new SortTask(from, mid), new SortTask(mid, to));
+			} else {
+				sort(from, mid);
+				sort(mid, to);
+			}
+			if (compare(order[mid - 1], order[mid]) <= 0) {
+				return;
+			}
+			int i = from;
+			int j = mid;
+			int out = from;
+			while (i < mid && j < to) {
+				buffer[out++] = compare(order[i], order[j]) <= 0 ? order[i++] : order[j++];
+			}
+			while (i < mid) {
+				buffer[out++] = order[i++];
+			}
+			while (j < to) {
+				buffer[out++] = order[j++];
+			}
+			System.arraycopy(buffer, from, order, from, to - from);
+		}
+	}
+
+	private final ForkJoinPool pool;
+	private final int k;
+	private final int total;
+	private final int[] next;
+
+	// Os blocos ocupam faixas contíguas do vetor de ordem.
+	private int[] blockOf;
+	private int[] nextBlockOf;
+	private int[] blockStart;
+	private int[] nextBlockStart;
+	private int blockCount;
+
+	private final int[] order;
+	private final int[] buffer;
+	private final long[] hashes;
+
+	/**
+	 * Instancia um novo ParallelMinimizer, com a partição inicial de finais e
+	 * não finais.
+	 *
+	 * @param afd
+	 *            O AFD indexado.
+	 * @param pool
+	 *            O pool de threads.
+	 */
+	private ParallelMinimizer(IndexedAFD afd, ForkJoinPool pool) {
+		this.pool = pool;
+		int n = afd.size;
+		this.k = afd.alphabetSize();
+		boolean partial = !afd.isComplete();
+		int sink = partial ? n : IndexedAFD.NONE;
+		this.total = partial ? n + 1 : n;
+
+		// Transições inexistentes levam a um estado de descarte implícito.
+		this.next = new int[total * k];
+		for (int i = 0; i < n * k; i++) {
+			next[i] = afd.table[i] == IndexedAFD.NONE ? sink : afd.table[i];
+		}
+		for (int i = n * k; i < total * k; i++) {
+			next[i] = sink;
+		}
+
+		this.blockOf = new int[total];
+		this.nextBlockOf = new int[total];
+		this.blockStart = new int[total + 1];
+		this.nextBlockStart = new int[total + 1];
+		this.order = new int[total];
+		this.buffer = new int[total];
+		this.hashes = new long[total];
+
+		int[] initial = afd.initialBlocks(total);
+		for (int s = 0; s < total; s++) {
+			blockCount = Math.max(blockCount, initial[s] + 1);
+			blockStart[initial[s] + 1]++;
+		}
+		for (int b = 0; b < blockCount; b++) {
+			blockStart[b + 1] += blockStart[b];
+		}
+		int[] cursor = new int[blockCount];
+		System.arraycopy(blockStart, 0, cursor, 0, blockCount);
+		for (int s = 0; s < total; s++) {
+			order[cursor[initial[s]]++] = s;
+			blockOf[s] = initial[s];
+		}
+	}
+
+	/**
+	 * Calcula a partição dos estados de um AFD em classes de equivalência,
+	 * utilizando o número de threads informado.
+	 *
+	 * @param afd
+	 *            O AFD indexado.
+	 * @param parallelism
+	 *            O número de threads.
+	 * @return A classe de cada estado, numeradas a partir de 0 na ordem dos
+	 *         estados.
+	 */
+	static int[] refine(IndexedAFD afd, int parallelism) {
+		if (parallelism < 1) {
+			throw new ValidationException(ErrorType.MINIMIZE, "O nível de paralelismo deve ser positivo: " + parallelism + ".");
+		}
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			ParallelMinimizer minimizer = new ParallelMinimizer(afd, pool);
+			while (minimizer.round()) {
+				continue;
+			}
+			int[] classes = new int[afd.size];
+			System.arraycopy(minimizer.blockOf, 0, classes, 0, afd.size);
+			IndexedAFD.canonicalize(classes, minimizer.blockCount);
+			return classes;
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Executa uma rodada de refinamento.
+	 *
+	 * @return true, se algum bloco foi dividido.
+	 */
+	private boolean round() {
+
+		// Assinatura de cada estado.
+		parallel(total, GRAIN, (from, to) -> {
+			for (int s = from; s < to; s++) {
+				long hash = 0;
+				for (int a = 0; a < k; a++) {
+					hash = (hash ^ blockOf[next[s * k + a]]) * 0x9E3779B97F4A7C15L;
+				}
+				hashes[s] = hash;
+			}
+		});
+
+		// Ordenação dos estados de cada bloco pela assinatura.
+		parallel(blockCount, Math.max(1, blockCount / (pool.getParallelism() * 16)), (from, to) -> {
+			for (int b = from; b < to; b++) {
+				new SortTask(blockStart[b], blockStart[b + 1]).invoke();
+			}
+		});
+
+		// Cada posição que inicia um bloco ou muda de assinatura inicia um
+		// novo bloco. Os blocos são contados por fatia e numerados em ordem.
+		int chunks = Math.max(1, Math.min(pool.getParallelism() * 4, total / GRAIN));
+		int[] chunkCount = new int[chunks + 1];
+		parallel(chunks, 1, (from, to) -> {
+			for (int c = from; c < to; c++) {
+				int count = 0;
+				for (int i = chunkStart(c, chunks); i < chunkStart(c + 1, chunks); i++) {
+					if (startsBlock(i)) {
+						count++;
+					}
+				}
+				chunkCount[c + 1] = count;
+			}
+		});
+		for (int c = 0; c < chunks; c++) {
+			chunkCount[c + 1] += chunkCount[c];
+		}
+		int newBlockCount = chunkCount[chunks];
+		if (newBlockCount == blockCount) {
+			return false;
+		}
+		parallel(chunks, 1, (from, to) -> {
+			for (int c = from; c < to; c++) {
+				int block = chunkCount[c] - 1;
+				for (int i = chunkStart(c, chunks); i < chunkStart(c + 1, chunks); i++) {
+					if (startsBlock(i)) {
+						nextBlockStart[++block] = i;
+					}
+					nextBlockOf[order[i]] = block;
+				}
+			}
+		});
+		nextBlockStart[newBlockCount] = total;
+
+		int[] swap = blockOf;
+		blockOf = nextBlockOf;
+		nextBlockOf = swap;
+		swap = blockStart;
+		blockStart = nextBlockStart;
+		nextBlockStart = swap;
+		blockCount = newBlockCount;
+		return true;
+	}
+
+	/**
+	 * Verifica se a posição do vetor de ordem inicia um bloco na próxima
+	 * partição.
+	 *
+	 * @param i
+	 *            A posição.
+	 * @return true, se iniciar um novo bloco.
+	 */
+	private boolean startsBlock(int i) {
+		return i == 0 || blockOf[order[i - 1]] != blockOf[order[i]] || compare(order[i - 1], order[i]) != 0;
+	}
+
+	/**
+	 * Compara as assinaturas de dois estados do mesmo bloco.
+	 *
+	 * @param x
+	 *            Um estado.
+	 * @param y
+	 *            O outro estado.
+	 * @return Negativo, zero ou positivo, como em {@link Comparable}.
+	 */
+	private int compare(int x, int y) {
+		int c = Long.compare(hashes[x], hashes[y]);
+		for (int a = 0; c == 0 && a < k; a++) {
+			c = Integer.compare(blockOf[next[x * k + a]], blockOf[next[y * k + a]]);
+		}
+		return c;
+	}
+
+	/**
+	 * Retorna o início de uma fatia do vetor de ordem.
+	 *
+	 * @param chunk
+	 *            A fatia.
+	 * @param chunks
+	 *            O número de fatias.
+	 * @return A posição inicial.
+	 */
+	private int chunkStart(int chunk, int chunks) {
+		return (int) ((long) total * chunk / chunks);
+	}
+
+	/**
+	 * Executa um trabalho sobre a faixa [0, size) no pool de threads.
+	 *
+	 * @param size
+	 *            O tamanho da faixa.
+	 * @param grain
+	 *            A granularidade da divisão.
+	 * @param body
+	 *            O trabalho.
+	 */
+	private void parallel(int size, int grain, RangeBody body) {
+		pool.invoke(new RangeTask(body, 0, size, grain));
+	}
+}
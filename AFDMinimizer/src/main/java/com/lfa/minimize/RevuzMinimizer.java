@@ -0,0 +1,201 @@
+package com.lfa.minimize;
+
+import java.util.Arrays;
+
+/**
+ * Classe RevuzMinimizer. Implementação do algoritmo de Revuz, que minimiza AFDs
+ * acíclicos, como os de dicionários e outras linguagens finitas, em tempo
+ * O(n·k). A altura de um estado é o tamanho da maior palavra aceita a partir
+ * dele, e estados equivalentes têm a mesma altura. Os estados são
+ * processados por altura crescente, de modo que os destinos de um estado já
+ * têm classe definitiva quando ele é processado, e dois estados da mesma
+ * altura são equivalentes se e somente se tiverem o mesmo rótulo e as mesmas
+ * classes de destino, o que é verificado por uma tabela hash de assinaturas,
+ * refeita a cada altura.
+ *
+ * As alturas são calculadas por uma busca em profundidade, sem recursão, que
+ * também detecta ciclos, de modo que AFDs cíclicos são rejeitados sem custo
+ * adicional.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+final class RevuzMinimizer {
+
+	private RevuzMinimizer() {
+	}
+
+	/**
+	 * Calcula a partição dos estados em classes de equivalência, se o AFD for
+	 * acíclico.
+	 *
+	 * @param afd
+	 *            O AFD indexado, sem estados mortos, possivelmente parcial.
+	 * @return A classe de cada estado, numeradas na ordem em que aparecem, ou
+	 *         null, se o AFD possuir ciclos.
+	 */
+	static int[] refine(IndexedAFD afd) {
+		int[] height = heights(afd);
+		if (height == null) {
+			return null;
+		}
+		int n = afd.size;
+		int k = afd.alphabetSize();
+
+		// Ordena os estados por altura.
+		int maxHeight = 0;
+		for (int h : height) {
+			maxHeight = Math.max(maxHeight, h);
+		}
+		int[] bucketStart = new int[maxHeight + 2];
+		for (int h : height) {
+			bucketStart[h + 1]++;
+		}
+		for (int h = 0; h <= maxHeight; h++) {
+			bucketStart[h + 1] += bucketStart[h];
+		}
+		int[] order = new int[n];
+		int[] cursor = Arrays.copyOf(bucketStart, maxHeight + 1);
+		for (int s = 0; s < n; s++) {
+			order[cursor[height[s]]++] = s;
+		}
+
+		int[] classes = new int[n];
+		int capacity = Integer.highestOneBit(Math.max(n, 1)) << 2;
+		int mask = capacity - 1;
+		int[] slotBucket = new int[capacity];
+		int[] slotState = new int[capacity];
+		Arrays.fill(slotBucket, IndexedAFD.NONE);
+		int count = 0;
+		for (int h = 0; h <= maxHeight; h++) {
+			for (int i = bucketStart[h]; i < bucketStart[h + 1]; i++) {
+				int s = order[i];
+				long hash = afd.label(s) * 0x9E3779B97F4A7C15L;
+				for (int a = 0; a < k; a++) {
+					int d = afd.table[s * k + a];
+					hash = (hash ^ (d == IndexedAFD.NONE ? IndexedAFD.NONE : classes[d])) * 0xC2B2AE3D27D4EB4FL;
+					hash ^= hash >>> 29;
+				}
+				int slot = (int) (hash ^ (hash >>> 32)) & mask;
+				while (true) {
+					if (slotBucket[slot] != h) {
+						slotBucket[slot] = h;
+						slotState[slot] = s;
+						classes[s] = count++;
+						break;
+					}
+					int t = slotState[slot];
+					if (sameSignature(afd, classes, s, t)) {
+						classes[s] = classes[t];
+						break;
+					}
+					slot = (slot + 1) & mask;
+				}
+			}
+		}
+		IndexedAFD.canonicalize(classes, count);
+		return classes;
+	}
+
+	/**
+	 * Calcula a altura de um AFD, o tamanho da maior palavra aceita a partir
+	 * de algum estado, se ele for acíclico.
+	 *
+	 * @param afd
+	 *            O AFD indexado, sem estados mortos.
+	 * @return A altura, ou {@link IndexedAFD#NONE}, se o AFD possuir ciclos.
+	 */
+	static int height(IndexedAFD afd) {
+		int[] height = heights(afd);
+		if (height == null) {
+			return IndexedAFD.NONE;
+		}
+		int max = 0;
+		for (int h : height) {
+			max = Math.max(max, h);
+		}
+		return max;
+	}
+
+	/**
+	 * Calcula a altura de cada estado.
+	 *
+	 * @param afd
+	 *            O AFD indexado.
+	 * @return A altura de cada estado, ou null, se o AFD possuir ciclos.
+	 */
+	private static int[] heights(IndexedAFD afd) {
+		int n = afd.size;
+		int k = afd.alphabetSize();
+		int[] height = new int[n];
+		Arrays.fill(height, IndexedAFD.NONE);
+		boolean[] open = new boolean[n];
+		int[] callState = new int[n];
+		int[] callSymbol = new int[n];
+		for (int root = 0; root < n; root++) {
+			if (height[root] != IndexedAFD.NONE) {
+				continue;
+			}
+			open[root] = true;
+			callState[0] = root;
+			callSymbol[0] = 0;
+			int depth = 1;
+			while (depth > 0) {
+				int s = callState[depth - 1];
+				int a = callSymbol[depth - 1];
+				if (a < k) {
+					callSymbol[depth - 1]++;
+					int d = afd.table[s * k + a];
+					if (d == IndexedAFD.NONE || height[d] != IndexedAFD.NONE) {
+						continue;
+					}
+					if (open[d]) {
+						return null;
+					}
+					open[d] = true;
+					callState[depth] = d;
+					callSymbol[depth++] = 0;
+					continue;
+				}
+				depth--;
+				open[s] = false;
+				int h = 0;
+				for (int b = 0; b < k; b++) {
+					int d = afd.table[s * k + b];
+					if (d != IndexedAFD.NONE) {
+						h = Math.max(h, height[d] + 1);
+					}
+				}
+				height[s] = h;
+			}
+		}
+		return height;
+	}
+
+	/**
+	 * Compara as assinaturas de dois estados da mesma altura.
+	 *
+	 * @param afd
+	 *            O AFD indexado.
+	 * @param classes
+	 *            As classes já definidas.
+	 * @param s
+	 *            Um estado.
+	 * @param t
+	 *            Outro estado.
+	 * @return true, se tiverem o mesmo rótulo e as mesmas classes de destino.
+	 */
+	private static boolean sameSignature(IndexedAFD afd, int[] classes, int s, int t) {
+		if (afd.label(s) != afd.label(t)) {
+			return false;
+		}
+		int k = afd.alphabetSize();
+		for (int a = 0; a < k; a++) {
+			int ds = afd.table[s * k + a];
+			int dt = afd.table[t * k + a];
+			if ((ds == IndexedAFD.NONE ? IndexedAFD.NONE : classes[ds]) != (dt == IndexedAFD.NONE ? IndexedAFD.NONE : classes[dt])) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
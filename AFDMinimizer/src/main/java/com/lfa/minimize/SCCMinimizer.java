@@ -0,0 +1,638 @@
+package com.lfa.minimize;
+
+import java.util.Arrays;
+
+/**
+ * Classe SCCMinimizer. Minimização guiada pelas componentes fortemente conexas
+ * do AFD, encontradas pelo algoritmo de Tarjan. O algoritmo de Tarjan conclui
+ * cada componente depois de todas as componentes alcançáveis a partir dela,
+ * então cada componente é minimizada assim que é concluída, quando os
+ * estados de todas as componentes sucessoras já têm classe definitiva. Uma
+ * classe definitiva nunca é revisitada, e as classes definitivas são sempre
+ * distintas entre si.
+ *
+ * Uma componente trivial (um estado sem laço) é equivalente a uma classe
+ * existente se e somente se tiverem o mesmo rótulo e as mesmas classes de
+ * destino, o que é verificado por uma tabela hash de assinaturas. Uma
+ * componente cíclica é refinada localmente em rodadas, como em
+ * {@link SignatureMinimizer}, com as classes de destino fora da componente
+ * fixas. Como cada bloco da componente alcança todos os outros, ou todos
+ * os blocos são equivalentes a classes existentes, ou nenhum é. Os
+ * candidatos para o primeiro bloco são encontrados por um hash invariante,
+ * igual para estados equivalentes, que combina {@link #ROUNDS} rodadas de
+ * assinaturas com o tamanho da menor palavra aceita a partir do estado, e são
+ * confirmados por uma busca simultânea a partir do par, como no algoritmo de
+ * Hopcroft e Karp. Como as classes existentes são distintas entre si, a
+ * busca só precisa construir um mapeamento dos blocos para as classes.
+ *
+ * Em AFDs majoritariamente acíclicos, formados por muitas componentes
+ * pequenas, o custo é próximo de O(n·k). Componentes cíclicas grandes são
+ * refinadas em rodadas, com custo de até O(c²·k) para uma componente de c
+ * estados.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+final class SCCMinimizer {
+
+	/**
+	 * O número de rodadas do hash invariante, que distingue estados cujas
+	 * diferenças aparecem em palavras de até ROUNDS - 1 símbolos.
+	 */
+	private static final int ROUNDS = 8;
+
+	private final IndexedAFD afd;
+	private final int n;
+	private final int k;
+
+	/** A componente de cada estado, ou NONE enquanto não for concluída. */
+	private final int[] component;
+	private int componentCount;
+
+	/** A classe definitiva de cada estado. */
+	private final int[] classOf;
+	private int classCount;
+
+	/** O rótulo de cada classe. */
+	private final int[] classLabel;
+
+	/** As classes de destino de cada classe, com k posições por classe. */
+	private final int[] classRow;
+
+	/** O hash invariante de cada classe, com ROUNDS posições por classe. */
+	private final long[] classInvariant;
+
+	/** O tamanho da menor palavra aceita a partir de cada classe. */
+	private final int[] classDistance;
+
+	/** Tabela hash das assinaturas (rótulo e classes de destino). */
+	private final int[] signatureHead;
+	private final int[] signatureNext;
+	private final long[] signatureHash;
+
+	/**
+	 * Tabela hash dos invariantes das classes criadas por componentes
+	 * cíclicas. Uma classe criada por um estado sem laço não alcança a si
+	 * mesma e, portanto, nunca é equivalente a um bloco de uma componente
+	 * cíclica.
+	 */
+	private final int[] invariantHead;
+	private final int[] invariantNext;
+
+	private final int mask;
+
+	/** O bloco local de cada estado da componente em refinamento. */
+	private final int[] block;
+	private final int[] nextBlock;
+
+	/** Tabela hash local, marcada por rodada para não precisar ser limpa. */
+	private final long[] slotStamp;
+	private final int[] slotState;
+	private long stamp;
+
+	/**
+	 * Instancia um novo SCCMinimizer.
+	 *
+	 * @param afd
+	 *            O AFD indexado.
+	 */
+	private SCCMinimizer(IndexedAFD afd) {
+		this.afd = afd;
+		this.n = afd.size;
+		this.k = afd.alphabetSize();
+		this.component = new int[n];
+		this.classOf = new int[n];
+		this.classLabel = new int[n];
+		this.classRow = new int[n * k];
+		this.classInvariant = new long[n * ROUNDS];
+		this.classDistance = new int[n];
+		int capacity = Integer.highestOneBit(Math.max(n, 1)) << 2;
+		this.mask = capacity - 1;
+		this.signatureHead = new int[capacity];
+		this.signatureNext = new int[n];
+		this.signatureHash = new long[n];
+		this.invariantHead = new int[capacity];
+		this.invariantNext = new int[n];
+		this.block = new int[n];
+		this.nextBlock = new int[n];
+		this.slotStamp = new long[capacity];
+		this.slotState = new int[capacity];
+		Arrays.fill(component, IndexedAFD.NONE);
+		Arrays.fill(signatureHead, IndexedAFD.NONE);
+		Arrays.fill(invariantHead, IndexedAFD.NONE);
+	}
+
+	/**
+	 * Calcula a partição dos estados em classes de equivalência.
+	 *
+	 * @param afd
+	 *            O AFD indexado, sem estados mortos, possivelmente parcial.
+	 *            Transições inexistentes são tratadas como transições para um
+	 *            estado de descarte.
+	 * @return A classe de cada estado, numeradas na ordem em que aparecem.
+	 */
+	static int[] refine(IndexedAFD afd) {
+		SCCMinimizer minimizer = new SCCMinimizer(afd);
+		minimizer.run();
+		IndexedAFD.canonicalize(minimizer.classOf, minimizer.classCount);
+		return minimizer.classOf;
+	}
+
+	/**
+	 * Executa o algoritmo de Tarjan, sem recursão, minimizando cada componente
+	 * assim que ela é concluída.
+	 */
+	private void run() {
+		int[] index = new int[n];
+		int[] low = new int[n];
+		int[] stack = new int[n];
+		int[] callState = new int[n];
+		int[] callSymbol = new int[n];
+		Arrays.fill(index, IndexedAFD.NONE);
+		int visited = 0;
+		int top = 0;
+		for (int root = 0; root < n; root++) {
+			if (index[root] != IndexedAFD.NONE) {
+				continue;
+			}
+			index[root] = low[root] = visited++;
+			stack[top++] = root;
+			callState[0] = root;
+			callSymbol[0] = 0;
+			int depth = 1;
+			while (depth > 0) {
+				int s = callState[depth - 1];
+				int a = callSymbol[depth - 1];
+				if (a < k) {
+					callSymbol[depth - 1]++;
+					int d = afd.table[s * k + a];
+					if (d == IndexedAFD.NONE) {
+						continue;
+					}
+					if (index[d] == IndexedAFD.NONE) {
+						index[d] = low[d] = visited++;
+						stack[top++] = d;
+						callState[depth] = d;
+						callSymbol[depth++] = 0;
+					} else if (component[d] == IndexedAFD.NONE) {
+						low[s] = Math.min(low[s], index[d]);
+					}
+					continue;
+				}
+				depth--;
+				if (low[s] == index[s]) {
+					int start = top;
+					do {
+						component[stack[--start]] = componentCount;
+					} while (stack[start] != s);
+					minimize(stack, start, top);
+					componentCount++;
+					top = start;
+				}
+				if (depth > 0) {
+					int parent = callState[depth - 1];
+					low[parent] = Math.min(low[parent], low[s]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Define as classes dos estados de uma componente recém-concluída.
+	 *
+	 * @param members
+	 *            O vetor com os estados da componente.
+	 * @param from
+	 *            A posição do primeiro estado.
+	 * @param to
+	 *            A posição seguinte à do último estado.
+	 */
+	private void minimize(int[] members, int from, int to) {
+		if (to - from == 1 && !hasLoop(members[from])) {
+			minimizeTrivial(members[from]);
+		} else {
+			minimizeCyclic(members, from, to);
+		}
+	}
+
+	/**
+	 * Verifica se um estado possui uma transição para si mesmo.
+	 *
+	 * @param s
+	 *            O estado.
+	 * @return true, se houver um laço.
+	 */
+	private boolean hasLoop(int s) {
+		for (int a = 0; a < k; a++) {
+			if (afd.table[s * k + a] == s) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Define a classe de um estado sem laço, cujos destinos já têm classe.
+	 *
+	 * @param s
+	 *            O estado.
+	 */
+	private void minimizeTrivial(int s) {
+		int label = afd.label(s);
+		int row = s * k;
+		long hash = label * 0x9E3779B97F4A7C15L;
+		for (int a = 0; a < k; a++) {
+			int d = afd.table[row + a];
+			hash = mix(hash, d == IndexedAFD.NONE ? IndexedAFD.NONE : classOf[d]);
+		}
+		for (int c = signatureHead[bucket(hash)]; c != IndexedAFD.NONE; c = signatureNext[c]) {
+			if (signatureHash[c] == hash && classLabel[c] == label && sameRow(c, s)) {
+				classOf[s] = c;
+				return;
+			}
+		}
+
+		int c = newClass(label, hash);
+		classOf[s] = c;
+		for (int a = 0; a < k; a++) {
+			int d = afd.table[row + a];
+			classRow[c * k + a] = d == IndexedAFD.NONE ? IndexedAFD.NONE : classOf[d];
+		}
+		int distance = label != 0 ? 0 : Integer.MAX_VALUE;
+		for (int a = 0; a < k; a++) {
+			int d = classRow[c * k + a];
+			if (d != IndexedAFD.NONE && classDistance[d] != Integer.MAX_VALUE) {
+				distance = Math.min(distance, classDistance[d] + 1);
+			}
+		}
+		classDistance[c] = distance;
+		classInvariant[c * ROUNDS] = mix(0x632BE59BD9B4E019L, label);
+		for (int r = 1; r < ROUNDS; r++) {
+			long invariant = classInvariant[c * ROUNDS + r - 1];
+			for (int a = 0; a < k; a++) {
+				int d = classRow[c * k + a];
+				invariant = mix(invariant, d == IndexedAFD.NONE ? IndexedAFD.NONE : classInvariant[d * ROUNDS + r - 1]);
+			}
+			classInvariant[c * ROUNDS + r] = invariant;
+		}
+	}
+
+	/**
+	 * Compara as classes de destino de uma classe com as de um estado.
+	 *
+	 * @param c
+	 *            A classe.
+	 * @param s
+	 *            O estado, cujos destinos já têm classe.
+	 * @return true, se os destinos forem as mesmas classes.
+	 */
+	private boolean sameRow(int c, int s) {
+		for (int a = 0; a < k; a++) {
+			int d = afd.table[s * k + a];
+			if (classRow[c * k + a] != (d == IndexedAFD.NONE ? IndexedAFD.NONE : classOf[d])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Cria uma classe definitiva e a insere na tabela de assinaturas.
+	 *
+	 * @param label
+	 *            O rótulo da classe.
+	 * @param hash
+	 *            O hash da assinatura da classe.
+	 * @return A classe criada.
+	 */
+	private int newClass(int label, long hash) {
+		int c = classCount++;
+		classLabel[c] = label;
+		signatureHash[c] = hash;
+		int bucket = bucket(hash);
+		signatureNext[c] = signatureHead[bucket];
+		signatureHead[bucket] = c;
+		return c;
+	}
+
+	/**
+	 * Define as classes dos estados de uma componente cíclica.
+	 *
+	 * @param members
+	 *            O vetor com os estados da componente.
+	 * @param from
+	 *            A posição do primeiro estado.
+	 * @param to
+	 *            A posição seguinte à do último estado.
+	 */
+	private void minimizeCyclic(int[] members, int from, int to) {
+		int current = component[members[from]];
+		int count = IndexedAFD.NONE;
+		if (to - from == 1) {
+			block[members[from]] = 0;
+			count = 1;
+		} else {
+			for (int i = from; i < to; i++) {
+				block[members[i]] = afd.label(members[i]);
+			}
+			while (true) {
+				int newCount = round(members, from, to, current);
+				if (newCount == count) {
+					break;
+				}
+				count = newCount;
+			}
+		}
+
+		// Um representante de cada bloco, na ordem dos blocos.
+		int[] representative = new int[count];
+		Arrays.fill(representative, IndexedAFD.NONE);
+		for (int i = from; i < to; i++) {
+			int s = members[i];
+			if (representative[block[s]] == IndexedAFD.NONE) {
+				representative[block[s]] = s;
+			}
+		}
+		long[] invariant = invariants(representative, current);
+		int[] distance = distances(representative, current);
+		for (int b = 0; b < count; b++) {
+			invariant[b * ROUNDS + ROUNDS - 1] = mix(invariant[b * ROUNDS + ROUNDS - 1], distance[b]);
+		}
+
+		// Procura uma classe equivalente ao primeiro bloco.
+		long key = invariant[ROUNDS - 1];
+		int[] image = new int[count];
+		for (int c = invariantHead[bucket(key)]; c != IndexedAFD.NONE; c = invariantNext[c]) {
+			if (classInvariant[c * ROUNDS + ROUNDS - 1] == key && match(representative, current, c, image)) {
+				for (int i = from; i < to; i++) {
+					classOf[members[i]] = image[block[members[i]]];
+				}
+				return;
+			}
+		}
+
+		// Nenhuma classe equivalente: cada bloco vira uma nova classe.
+		int first = classCount;
+		for (int b = 0; b < count; b++) {
+			int s = representative[b];
+			long hash = afd.label(s) * 0x9E3779B97F4A7C15L;
+			for (int a = 0; a < k; a++) {
+				int d = afd.table[s * k + a];
+				int target = d == IndexedAFD.NONE ? IndexedAFD.NONE : component[d] == current ? first + block[d] : classOf[d];
+				classRow[(first + b) * k + a] = target;
+				hash = mix(hash, target);
+			}
+			int c = newClass(afd.label(s), hash);
+			classDistance[c] = distance[b];
+			System.arraycopy(invariant, b * ROUNDS, classInvariant, c * ROUNDS, ROUNDS);
+			int bucket = bucket(invariant[b * ROUNDS + ROUNDS - 1]);
+			invariantNext[c] = invariantHead[bucket];
+			invariantHead[bucket] = c;
+		}
+		for (int i = from; i < to; i++) {
+			classOf[members[i]] = first + block[members[i]];
+		}
+	}
+
+	/**
+	 * Executa uma rodada de refinamento local. Destinos fora da componente são
+	 * identificados por sua classe definitiva, e os da componente, por seu
+	 * bloco local.
+	 *
+	 * @param members
+	 *            O vetor com os estados da componente.
+	 * @param from
+	 *            A posição do primeiro estado.
+	 * @param to
+	 *            A posição seguinte à do último estado.
+	 * @param current
+	 *            A componente.
+	 * @return O número de blocos após a rodada.
+	 */
+	private int round(int[] members, int from, int to, int current) {
+		stamp++;
+		int count = 0;
+		for (int i = from; i < to; i++) {
+			int s = members[i];
+			long hash = block[s] * 0x9E3779B97F4A7C15L;
+			for (int a = 0; a < k; a++) {
+				hash = mix(hash, target(s, a, current));
+			}
+			int slot = bucket(hash);
+			while (true) {
+				if (slotStamp[slot] != stamp) {
+					slotStamp[slot] = stamp;
+					slotState[slot] = s;
+					nextBlock[s] = count++;
+					break;
+				}
+				int t = slotState[slot];
+				if (sameSignature(s, t, current)) {
+					nextBlock[s] = nextBlock[t];
+					break;
+				}
+				slot = (slot + 1) & mask;
+			}
+		}
+		for (int i = from; i < to; i++) {
+			block[members[i]] = nextBlock[members[i]];
+		}
+		return count;
+	}
+
+	/**
+	 * Retorna o identificador do destino de uma transição durante o
+	 * refinamento local: o bloco local, para destinos na componente, ou um
+	 * valor negativo derivado da classe definitiva, para os demais.
+	 *
+	 * @param s
+	 *            O estado.
+	 * @param a
+	 *            O símbolo.
+	 * @param current
+	 *            A componente.
+	 * @return O identificador do destino.
+	 */
+	private int target(int s, int a, int current) {
+		int d = afd.table[s * k + a];
+		if (d == IndexedAFD.NONE) {
+			return IndexedAFD.NONE;
+		}
+		return component[d] == current ? block[d] : -2 - classOf[d];
+	}
+
+	/**
+	 * Compara as assinaturas locais de dois estados da componente.
+	 *
+	 * @param s
+	 *            Um estado.
+	 * @param t
+	 *            Outro estado.
+	 * @param current
+	 *            A componente.
+	 * @return true, se tiverem o mesmo bloco e os mesmos destinos.
+	 */
+	private boolean sameSignature(int s, int t, int current) {
+		if (block[s] != block[t]) {
+			return false;
+		}
+		for (int a = 0; a < k; a++) {
+			if (target(s, a, current) != target(t, a, current)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Calcula o hash invariante dos blocos de uma componente cíclica, com a
+	 * mesma regra usada para as classes: na rodada 0, o rótulo e, em cada
+	 * rodada seguinte, o invariante anterior do próprio bloco e os de seus
+	 * destinos.
+	 *
+	 * @param representative
+	 *            Um estado de cada bloco.
+	 * @param current
+	 *            A componente.
+	 * @return Os invariantes, com ROUNDS posições por bloco.
+	 */
+	private long[] invariants(int[] representative, int current) {
+		int count = representative.length;
+		long[] invariant = new long[count * ROUNDS];
+		for (int b = 0; b < count; b++) {
+			invariant[b * ROUNDS] = mix(0x632BE59BD9B4E019L, afd.label(representative[b]));
+		}
+		for (int r = 1; r < ROUNDS; r++) {
+			for (int b = 0; b < count; b++) {
+				int s = representative[b];
+				long value = invariant[b * ROUNDS + r - 1];
+				for (int a = 0; a < k; a++) {
+					int d = afd.table[s * k + a];
+					long previous;
+					if (d == IndexedAFD.NONE) {
+						previous = IndexedAFD.NONE;
+					} else if (component[d] == current) {
+						previous = invariant[block[d] * ROUNDS + r - 1];
+					} else {
+						previous = classInvariant[classOf[d] * ROUNDS + r - 1];
+					}
+					value = mix(value, previous);
+				}
+				invariant[b * ROUNDS + r] = value;
+			}
+		}
+		return invariant;
+	}
+
+	/**
+	 * Calcula o tamanho da menor palavra aceita a partir de cada bloco de uma
+	 * componente cíclica, relaxando as distâncias em rodadas.
+	 *
+	 * @param representative
+	 *            Um estado de cada bloco.
+	 * @param current
+	 *            A componente.
+	 * @return A distância de cada bloco, ou Integer.MAX_VALUE.
+	 */
+	private int[] distances(int[] representative, int current) {
+		int count = representative.length;
+		int[] distance = new int[count];
+		for (int b = 0; b < count; b++) {
+			int s = representative[b];
+			distance[b] = afd.label(s) != 0 ? 0 : Integer.MAX_VALUE;
+			for (int a = 0; a < k; a++) {
+				int d = afd.table[s * k + a];
+				if (d != IndexedAFD.NONE && component[d] != current && classDistance[classOf[d]] != Integer.MAX_VALUE) {
+					distance[b] = Math.min(distance[b], classDistance[classOf[d]] + 1);
+				}
+			}
+		}
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (int b = 0; b < count; b++) {
+				int s = representative[b];
+				for (int a = 0; a < k; a++) {
+					int d = afd.table[s * k + a];
+					if (d != IndexedAFD.NONE && component[d] == current && distance[block[d]] != Integer.MAX_VALUE
+							&& distance[block[d]] + 1 < distance[b]) {
+						distance[b] = distance[block[d]] + 1;
+						changed = true;
+					}
+				}
+			}
+		}
+		return distance;
+	}
+
+	/**
+	 * Tenta mapear os blocos de uma componente cíclica em classes existentes,
+	 * a partir do par formado pelo bloco 0 e uma classe candidata.
+	 *
+	 * @param representative
+	 *            Um estado de cada bloco.
+	 * @param current
+	 *            A componente.
+	 * @param candidate
+	 *            A classe candidata.
+	 * @param image
+	 *            O vetor que recebe a classe equivalente a cada bloco.
+	 * @return true, se todos os blocos forem equivalentes a classes
+	 *         existentes.
+	 */
+	private boolean match(int[] representative, int current, int candidate, int[] image) {
+		Arrays.fill(image, IndexedAFD.NONE);
+		int[] queue = new int[image.length];
+		image[0] = candidate;
+		queue[0] = 0;
+		for (int head = 0, tail = 1; head < tail; head++) {
+			int b = queue[head];
+			int s = representative[b];
+			int c = image[b];
+			if (afd.label(s) != classLabel[c]) {
+				return false;
+			}
+			for (int a = 0; a < k; a++) {
+				int d = afd.table[s * k + a];
+				int expected = classRow[c * k + a];
+				if (d == IndexedAFD.NONE || component[d] != current) {
+					if ((d == IndexedAFD.NONE ? IndexedAFD.NONE : classOf[d]) != expected) {
+						return false;
+					}
+				} else if (expected == IndexedAFD.NONE) {
+					return false;
+				} else if (image[block[d]] == IndexedAFD.NONE) {
+					image[block[d]] = expected;
+					queue[tail++] = block[d];
+				} else if (image[block[d]] != expected) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Combina um valor a um hash.
+	 *
+	 * @param hash
+	 *            O hash.
+	 * @param value
+	 *            O valor.
+	 * @return O novo hash.
+	 */
+	private static long mix(long hash, long value) {
+		hash = (hash ^ value) * 0xC2B2AE3D27D4EB4FL;
+		return hash ^ (hash >>> 29);
+	}
+
+	/**
+	 * Retorna a posição de um hash nas tabelas.
+	 *
+	 * @param hash
+	 *            O hash.
+	 * @return A posição.
+	 */
+	private int bucket(long hash) {
+		return (int) (hash ^ (hash >>> 32)) & mask;
+	}
+}
@@ -0,0 +1,170 @@
+package com.lfa.minimize;
+
+import java.util.Arrays;
+
+/**
+ * Classe SignatureMinimizer. Refinamento de partição em rodadas, no qual cada
+ * estado recebe um identificador inteiro de bloco e uma assinatura formada pelo
+ * seu bloco e pelos blocos de destino de suas transições. Em cada rodada, os
+ * estados são distribuídos em uma tabela hash de endereçamento aberto
+ * indexada pela assinatura, e estados com a mesma assinatura passam a
+ * pertencer ao mesmo bloco.
+ *
+ * Ao contrário de {@link AFDMinimizer#minimizeByGroups(com.lfa.automata.afd.AFD)},
+ * nenhuma rodada cria objetos: a tabela guarda apenas o hash e o estado
+ * representante de cada assinatura, e colisões são resolvidas comparando as
+ * linhas da tabela de transições. Cada rodada custa O(n·k), e a partição
+ * final é a mesma calculada por {@link HopcroftMinimizer}.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+final class SignatureMinimizer {
+
+	/** Marca uma posição vazia da tabela hash. */
+	private static final int EMPTY = -1;
+
+	private final IndexedAFD afd;
+	private final int k;
+
+	/** O bloco de cada estado na rodada atual. */
+	private int[] block;
+
+	/** O bloco de cada estado na próxima rodada. */
+	private int[] next;
+
+	/** O hash armazenado em cada posição da tabela. */
+	private final long[] slotHash;
+
+	/** O estado representante armazenado em cada posição da tabela. */
+	private final int[] slotState;
+
+	private final int mask;
+
+	/**
+	 * Instancia um novo SignatureMinimizer.
+	 *
+	 * @param afd
+	 *            O AFD indexado.
+	 */
+	private SignatureMinimizer(IndexedAFD afd) {
+		this.afd = afd;
+		this.k = afd.alphabetSize();
+		this.block = new int[afd.size];
+		this.next = new int[afd.size];
+		int capacity = Integer.highestOneBit(Math.max(afd.size, 1)) << 2;
+		this.slotHash = new long[capacity];
+		this.slotState = new int[capacity];
+		this.mask = capacity - 1;
+	}
+
+	/**
+	 * Calcula a partição dos estados em classes de equivalência.
+	 *
+	 * @param afd
+	 *            O AFD indexado, possivelmente parcial. Transições
+	 *            inexistentes são tratadas como transições para um estado de
+	 *            descarte.
+	 * @return A classe de cada estado, numeradas na ordem em que aparecem.
+	 */
+	static int[] refine(IndexedAFD afd) {
+		return new SignatureMinimizer(afd).run();
+	}
+
+	/**
+	 * Executa as rodadas até que nenhum bloco seja dividido.
+	 *
+	 * @return A classe de cada estado.
+	 */
+	private int[] run() {
+		int count = 0;
+		block = afd.initialBlocks(afd.size);
+		for (int b : block) {
+			count = Math.max(count, b + 1);
+		}
+
+		while (true) {
+			int newCount = round();
+			if (newCount == count) {
+				return block;
+			}
+			count = newCount;
+		}
+	}
+
+	/**
+	 * Executa uma rodada de refinamento. Os novos blocos são numerados na ordem
+	 * em que aparecem, e os vetores de blocos são trocados ao final.
+	 *
+	 * @return O número de blocos após a rodada.
+	 */
+	private int round() {
+		Arrays.fill(slotState, EMPTY);
+		int count = 0;
+		for (int s = 0; s < afd.size; s++) {
+			long hash = hash(s);
+			int slot = (int) (hash ^ (hash >>> 32)) & mask;
+			while (true) {
+				int representative = slotState[slot];
+				if (representative == EMPTY) {
+					slotState[slot] = s;
+					slotHash[slot] = hash;
+					next[s] = count++;
+					break;
+				}
+				if (slotHash[slot] == hash && sameSignature(s, representative)) {
+					next[s] = next[representative];
+					break;
+				}
+				slot = (slot + 1) & mask;
+			}
+		}
+		int[] swap = block;
+		block = next;
+		next = swap;
+		return count;
+	}
+
+	/**
+	 * Calcula o hash da assinatura de um estado.
+	 *
+	 * @param s
+	 *            O estado.
+	 * @return O hash.
+	 */
+	private long hash(int s) {
+		long hash = block[s] * 0x9E3779B97F4A7C15L;
+		int row = s * k;
+		for (int a = 0; a < k; a++) {
+			int d = afd.table[row + a];
+			hash = (hash ^ (d == IndexedAFD.NONE ? IndexedAFD.NONE : block[d])) * 0xC2B2AE3D27D4EB4FL;
+			hash ^= hash >>> 29;
+		}
+		return hash;
+	}
+
+	/**
+	 * Compara as assinaturas de dois estados.
+	 *
+	 * @param s
+	 *            Um estado.
+	 * @param t
+	 *            Outro estado.
+	 * @return true, se os estados estiverem no mesmo bloco e suas transições
+	 *         levarem aos mesmos blocos.
+	 */
+	private boolean sameSignature(int s, int t) {
+		if (block[s] != block[t]) {
+			return false;
+		}
+		int rowS = s * k;
+		int rowT = t * k;
+		for (int a = 0; a < k; a++) {
+			int ds = afd.table[rowS + a];
+			int dt = afd.table[rowT + a];
+			if ((ds == IndexedAFD.NONE ? IndexedAFD.NONE : block[ds]) != (dt == IndexedAFD.NONE ? IndexedAFD.NONE : block[dt])) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,90 @@
+package com.lfa.minimize;
+
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import com.lfa.automata.afd.AFD;
+
+/**
+ * Classe StatePartition. A partição dos estados de um AFD em classes de
+ * equivalência, como calculada pela minimização, sem a construção do AFD
+ * mínimo. As classes são numeradas a partir de 0, na ordem em que aparecem em
+ * {@link AFD#getStates()}, e cada classe corresponde a um estado do AFD
+ * mínimo. Estados inalcançáveis não pertencem a nenhuma classe. Os estados
+ * mortos pertencem à classe do estado de descarte, a última, se o AFD for
+ * completo, como em {@link AFDMinimizer#minimize(AFD)}, e a nenhuma classe se
+ * for parcial.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+@Data
+@EqualsAndHashCode(callSuper = false, of = { "classes", "classCount" })
+@ToString(callSuper = false, of = { "classCount", "unreachableStates", "deadStates" })
+public final class StatePartition {
+
+	/** Indica um estado sem classe, por ter sido removido. */
+	public static final int NONE = IndexedAFD.NONE;
+
+	/**
+	 * A classe de cada estado, pela posição do estado em
+	 * {@link AFD#getStates()}, ou {@link #NONE}. O vetor não é copiado e não
+	 * deve ser alterado.
+	 */
+	private final int[] classes;
+	private final int classCount;
+	private final int unreachableStates;
+	private final int deadStates;
+
+	/** O AFD original indexado, usado para montar o AFD mínimo. */
+	@Getter(value = AccessLevel.NONE)
+	final IndexedAFD indexed;
+
+	/**
+	 * Instancia uma nova StatePartition.
+	 *
+	 * @param classes
+	 *            A classe de cada estado.
+	 * @param classCount
+	 *            O número de classes.
+	 * @param unreachableStates
+	 *            O número de estados inalcançáveis.
+	 * @param deadStates
+	 *            O número de estados mortos removidos, sem contar o que forma
+	 *            a classe do estado de descarte.
+	 * @param indexed
+	 *            O AFD original indexado.
+	 */
+	StatePartition(int[] classes, int classCount, int unreachableStates, int deadStates, IndexedAFD indexed) {
+		this.classes = classes;
+		this.classCount = classCount;
+		this.unreachableStates = unreachableStates;
+		this.deadStates = deadStates;
+		this.indexed = indexed;
+	}
+
+	/**
+	 * Retorna a classe de um estado.
+	 *
+	 * @param state
+	 *            A posição do estado em {@link AFD#getStates()}.
+	 * @return A classe do estado, ou {@link #NONE}.
+	 */
+	public int classOf(int state) {
+		return classes[state];
+	}
+
+	/**
+	 * Verifica se o AFD já era mínimo, ou seja, se nenhum estado foi removido
+	 * e cada estado está sozinho em sua classe. Um único estado morto em um
+	 * AFD completo forma a classe do estado de descarte e não impede que o
+	 * AFD seja mínimo.
+	 *
+	 * @return true, se o AFD for mínimo.
+	 */
+	public boolean isMinimal() {
+		return classCount == classes.length;
+	}
+}
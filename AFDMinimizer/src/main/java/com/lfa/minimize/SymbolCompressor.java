@@ -0,0 +1,111 @@
+package com.lfa.minimize;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import com.lfa.constants.Alphabet;
+
+/**
+ * Classe SymbolCompressor. Etapa anterior ao refinamento que agrupa os
+ * símbolos cujas colunas na tabela de transições são idênticas, isto é,
+ * símbolos pelos quais todo estado vai para o mesmo destino. Esses símbolos
+ * dividem os blocos sempre da mesma forma, então basta refinar com um
+ * representante de cada grupo.
+ *
+ * A partição calculada sobre o AFD comprimido é a mesma do AFD original, e o
+ * AFD mínimo é montado a partir da tabela original, com todos os símbolos.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+final class SymbolCompressor {
+
+	private SymbolCompressor() {
+	}
+
+	/**
+	 * Comprime o alfabeto de um AFD indexado.
+	 *
+	 * @param afd
+	 *            O AFD indexado.
+	 * @return Um AFD indexado com uma coluna para cada grupo de símbolos, ou o
+	 *         próprio AFD se não houver colunas repetidas.
+	 */
+	static IndexedAFD compress(IndexedAFD afd) {
+		int n = afd.size;
+		int k = afd.alphabetSize();
+		if (k < 2) {
+			return afd;
+		}
+
+		// Os hashes das colunas são calculados linha a linha, percorrendo a
+		// tabela na ordem da memória.
+		long[] hashes = new long[k];
+		for (int s = 0; s < n; s++) {
+			int row = s * k;
+			for (int a = 0; a < k; a++) {
+				hashes[a] = (hashes[a] + afd.table[row + a]) * 0x9E3779B97F4A7C15L;
+			}
+		}
+
+		// Tabela hash de endereçamento aberto com o representante de cada
+		// coluna distinta.
+		int capacity = Integer.highestOneBit(k) << 2;
+		int mask = capacity - 1;
+		int[] slotSymbol = new int[capacity];
+		Arrays.fill(slotSymbol, IndexedAFD.NONE);
+		int[] representatives = new int[k];
+		int count = 0;
+		for (int a = 0; a < k; a++) {
+			long hash = hashes[a];
+			int slot = (int) (hash ^ (hash >>> 32)) & mask;
+			while (true) {
+				int b = slotSymbol[slot];
+				if (b == IndexedAFD.NONE) {
+					slotSymbol[slot] = a;
+					representatives[count++] = a;
+					break;
+				}
+				if (hashes[b] == hash && sameColumn(afd, a, b)) {
+					break;
+				}
+				slot = (slot + 1) & mask;
+			}
+		}
+		if (count == k) {
+			return afd;
+		}
+
+		ArrayList<String> symbols = new ArrayList<>(count);
+		for (int c = 0; c < count; c++) {
+			symbols.add(afd.symbols[representatives[c]].getStr());
+		}
+		int[] table = new int[n * count];
+		for (int s = 0; s < n; s++) {
+			for (int c = 0; c < count; c++) {
+				table[s * count + c] = afd.table[s * k + representatives[c]];
+			}
+		}
+		return new IndexedAFD(n, new Alphabet(symbols), table, afd.finals, afd.initial, afd.labels, afd.labelCount);
+	}
+
+	/**
+	 * Compara duas colunas da tabela de transições.
+	 *
+	 * @param afd
+	 *            O AFD indexado.
+	 * @param a
+	 *            Um símbolo.
+	 * @param b
+	 *            Outro símbolo.
+	 * @return true, se todo estado tiver o mesmo destino pelos dois símbolos.
+	 */
+	private static boolean sameColumn(IndexedAFD afd, int a, int b) {
+		int k = afd.alphabetSize();
+		for (int row = 0; row < afd.table.length; row += k) {
+			if (afd.table[row + a] != afd.table[row + b]) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,102 @@
+package com.lfa.minimize;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import com.lfa.automata.afd.State;
+import com.lfa.constants.Alphabet.Symbol;
+
+/**
+ * Classe TransitionEdit. Representa uma alteração em uma transição de um AFD já
+ * minimizado, para uso na reminimização incremental.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+@Data
+@EqualsAndHashCode(callSuper = false, of = { "kind", "source", "consumed", "destination" })
+@ToString(callSuper = false, of = { "kind", "source", "consumed", "destination" })
+public final class TransitionEdit {
+
+	/**
+	 * Enum Kind. Os tipos de alteração possíveis.
+	 */
+	public static enum Kind {
+
+		/** Adiciona uma transição que não existia. */
+		ADD,
+
+		/** Remove uma transição existente. */
+		REMOVE,
+
+		/** Troca o destino de uma transição existente. */
+		REDIRECT
+	}
+
+	private final Kind kind;
+	private final State source;
+	private final Symbol consumed;
+	private final State destination;
+
+	/**
+	 * Instancia uma nova TransitionEdit.
+	 *
+	 * @param kind
+	 *            O tipo da alteração.
+	 * @param source
+	 *            O estado de origem.
+	 * @param consumed
+	 *            O símbolo consumido.
+	 * @param destination
+	 *            O estado de destino, ou null para remoções.
+	 */
+	private TransitionEdit(Kind kind, State source, Symbol consumed, State destination) {
+		this.kind = kind;
+		this.source = source;
+		this.consumed = consumed;
+		this.destination = destination;
+	}
+
+	/**
+	 * Cria a alteração que adiciona uma transição.
+	 *
+	 * @param source
+	 *            O estado de origem.
+	 * @param consumed
+	 *            O símbolo consumido.
+	 * @param destination
+	 *            O estado de destino.
+	 * @return A alteração.
+	 */
+	public static TransitionEdit add(State source, Symbol consumed, State destination) {
+		return new TransitionEdit(Kind.ADD, source, consumed, destination);
+	}
+
+	/**
+	 * Cria a alteração que remove uma transição.
+	 *
+	 * @param source
+	 *            O estado de origem.
+	 * @param consumed
+	 *            O símbolo consumido.
+	 * @return A alteração.
+	 */
+	public static TransitionEdit remove(State source, Symbol consumed) {
+		return new TransitionEdit(Kind.REMOVE, source, consumed, null);
+	}
+
+	/**
+	 * Cria a alteração que troca o destino de uma transição.
+	 *
+	 * @param source
+	 *            O estado de origem.
+	 * @param consumed
+	 *            O símbolo consumido.
+	 * @param destination
+	 *            O novo estado de destino.
+	 * @return A alteração.
+	 */
+	public static TransitionEdit redirect(State source, Symbol consumed, State destination) {
+		return new TransitionEdit(Kind.REDIRECT, source, consumed, destination);
+	}
+}
@@ -0,0 +1,48 @@
+package com.lfa.minimize;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import com.lfa.automata.afd.AFD;
+
+/**
+ * Classe TrimResult. Resultado da remoção dos estados inalcançáveis e mortos
+ * de um AFD, com a contagem do que foi removido.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+@Data
+@EqualsAndHashCode(callSuper = false, of = { "afd", "unreachableStates", "deadStates" })
+@ToString(callSuper = false, of = { "unreachableStates", "deadStates" })
+public final class TrimResult {
+
+	private final AFD afd;
+	private final int unreachableStates;
+	private final int deadStates;
+
+	/**
+	 * Instancia um novo TrimResult.
+	 *
+	 * @param afd
+	 *            O AFD sem os estados removidos.
+	 * @param unreachableStates
+	 *            O número de estados inalcançáveis removidos.
+	 * @param deadStates
+	 *            O número de estados mortos removidos.
+	 */
+	TrimResult(AFD afd, int unreachableStates, int deadStates) {
+		this.afd = afd;
+		this.unreachableStates = unreachableStates;
+		this.deadStates = deadStates;
+	}
+
+	/**
+	 * Retorna o número total de estados removidos.
+	 *
+	 * @return O número de estados removidos.
+	 */
+	public int getRemovedStates() {
+		return unreachableStates + deadStates;
+	}
+}
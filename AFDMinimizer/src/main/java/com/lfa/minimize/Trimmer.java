@@ -0,0 +1,270 @@
+package com.lfa.minimize;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import com.lfa.automata.afd.AFD;
+import com.lfa.automata.afd.CompactAFD;
+
+/**
+ * Classe Trimmer. Etapa anterior à minimização que remove, em tempo linear, os
+ * estados inalcançáveis a partir do estado inicial e os estados mortos, a
+ * partir dos quais não se alcança um estado final. Os estados alcançáveis são
+ * encontrados por uma busca em largura a partir do inicial e os vivos por uma
+ * busca em largura invertida a partir dos finais, ambas marcadas em
+ * {@link BitSet}s.
+ *
+ * As transições para estados removidos são descartadas, de modo que o AFD
+ * resultante pode ser parcial. Se o estado inicial for morto, ele é mantido
+ * sozinho, sem transições. Os motores de minimização trabalham sobre esse AFD
+ * parcial; se o AFD original era completo nos estados alcançáveis, o resultado
+ * é completado depois, por {@link #quotient(int[])} ou
+ * {@link #complete(IndexedAFD)}, com um único estado de descarte que
+ * representa todos os estados mortos.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+final class Trimmer {
+
+	/** O AFD sem os estados removidos. */
+	final IndexedAFD trimmed;
+
+	/** O novo índice de cada estado original, ou {@link IndexedAFD#NONE}. */
+	final int[] kept;
+
+	/** O número de estados inalcançáveis removidos. */
+	final int unreachable;
+
+	/** O número de estados mortos (e alcançáveis) removidos. */
+	final int dead;
+
+	/**
+	 * Indica se o AFD original é completo nos estados alcançáveis e tem
+	 * estados mortos alcançáveis, que são representados por um estado de
+	 * descarte no AFD minimizado.
+	 */
+	final boolean sink;
+
+	/**
+	 * O primeiro estado morto alcançável do AFD original, que dá nome ao
+	 * estado de descarte, ou {@link IndexedAFD#NONE}.
+	 */
+	final int firstDead;
+
+	/** Os estados mortos alcançáveis removidos. */
+	private final BitSet dropped;
+
+	/**
+	 * Remove os estados inalcançáveis e mortos de um AFD indexado.
+	 *
+	 * @param afd
+	 *            O AFD indexado.
+	 */
+	Trimmer(IndexedAFD afd) {
+		this(afd, new int[] { afd.initial });
+	}
+
+	/**
+	 * Remove os estados inalcançáveis e mortos de um AFD indexado com vários
+	 * pontos de entrada. Um estado é alcançável se for alcançável a partir de
+	 * algum deles, e todos os pontos de entrada são mantidos, como o inicial.
+	 *
+	 * @param afd
+	 *            O AFD indexado.
+	 * @param roots
+	 *            Os pontos de entrada, incluindo o estado inicial.
+	 */
+	Trimmer(IndexedAFD afd, int[] roots) {
+		int n = afd.size;
+		int k = afd.alphabetSize();
+		int[] queue = new int[n];
+
+		BitSet reachable = new BitSet(n);
+		boolean complete = true;
+		int reached = 0;
+		for (int root : roots) {
+			if (!reachable.get(root)) {
+				reachable.set(root);
+				queue[reached++] = root;
+			}
+		}
+		for (int head = 0, tail = reached; head < tail; head++) {
+			int row = queue[head] * k;
+			for (int a = 0; a < k; a++) {
+				int d = afd.table[row + a];
+				if (d == IndexedAFD.NONE) {
+					complete = false;
+				} else if (!reachable.get(d)) {
+					reachable.set(d);
+					queue[tail++] = d;
+				}
+			}
+		}
+
+		// Predecessores de cada estado, em formato compactado.
+		int[] predStart = new int[n + 1];
+		for (int d : afd.table) {
+			if (d != IndexedAFD.NONE) {
+				predStart[d + 1]++;
+			}
+		}
+		for (int s = 0; s < n; s++) {
+			predStart[s + 1] += predStart[s];
+		}
+		int[] preds = new int[predStart[n]];
+		int[] cursor = Arrays.copyOf(predStart, n);
+		for (int i = 0; i < afd.table.length; i++) {
+			if (afd.table[i] != IndexedAFD.NONE) {
+				preds[cursor[afd.table[i]]++] = i / k;
+			}
+		}
+
+		BitSet live = new BitSet(n);
+		int tail = 0;
+		for (int s = afd.finals.nextSetBit(0); s >= 0; s = afd.finals.nextSetBit(s + 1)) {
+			live.set(s);
+			queue[tail++] = s;
+		}
+		for (int head = 0; head < tail; head++) {
+			int s = queue[head];
+			for (int j = predStart[s]; j < predStart[s + 1]; j++) {
+				if (!live.get(preds[j])) {
+					live.set(preds[j]);
+					queue[tail++] = preds[j];
+				}
+			}
+		}
+
+		BitSet keep = (BitSet) reachable.clone();
+		keep.and(live);
+		for (int root : roots) {
+			keep.set(root);
+		}
+		this.unreachable = n - reachable.cardinality();
+		this.dead = reachable.cardinality() - keep.cardinality();
+		this.dropped = (BitSet) reachable.clone();
+		dropped.andNot(keep);
+		this.firstDead = dead > 0 ? dropped.nextSetBit(0) : IndexedAFD.NONE;
+		this.sink = complete && dead > 0;
+
+		this.kept = new int[n];
+		Arrays.fill(kept, IndexedAFD.NONE);
+		int size = 0;
+		for (int s = keep.nextSetBit(0); s >= 0; s = keep.nextSetBit(s + 1)) {
+			kept[s] = size++;
+		}
+		int[] table = new int[size * k];
+		BitSet finals = new BitSet(size);
+		int[] labels = afd.labels == null ? null : new int[size];
+		for (int s = keep.nextSetBit(0); s >= 0; s = keep.nextSetBit(s + 1)) {
+			int row = kept[s] * k;
+			for (int a = 0; a < k; a++) {
+				int d = afd.table[s * k + a];
+				table[row + a] = d == IndexedAFD.NONE ? IndexedAFD.NONE : kept[d];
+			}
+			finals.set(kept[s], afd.finals.get(s));
+			if (labels != null) {
+				labels[kept[s]] = afd.labels[s];
+			}
+		}
+		this.trimmed = new IndexedAFD(size, afd.alphabet, table, finals, kept[afd.initial], labels, afd.labelCount);
+	}
+
+	/**
+	 * Leva uma partição dos estados do AFD podado de volta aos estados do AFD
+	 * original. Os estados inalcançáveis ficam sem classe. Os estados mortos
+	 * alcançáveis ficam na classe do estado de descarte, a última, se o AFD
+	 * original era completo, como em {@link #quotient(int[])}, e sem classe se
+	 * não era.
+	 *
+	 * @param classes
+	 *            A classe de cada estado do AFD podado.
+	 * @return A classe de cada estado original, ou {@link IndexedAFD#NONE}.
+	 */
+	int[] expand(int[] classes) {
+		int sinkClass = IndexedAFD.NONE;
+		if (sink) {
+			int[] extended = withSink(classes);
+			sinkClass = extended.length > classes.length ? extended[classes.length] : classes[trimmed.initial];
+		}
+		int[] expanded = new int[kept.length];
+		for (int s = 0; s < kept.length; s++) {
+			if (kept[s] != IndexedAFD.NONE) {
+				expanded[s] = classes[kept[s]];
+			} else {
+				expanded[s] = dropped.get(s) ? sinkClass : IndexedAFD.NONE;
+			}
+		}
+		return expanded;
+	}
+
+	/**
+	 * Retorna o número de estados mortos alcançáveis que não sobram no AFD
+	 * minimizado: todos, exceto o que vira o estado de descarte de um AFD
+	 * completo.
+	 *
+	 * @return O número de estados mortos removidos.
+	 */
+	int removedDead() {
+		return sink && !trimmed.finals.isEmpty() ? dead - 1 : dead;
+	}
+
+	/**
+	 * Monta o AFD quociente do AFD podado, como em
+	 * {@link IndexedAFD#quotient(int[])}. Se o AFD original era completo, os
+	 * estados mortos voltam como um único estado de descarte, o último do AFD
+	 * quociente, e o resultado também é completo.
+	 *
+	 * @param classes
+	 *            A classe de cada estado do AFD podado.
+	 * @return O AFD quociente.
+	 */
+	AFD quotient(int[] classes) {
+		return sink ? trimmed.withSink().quotient(withSink(classes)) : trimmed.quotient(classes);
+	}
+
+	/**
+	 * Monta o AFD quociente do AFD podado na representação compacta, como em
+	 * {@link #quotient(int[])}.
+	 *
+	 * @param classes
+	 *            A classe de cada estado do AFD podado.
+	 * @return O AFD quociente compacto.
+	 */
+	CompactAFD compactQuotient(int[] classes) {
+		return sink ? trimmed.withSink().compactQuotient(withSink(classes)) : trimmed.compactQuotient(classes);
+	}
+
+	/**
+	 * Completa com um estado de descarte um AFD minimizado a partir do AFD
+	 * podado por outro caminho, se o AFD original era completo.
+	 *
+	 * @param minimized
+	 *            O AFD minimizado, sem estados mortos.
+	 * @return O AFD minimizado, completo se o original era.
+	 */
+	IndexedAFD complete(IndexedAFD minimized) {
+		return sink ? minimized.withSink() : minimized;
+	}
+
+	/**
+	 * Acrescenta às classes do AFD podado a classe do estado de descarte de
+	 * {@link IndexedAFD#withSink()}, quando ele é um estado novo.
+	 *
+	 * @param classes
+	 *            A classe de cada estado do AFD podado.
+	 * @return A classe de cada estado do AFD completado.
+	 */
+	private int[] withSink(int[] classes) {
+		if (trimmed.finals.isEmpty()) {
+			return classes;
+		}
+		int count = 0;
+		for (int c : classes) {
+			count = Math.max(count, c + 1);
+		}
+		int[] extended = Arrays.copyOf(classes, classes.length + 1);
+		extended[classes.length] = count;
+		return extended;
+	}
+}
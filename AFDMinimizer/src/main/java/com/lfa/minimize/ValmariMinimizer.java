@@ -0,0 +1,412 @@
+package com.lfa.minimize;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+
+import com.lfa.automata.afd.AFD;
+import com.lfa.automata.afd.State;
+import com.lfa.automata.afd.State.Transition;
+import com.lfa.collections.ImmutableLinkedSet;
+import com.lfa.constants.Alphabet.Symbol;
+
+/**
+ * Classe ValmariMinimizer. Implementação do algoritmo de Valmari e Lehtinen,
+ * que minimiza AFDs parciais em tempo O(m·log n), sendo m o número de
+ * transições existentes. Não é necessário completar o AFD com um estado de
+ * descarte: além dos blocos de estados, o algoritmo refina as "cordas", que
+ * são blocos de transições com o mesmo símbolo e destinos no mesmo bloco.
+ *
+ * Estados inalcançáveis a partir do inicial e estados a partir dos quais não
+ * se alcança um estado final são removidos, e o resultado continua parcial.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+final class ValmariMinimizer {
+
+	/**
+	 * Classe Partition. Partição refinável de um conjunto de inteiros, usada
+	 * tanto para os blocos de estados quanto para as cordas de transições.
+	 * Cada conjunto da partição ocupa uma faixa contígua do vetor de
+	 * elementos, com os elementos marcados no começo da faixa.
+	 */
+	private final class Partition {
+
+		private int count;
+		private final int[] elements;
+		private final int[] location;
+		private final int[] setOf;
+		private final int[] first;
+		private final int[] end;
+
+		/**
+		 * Instancia uma nova partição com todos os elementos em um só conjunto.
+		 *
+		 * @param size
+		 *            O número de elementos.
+		 */
+		private Partition(int size) {
+			this.count = size > 0 ? 1 : 0;
+			this.elements = new int[size];
+			this.location = new int[size];
+			this.setOf = new int[size];
+			this.first = new int[size];
+			this.end = new int[size];
+			for (int i = 0; i < size; i++) {
+				elements[i] = location[i] = i;
+			}
+			if (count > 0) {
+				end[0] = size;
+			}
+		}
+
+		/**
+		 * Marca um elemento, movendo-o para a parte marcada de seu conjunto.
+		 *
+		 * @param element
+		 *            O elemento.
+		 */
+		private void mark(int element) {
+			int set = setOf[element];
+			int i = location[element];
+			int j = first[set] + marks[set];
+			elements[i] = elements[j];
+			location[elements[i]] = i;
+			elements[j] = element;
+			location[element] = j;
+			if (marks[set]++ == 0) {
+				touched[touchedCount++] = set;
+			}
+		}
+
+		/**
+		 * Divide os conjuntos com elementos marcados. A menor das duas partes
+		 * se torna o novo conjunto.
+		 */
+		private void split() {
+			while (touchedCount > 0) {
+				int set = touched[--touchedCount];
+				int j = first[set] + marks[set];
+				if (j == end[set]) {
+					marks[set] = 0;
+					continue;
+				}
+				if (marks[set] <= end[set] - j) {
+					first[count] = first[set];
+					end[count] = first[set] = j;
+				} else {
+					end[count] = end[set];
+					first[count] = end[set] = j;
+				}
+				for (int i = first[count]; i < end[count]; i++) {
+					setOf[elements[i]] = count;
+				}
+				marks[set] = marks[count++] = 0;
+			}
+		}
+	}
+
+	private final int stateCount;
+	private int transitionCount;
+	private final int[] tails;
+	private final int[] labels;
+	private final int[] heads;
+
+	// Transições adjacentes a cada estado, em formato compactado.
+	private final int[] adjacent;
+	private final int[] adjacentStart;
+
+	// Marcas e conjuntos tocados, compartilhados pelas duas partições.
+	private final int[] marks;
+	private final int[] touched;
+	private int touchedCount;
+
+	private final Partition blocks;
+	private int reached;
+
+	/**
+	 * Instancia um novo ValmariMinimizer.
+	 *
+	 * @param stateCount
+	 *            O número de estados.
+	 * @param tails
+	 *            As origens das transições.
+	 * @param labels
+	 *            Os símbolos das transições.
+	 * @param heads
+	 *            Os destinos das transições.
+	 */
+	private ValmariMinimizer(int stateCount, int[] tails, int[] labels, int[] heads) {
+		this.stateCount = stateCount;
+		this.transitionCount = tails.length;
+		this.tails = tails;
+		this.labels = labels;
+		this.heads = heads;
+		this.adjacent = new int[tails.length];
+		this.adjacentStart = new int[stateCount + 1];
+		this.marks = new int[Math.max(stateCount, tails.length) + 1];
+		this.touched = new int[Math.max(stateCount, tails.length) + 1];
+		this.blocks = new Partition(stateCount);
+	}
+
+	/**
+	 * Minimiza um AFD, possivelmente parcial.
+	 *
+	 * @param original
+	 *            O AFD original.
+	 * @return O AFD mínimo, sem estados inalcançáveis ou inúteis.
+	 */
+	static AFD minimize(AFD original) {
+		ImmutableLinkedSet<State> states = original.getStates();
+		int n = states.size();
+		HashMap<State, Integer> stateIndex = new HashMap<>(n * 2);
+		HashMap<Symbol, Integer> symbolIndex = new HashMap<>();
+		int m = 0;
+		for (int i = 0; i < n; i++) {
+			stateIndex.put(states.get(i), i);
+			m += states.get(i).getTransitions().size();
+		}
+		int[] tails = new int[m];
+		int[] labels = new int[m];
+		int[] heads = new int[m];
+		Symbol[] symbols = new Symbol[m];
+		int t = 0;
+		for (int i = 0; i < n; i++) {
+			for (Transition transition : states.get(i).getTransitions()) {
+				Integer label = symbolIndex.get(transition.getConsumed());
+				if (label == null) {
+					label = symbolIndex.size();
+					symbolIndex.put(transition.getConsumed(), label);
+					symbols[label] = transition.getConsumed();
+				}
+				tails[t] = i;
+				labels[t] = label;
+				heads[t++] = stateIndex.get(transition.getDestination());
+			}
+		}
+
+		int initial = stateIndex.get(original.getInitialState());
+		int[] finals = new int[original.getFinalStates().size()];
+		int f = 0;
+		for (State state : original.getFinalStates()) {
+			finals[f++] = stateIndex.get(state);
+		}
+
+		ValmariMinimizer minimizer = new ValmariMinimizer(n, tails, labels, heads);
+		int[] classes = minimizer.run(initial, finals, symbolIndex.size());
+		if (classes == null) {
+			State empty = new State("G1");
+			return new AFD(original.getAlphabet(), empty, Collections.singletonList(empty), Collections.<State> emptyList());
+		}
+		return minimizer.build(classes, initial, Arrays.copyOf(symbols, symbolIndex.size()), original, stateIndex);
+	}
+
+	/**
+	 * Remove os estados inúteis e refina blocos e cordas até a estabilidade.
+	 *
+	 * @param initial
+	 *            O estado inicial.
+	 * @param finals
+	 *            Os estados finais.
+	 * @param alphabetSize
+	 *            O número de símbolos.
+	 * @return A classe de cada estado ({@link IndexedAFD#NONE} para estados
+	 *         removidos), ou null se a linguagem for vazia.
+	 */
+	private int[] run(int initial, int[] finals, int alphabetSize) {
+
+		// Remove os estados inalcançáveis a partir do inicial.
+		reach(initial);
+		removeUnreachable(tails, heads);
+
+		// Remove os estados que não alcançam um estado final. Os estados
+		// finais ficam no começo do bloco, prontos para a divisão inicial.
+		for (int q : finals) {
+			if (blocks.location[q] < blocks.end[0]) {
+				reach(q);
+			}
+		}
+		int finalCount = reached;
+		removeUnreachable(heads, tails);
+		int useful = blocks.end[0];
+		if (finalCount == 0 || blocks.location[initial] >= useful) {
+			return null;
+		}
+
+		// Partição inicial: finais e não finais.
+		marks[0] = finalCount;
+		touched[touchedCount++] = 0;
+		blocks.split();
+
+		// Partição inicial das transições: uma corda por símbolo.
+		Partition cords = new Partition(transitionCount);
+		if (transitionCount > 0) {
+			int[] labelStart = new int[alphabetSize + 1];
+			for (int t = 0; t < transitionCount; t++) {
+				labelStart[labels[t] + 1]++;
+			}
+			for (int a = 0; a < alphabetSize; a++) {
+				labelStart[a + 1] += labelStart[a];
+			}
+			int[] cursor = Arrays.copyOf(labelStart, alphabetSize);
+			for (int t = 0; t < transitionCount; t++) {
+				int position = cursor[labels[t]]++;
+				cords.elements[position] = t;
+				cords.location[t] = position;
+			}
+			cords.count = 0;
+			for (int a = 0; a < alphabetSize; a++) {
+				if (labelStart[a] == labelStart[a + 1]) {
+					continue;
+				}
+				cords.first[cords.count] = labelStart[a];
+				cords.end[cords.count] = labelStart[a + 1];
+				for (int i = labelStart[a]; i < labelStart[a + 1]; i++) {
+					cords.setOf[cords.elements[i]] = cords.count;
+				}
+				cords.count++;
+			}
+		}
+
+		// Refina blocos pelas cordas e cordas pelos novos blocos.
+		makeAdjacent(heads);
+		int b = 1;
+		int c = 0;
+		while (c < cords.count) {
+			for (int i = cords.first[c]; i < cords.end[c]; i++) {
+				blocks.mark(tails[cords.elements[i]]);
+			}
+			blocks.split();
+			c++;
+			while (b < blocks.count) {
+				for (int i = blocks.first[b]; i < blocks.end[b]; i++) {
+					int q = blocks.elements[i];
+					for (int j = adjacentStart[q]; j < adjacentStart[q + 1]; j++) {
+						cords.mark(adjacent[j]);
+					}
+				}
+				cords.split();
+				b++;
+			}
+		}
+
+		int[] classes = new int[stateCount];
+		for (int q = 0; q < stateCount; q++) {
+			classes[q] = blocks.location[q] < useful ? blocks.setOf[q] : IndexedAFD.NONE;
+		}
+		IndexedAFD.canonicalize(classes, blocks.count);
+		return classes;
+	}
+
+	/**
+	 * Monta o AFD mínimo a partir das classes e das transições restantes.
+	 *
+	 * @param classes
+	 *            A classe de cada estado.
+	 * @param initial
+	 *            O estado inicial.
+	 * @param symbols
+	 *            Os símbolos, pelos seus índices.
+	 * @param original
+	 *            O AFD original.
+	 * @param stateIndex
+	 *            O índice de cada estado do AFD original.
+	 * @return O AFD mínimo.
+	 */
+	private AFD build(int[] classes, int initial, Symbol[] symbols, AFD original, HashMap<State, Integer> stateIndex) {
+		int count = 0;
+		for (int c : classes) {
+			count = Math.max(count, c + 1);
+		}
+		State[] states = new State[count];
+		int[] representatives = new int[count];
+		for (int q = 0; q < stateCount; q++) {
+			int c = classes[q];
+			if (c != IndexedAFD.NONE && states[c] == null) {
+				states[c] = new State("G" + (c + 1));
+				representatives[c] = q;
+			}
+		}
+		for (int t = 0; t < transitionCount; t++) {
+			int c = classes[tails[t]];
+			if (c != IndexedAFD.NONE && representatives[c] == tails[t]) {
+				states[c].addTransition(symbols[labels[t]], states[classes[heads[t]]]);
+			}
+		}
+		LinkedHashSet<State> finalStates = new LinkedHashSet<>();
+		for (State state : original.getFinalStates()) {
+			int c = classes[stateIndex.get(state)];
+			if (c != IndexedAFD.NONE) {
+				finalStates.add(states[c]);
+			}
+		}
+		return new AFD(original.getAlphabet(), states[classes[initial]], Arrays.asList(states), finalStates);
+	}
+
+	/**
+	 * Marca um estado como alcançado, movendo-o para a faixa dos alcançados.
+	 *
+	 * @param q
+	 *            O estado.
+	 */
+	private void reach(int q) {
+		int i = blocks.location[q];
+		if (i >= reached) {
+			blocks.elements[i] = blocks.elements[reached];
+			blocks.location[blocks.elements[i]] = i;
+			blocks.elements[reached] = q;
+			blocks.location[q] = reached++;
+		}
+	}
+
+	/**
+	 * Completa a busca a partir dos estados já alcançados, seguindo as
+	 * transições de from para to, e descarta os estados e as transições que
+	 * ficaram de fora.
+	 *
+	 * @param from
+	 *            As extremidades de partida das transições.
+	 * @param to
+	 *            As extremidades de chegada das transições.
+	 */
+	private void removeUnreachable(int[] from, int[] to) {
+		makeAdjacent(from);
+		for (int i = 0; i < reached; i++) {
+			int q = blocks.elements[i];
+			for (int j = adjacentStart[q]; j < adjacentStart[q + 1]; j++) {
+				reach(to[adjacent[j]]);
+			}
+		}
+		int kept = 0;
+		for (int t = 0; t < transitionCount; t++) {
+			if (blocks.location[from[t]] < reached) {
+				heads[kept] = heads[t];
+				labels[kept] = labels[t];
+				tails[kept++] = tails[t];
+			}
+		}
+		transitionCount = kept;
+		blocks.end[0] = reached;
+		reached = 0;
+	}
+
+	/**
+	 * Monta a lista de transições adjacentes a cada estado.
+	 *
+	 * @param endpoints
+	 *            A extremidade das transições pela qual se indexa.
+	 */
+	private void makeAdjacent(int[] endpoints) {
+		Arrays.fill(adjacentStart, 0);
+		for (int t = 0; t < transitionCount; t++) {
+			adjacentStart[endpoints[t]]++;
+		}
+		for (int q = 0; q < stateCount; q++) {
+			adjacentStart[q + 1] += adjacentStart[q];
+		}
+		for (int t = transitionCount; t-- > 0;) {
+			adjacent[--adjacentStart[endpoints[t]]] = t;
+		}
+	}
+}
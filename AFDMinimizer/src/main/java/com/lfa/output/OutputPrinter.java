@@ -7,6 +7,7 @@ import java.io.PrintWriter;
 import java.nio.charset.Charset;
 
 import com.lfa.automata.afd.AFD;
+import com.lfa.automata.afd.TableAFD;
 import com.lfa.automata.afd.State;
 import com.lfa.automata.afd.State.Transition;
 import com.lfa.constants.Constants;
@@ -57,4 +58,48 @@ public class OutputPrinter {
 		bw.close();
 	}
 
+	/**
+	 * Gera um arquivo de saída correspondente a um AFD representado por
+	 * tabela, no mesmo formato de
+	 * {@link #printToFile(AFD, File, String, Charset)}.
+	 *
+	 * @param afd
+	 *            O AFD em tabela.
+	 * @param file
+	 *            O arquivo de saída.
+	 * @param name
+	 *            O nome do AFD.
+	 * @param charset
+	 *            O charset de saída.
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	public static void printToFile(TableAFD afd, File file, String name, Charset charset) throws IOException {
+		PrintWriter pw = new PrintWriter(file, charset.name());
+		BufferedWriter bw = new BufferedWriter(pw);
+		bw.write("digraph " + Constants.QUOTE + name + Constants.QUOTE + " {");
+		bw.newLine();
+		bw.write(Constants.TAB + "_nil [style=" + Constants.QUOTE + "invis" + Constants.QUOTE + "];");
+		bw.newLine();
+		bw.write(Constants.TAB + "_nil  -> " + afd.getStateName(afd.getInitialState()) + " [label=" + Constants.QUOTE + Constants.QUOTE + "];");
+		bw.newLine();
+		for (int state = 0; state < afd.size(); state++) {
+			if (afd.isFinal(state)) {
+				bw.write(Constants.TAB + afd.getStateName(state) + " [peripheries=2];");
+				bw.newLine();
+			}
+		}
+		for (int state = 0; state < afd.size(); state++) {
+			for (int symbol = 0; symbol < afd.alphabetSize(); symbol++) {
+				int destination = afd.next(state, symbol);
+				if (destination != TableAFD.NONE) {
+					bw.write(Constants.TAB + afd.getStateName(state) + " -> " + afd.getStateName(destination) + " [label=" + afd.getAlphabet().getSymbol(symbol).getStr() + "];");
+					bw.newLine();
+				}
+			}
+		}
+		bw.write("}");
+		bw.close();
+	}
+
 }
@@ -41,11 +41,11 @@ public class InputParser {
 			throwGenericValidationException();
 		}
 		Map<String, State> states = parseStates(lineList);
-		Constants.ALPHABET = parseAlphabet(lineList);
-		parseAndAddTransitions(lineList, states);
+		Alphabet alphabet = parseAlphabet(lineList);
+		parseAndAddTransitions(lineList, states, alphabet);
 		State initialState = parseInitialState(lineList, states);
 		Set<State> finalStates = parseFinalStates(lineList, states);
-		return new AFD(initialState, states.values(), finalStates);
+		return new AFD(alphabet, initialState, states.values(), finalStates);
 	}
 
 	/**
@@ -149,8 +149,10 @@ public class InputParser {
 	 *            ponto-e-vírgula e sem espaços.
 	 * @param stateMap
 	 *            O mapa de estados do AFD.
+	 * @param alphabet
+	 *            O alfabeto do AFD.
 	 */
-	private static void parseAndAddTransitions(List<List<String>> lineList, Map<String, State> stateMap) {
+	private static void parseAndAddTransitions(List<List<String>> lineList, Map<String, State> stateMap, Alphabet alphabet) {
 		Initial initial = Initial.TRANSITIONS;
 		List<String> line = lineList.get(initial.ordinal());
 		checkInitial(line, initial);
@@ -164,7 +166,7 @@ public class InputParser {
 		// (n+1)tuplas de valores em que n é o número de símbolos no alfabeto e
 		// o símbolo a mais é o estado de origem, podemos calcular o número de
 		// entradas neste campo dividindo-o em listas de n+1 elementos.
-		int transitionSize = Constants.ALPHABET.size() + 1;
+		int transitionSize = alphabet.size() + 1;
 		int modTransitionSize = realLineSize % transitionSize;
 
 		if (modTransitionSize != 0) {
@@ -190,7 +192,7 @@ public class InputParser {
 				destinations.add(destination);
 			}
 			for (int k = 0; k < destinations.size(); k++) {
-				source.addTransition(Constants.ALPHABET.getSymbol(k), destinations.get(k));
+				source.addTransition(alphabet.getSymbol(k), destinations.get(k));
 			}
 		}
 
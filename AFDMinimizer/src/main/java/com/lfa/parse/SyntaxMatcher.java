@@ -46,22 +46,21 @@ public class SyntaxMatcher {
 	 */
 	private static List<String> splitBySeparators(String str) {
 		List<String> returnList = new ArrayList<>();
-		char[] chars = str.toCharArray();
-		StringBuilder sb = new StringBuilder();
-		for (int i = 0; i < chars.length; i++) {
-			String iStr = String.valueOf(chars[i]);
-			if (Constants.SEPARATORS.contains(iStr)) {
-				if (sb.length() > 0) {
-					returnList.add(sb.toString());
+		// Os separadores são os símbolos do alfabeto do APD de sintaxe.
+		Alphabet separators = Constants.ALPHABET_APD;
+		int start = 0;
+		for (int i = 0; i < str.length(); i++) {
+			int ordinal = separators.ordinalOf(str.charAt(i));
+			if (ordinal != Alphabet.NONE) {
+				if (i > start) {
+					returnList.add(str.substring(start, i));
 				}
-				returnList.add(iStr);
-				sb = new StringBuilder();
-				continue;
+				returnList.add(separators.getSymbol(ordinal).getStr());
+				start = i + 1;
 			}
-			sb.append(iStr);
 		}
-		if (sb.length() > 0) {
-			returnList.add(sb.toString());
+		if (str.length() > start) {
+			returnList.add(str.substring(start));
 		}
 		return returnList;
 	}
@@ -73,9 +72,6 @@ public class SyntaxMatcher {
 	 */
 	private static APD createValidationAPD() {
 
-		Constants.ALPHABET_APD = new Alphabet(Constants.SEPARATORS);
-		Constants.ALPHABET_APD_STACK = new Alphabet("X", "Y", "Z", "1", "2", "K", "L", "M", "N", "O", "3", "4");
-
 		APDState a = new APDState("A");
 		APDState b = new APDState("B");
 		APDState c = new APDState("C");
@@ -0,0 +1,158 @@
+package com.lfa.automata.afd;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.lfa.constants.Alphabet;
+import com.lfa.exception.ValidationException;
+
+/**
+ * Testes de {@link CompactAFD}: a conversão de e para {@link AFD} preserva os
+ * estados e a linguagem.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+public class CompactAFDTest {
+
+	static final Alphabet ALPHABET = new Alphabet("a", "b", "c");
+
+	/**
+	 * Gera um AFD aleatório sobre {@link #ALPHABET}, possivelmente parcial.
+	 *
+	 * @param random
+	 *            O gerador.
+	 * @return O AFD.
+	 */
+	static AFD random(Random random) {
+		int n = 1 + random.nextInt(10);
+		State[] states = new State[n];
+		for (int s = 0; s < n; s++) {
+			states[s] = new State("q" + s);
+		}
+		List<State> finals = new ArrayList<>();
+		for (int s = 0; s < n; s++) {
+			for (int a = 0; a < ALPHABET.size(); a++) {
+				if (random.nextInt(4) != 0) {
+					states[s].addTransition(ALPHABET.getSymbol(a), states[random.nextInt(n)]);
+				}
+			}
+			if (random.nextInt(3) == 0) {
+				finals.add(states[s]);
+			}
+		}
+		return new AFD(ALPHABET, states[0], Arrays.asList(states), finals);
+	}
+
+	/**
+	 * Gera palavras aleatórias, algumas com um caractere fora do alfabeto.
+	 *
+	 * @param random
+	 *            O gerador.
+	 * @return As palavras.
+	 */
+	static List<String> words(Random random) {
+		List<String> words = new ArrayList<>();
+		for (int w = 0; w < 50; w++) {
+			StringBuilder word = new StringBuilder();
+			int length = random.nextInt(8);
+			for (int c = 0; c < length; c++) {
+				word.append("abcx".charAt(random.nextInt(random.nextInt(20) == 0 ? 4 : 3)));
+			}
+			words.add(word.toString());
+		}
+		return words;
+	}
+
+	/**
+	 * Verifica se um {@link AFD} aceita uma palavra, por {@link AFD#run(String)}.
+	 *
+	 * @param afd
+	 *            O AFD.
+	 * @param word
+	 *            A palavra.
+	 * @return true, se a palavra for aceita.
+	 */
+	static boolean accepts(AFD afd, String word) {
+		try {
+			afd.run(word);
+			return true;
+		} catch (ValidationException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Verifica se um {@link TableAFD} aceita uma palavra, por
+	 * {@link TableAFD#run(String)}.
+	 *
+	 * @param afd
+	 *            O AFD.
+	 * @param word
+	 *            A palavra.
+	 * @return true, se a palavra for aceita.
+	 */
+	static boolean runs(TableAFD afd, String word) {
+		try {
+			afd.run(word);
+			return true;
+		} catch (ValidationException e) {
+			return false;
+		}
+	}
+
+	@Test
+	public void roundTrip() {
+		Random random = new Random(71);
+		for (int i = 0; i < 300; i++) {
+			AFD afd = random(random);
+			CompactAFD compact = CompactAFD.of(afd);
+			assertEquals("AFD " + i, afd.size(), compact.size());
+			assertEquals("AFD " + i, afd.getFinalStates().size(), compact.finalStateCount());
+			AFD back = compact.toAFD();
+			assertEquals("AFD " + i, afd, back);
+			for (String word : words(random)) {
+				boolean expected = accepts(afd, word);
+				assertEquals("AFD " + i + ", " + word, expected, compact.accepts(word));
+				assertEquals("AFD " + i + ", " + word, expected, runs(compact, word));
+				assertEquals("AFD " + i + ", " + word, expected, accepts(back, word));
+			}
+		}
+	}
+
+	@Test
+	public void copiesTableAFD() {
+		Random random = new Random(72);
+		for (int i = 0; i < 100; i++) {
+			CompactAFD compact = CompactAFD.of(random(random));
+			CompactAFD copy = CompactAFD.of((TableAFD) compact);
+			assertEquals("AFD " + i, compact.toAFD(), copy.toAFD());
+			for (String word : words(random)) {
+				assertEquals("AFD " + i + ", " + word, compact.accepts(word), copy.accepts(word));
+			}
+		}
+	}
+
+	@Test
+	public void supplementarySymbols() {
+		String clef = new String(Character.toChars(0x1D11E));
+		Alphabet alphabet = new Alphabet("a", clef);
+		State p = new State("p");
+		State q = new State("q");
+		p.addTransition(alphabet.getSymbol(clef), q);
+		q.addTransition(alphabet.getSymbol("a"), p);
+		AFD afd = new AFD(alphabet, p, Arrays.asList(p, q), Arrays.asList(q));
+		CompactAFD compact = CompactAFD.of(afd);
+		for (String word : Arrays.asList("", clef, clef + "a", clef + "a" + clef, "a", clef.substring(0, 1), clef + clef)) {
+			boolean expected = word.equals(clef) || word.equals(clef + "a" + clef);
+			assertEquals(word, expected, accepts(afd, word));
+			assertEquals(word, expected, compact.accepts(word));
+			assertEquals(word, expected, runs(compact, word));
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package com.lfa.automata.afd;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Testes de {@link OffHeapAFD}: a cópia, em buffers diretos ou mapeada em
+ * arquivo, tem a mesma tabela e reconhece as mesmas palavras do AFD original.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+public class OffHeapAFDTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static void assertSameTable(String message, CompactAFD expected, TableAFD actual) {
+		assertEquals(message, expected.getAlphabet(), actual.getAlphabet());
+		assertEquals(message, expected.size(), actual.size());
+		assertEquals(message, expected.alphabetSize(), actual.alphabetSize());
+		assertEquals(message, expected.getInitialState(), actual.getInitialState());
+		for (int s = 0; s < expected.size(); s++) {
+			assertEquals(message, expected.isFinal(s), actual.isFinal(s));
+			for (int a = 0; a < expected.alphabetSize(); a++) {
+				assertEquals(message, expected.next(s, a), actual.next(s, a));
+			}
+		}
+	}
+
+	private static void assertSameLanguage(String message, Random random, AFD afd, TableAFD actual) {
+		for (String word : CompactAFDTest.words(random)) {
+			boolean expected = CompactAFDTest.accepts(afd, word);
+			assertEquals(message + ", " + word, expected, actual.accepts(word));
+			assertEquals(message + ", " + word, expected, CompactAFDTest.runs(actual, word));
+		}
+	}
+
+	@Test
+	public void directRoundTrip() {
+		Random random = new Random(81);
+		for (int i = 0; i < 200; i++) {
+			AFD afd = CompactAFDTest.random(random);
+			CompactAFD compact = CompactAFD.of(afd);
+			try (OffHeapAFD offHeap = OffHeapAFD.copyOf(compact)) {
+				assertSameTable("AFD " + i, compact, offHeap);
+				assertSameLanguage("AFD " + i, random, afd, offHeap);
+				CompactAFD back = CompactAFD.of(offHeap);
+				assertSameTable("AFD " + i, compact, back);
+				assertSameLanguage("AFD " + i, random, afd, back);
+				AFD rebuilt = back.toAFD();
+				assertEquals("AFD " + i, afd.getFinalStates().size(), rebuilt.getFinalStates().size());
+				for (String word : CompactAFDTest.words(random)) {
+					assertEquals("AFD " + i + ", " + word, CompactAFDTest.accepts(afd, word), CompactAFDTest.accepts(rebuilt, word));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void mappedRoundTrip() throws IOException {
+		Random random = new Random(82);
+		File directory = folder.newFolder();
+		for (int i = 0; i < 50; i++) {
+			AFD afd = CompactAFDTest.random(random);
+			CompactAFD compact = CompactAFD.of(afd);
+			try (OffHeapAFD mapped = OffHeapAFD.copyOf(compact, directory)) {
+				assertSameTable("AFD " + i, compact, mapped);
+				assertSameLanguage("AFD " + i, random, afd, mapped);
+			}
+			assertEquals("AFD " + i, 0, directory.list().length);
+		}
+	}
+}
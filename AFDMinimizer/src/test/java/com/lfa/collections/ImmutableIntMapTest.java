@@ -0,0 +1,85 @@
+package com.lfa.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link ImmutableIntMap} and its builder.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+public class ImmutableIntMapTest {
+
+	@Test
+	public void putsOutOfOrder() {
+		ImmutableIntMap.Builder<String> builder = ImmutableIntMap.<String> builder().put(20, "k20").add("k21");
+		assertEquals(22, builder.size());
+		for (int key = 19; key >= 0; key--) {
+			builder.put(key, "k" + key);
+		}
+		ImmutableIntMap<String> map = builder.build();
+		assertEquals(22, map.size());
+		for (int key = 0; key < 22; key++) {
+			assertTrue(map.containsKey(key));
+			assertEquals("k" + key, map.get(key));
+		}
+		assertNull(map.get(22));
+		assertNull(map.get(-1));
+		assertFalse(map.containsKey(-1));
+	}
+
+	@Test
+	public void rejectsGaps() {
+		try {
+			ImmutableIntMap.<String> builder().put(0, "a").put(2, "c").build();
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals("Missing key: 1", e.getMessage());
+		}
+		try {
+			ImmutableIntMap.<String> builder().put(9, "j").build();
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals("Missing key: 0", e.getMessage());
+		}
+	}
+
+	@Test
+	public void fillsGaps() {
+		ImmutableIntMap<String> map = ImmutableIntMap.<String> builder().put(1, "b").put(0, "a").put(2, "c").put(1, "B").build();
+		assertEquals(Arrays.asList("a", "B", "c"), map.values());
+		assertTrue(map.containsValue("B"));
+		assertFalse(map.containsValue("b"));
+		assertEquals("{0=a, 1=B, 2=c}", map.toString());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsNegativeKeys() {
+		ImmutableIntMap.<String> builder().put(-1, "a");
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void rejectsNullValues() {
+		ImmutableIntMap.<String> builder().add(null);
+	}
+
+	@Test
+	public void equality() {
+		ImmutableIntMap<String> map = ImmutableIntMap.<String> builder().add("a").add("b").build();
+		assertEquals(map, ImmutableIntMap.<String> builder().put(1, "b").put(0, "a").build());
+		assertEquals(map.hashCode(), ImmutableIntMap.<String> builder().put(1, "b").put(0, "a").build().hashCode());
+		assertNotEquals(map, ImmutableIntMap.<String> builder().add("b").add("a").build());
+		ImmutableIntMap<String> empty = ImmutableIntMap.<String> builder().build();
+		assertTrue(empty.isEmpty());
+		assertEquals(Collections.emptyList(), empty.values());
+	}
+}
@@ -0,0 +1,109 @@
+package com.lfa.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link ImmutableLinkedSet} against {@link LinkedHashSet}.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+public class ImmutableLinkedSetTest {
+
+	/**
+	 * An element whose hash code is chosen by the test, to force collisions.
+	 */
+	private static final class Key {
+
+		private final int id;
+		private final int hash;
+
+		Key(int id, int hash) {
+			this.id = id;
+			this.hash = hash;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Key && ((Key) o).id == id;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public String toString() {
+			return "Key" + id;
+		}
+	}
+
+	@Test
+	public void matchesLinkedHashSet() {
+		Random random = new Random(91);
+		for (int round = 0; round < 200; round++) {
+			int range = 1 + random.nextInt(500);
+			int hashes = 1 + random.nextInt(range);
+			LinkedHashSet<Key> expected = new LinkedHashSet<>();
+			ImmutableLinkedSet.Builder<Key> builder = ImmutableLinkedSet.builder();
+			int count = random.nextInt(400);
+			for (int i = 0; i < count; i++) {
+				int id = random.nextInt(range);
+				Key key = new Key(id, id % hashes);
+				expected.add(key);
+				builder.add(key);
+				assertEquals(expected.size(), builder.size());
+			}
+			ImmutableLinkedSet<Key> set = builder.build();
+			List<Key> order = new ArrayList<>(expected);
+			assertEquals(order, new ArrayList<>(set));
+			assertEquals(expected.size(), set.size());
+			assertEquals(expected.isEmpty(), set.isEmpty());
+			for (int i = 0; i < order.size(); i++) {
+				assertEquals(order.get(i), set.get(i));
+			}
+			for (int id = 0; id < range + 10; id++) {
+				Key key = new Key(id, id % hashes);
+				assertEquals(expected.contains(key), set.contains(key));
+				assertEquals(order.indexOf(key), set.indexOf(key));
+			}
+			assertEquals(expected, set);
+			assertEquals(set, expected);
+			assertEquals(expected.hashCode(), set.hashCode());
+			assertTrue(set.containsAll(expected));
+		}
+	}
+
+	@Test
+	public void equalsIgnoresOrder() {
+		ImmutableLinkedSet<String> set = ImmutableLinkedSet.<String> builder().add("a", "b", "c").build();
+		ImmutableLinkedSet<String> reversed = ImmutableLinkedSet.<String> builder().add("c", "b", "a").build();
+		assertEquals(set, reversed);
+		assertEquals(set.hashCode(), reversed.hashCode());
+		assertNotEquals(set, ImmutableLinkedSet.<String> builder().add("a", "b").build());
+		assertNotEquals(set, ImmutableLinkedSet.<String> builder().add("a", "b", "d").build());
+		assertNotEquals(set, new ArrayList<>(set));
+	}
+
+	@Test
+	public void empty() {
+		ImmutableLinkedSet<String> set = ImmutableLinkedSet.<String> builder().build();
+		assertTrue(set.isEmpty());
+		assertFalse(set.contains("a"));
+		assertFalse(set.contains(null));
+		assertEquals(-1, set.indexOf("a"));
+		assertEquals(Collections.emptySet(), set);
+		assertEquals(set, new LinkedHashSet<String>());
+	}
+}
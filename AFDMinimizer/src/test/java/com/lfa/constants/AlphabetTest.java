@@ -0,0 +1,69 @@
+package com.lfa.constants;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import com.lfa.exception.ValidationException;
+
+/**
+ * Testes de {@link Alphabet}: os ordinais dos símbolos e a busca pelo
+ * caractere.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+public class AlphabetTest {
+
+	private static final String CLEF = new String(Character.toChars(0x1D11E));
+
+	private static final String EMOJI = new String(Character.toChars(0x1F600));
+
+	private static final Alphabet ALPHABET = new Alphabet("a", "ç", "中", CLEF, "ab", EMOJI, " z ");
+
+	@Test
+	public void ordinalsFollowDeclarationOrder() {
+		assertEquals(7, ALPHABET.size());
+		for (int a = 0; a < ALPHABET.size(); a++) {
+			assertEquals(a, ALPHABET.getSymbol(a).getOrdinal());
+			assertSame(ALPHABET.getSymbol(a), ALPHABET.getSymbol(ALPHABET.getSymbol(a).getStr()));
+			assertEquals(a, ALPHABET.ordinalOf(ALPHABET.getSymbol(a)));
+		}
+		assertEquals("z", ALPHABET.getSymbol(6).getStr());
+	}
+
+	@Test
+	public void basicMultilingualPlane() {
+		assertEquals(0, ALPHABET.ordinalOf('a'));
+		assertEquals(1, ALPHABET.ordinalOf('ç'));
+		assertEquals(2, ALPHABET.ordinalOf('中'));
+		assertEquals(6, ALPHABET.ordinalOf('z'));
+		assertEquals(2, ALPHABET.ordinalOf((int) '中'));
+	}
+
+	@Test
+	public void supplementaryCodePoints() {
+		assertEquals(3, ALPHABET.ordinalOf(0x1D11E));
+		assertEquals(5, ALPHABET.ordinalOf(0x1F600));
+		assertEquals(Alphabet.NONE, ALPHABET.ordinalOf(0x1F601));
+		// Metades de um par substituto não são símbolos.
+		assertEquals(Alphabet.NONE, ALPHABET.ordinalOf(CLEF.charAt(0)));
+		assertEquals(Alphabet.NONE, ALPHABET.ordinalOf(CLEF.charAt(1)));
+	}
+
+	@Test
+	public void unknownCharacters() {
+		assertEquals(Alphabet.NONE, ALPHABET.ordinalOf('b'));
+		assertEquals(Alphabet.NONE, ALPHABET.ordinalOf(' '));
+		assertEquals(Alphabet.NONE, ALPHABET.ordinalOf(Character.MAX_VALUE));
+		assertEquals(Alphabet.NONE, ALPHABET.ordinalOf(-1));
+		assertEquals(Alphabet.NONE, ALPHABET.ordinalOf(Character.MAX_CODE_POINT));
+		assertEquals(Alphabet.NONE, ALPHABET.ordinalOf(new Alphabet("b", "a").getSymbol("b")));
+		assertEquals(0, ALPHABET.ordinalOf(new Alphabet("b", "a").getSymbol("a")));
+	}
+
+	@Test(expected = ValidationException.class)
+	public void rejectsRepeatedSymbols() {
+		new Alphabet("a", "b", " a");
+	}
+}
@@ -0,0 +1,59 @@
+package com.lfa.minimize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.lfa.automata.afd.AFD;
+import com.lfa.automata.afd.State;
+
+/**
+ * Testes de {@link AFDMinimizer#minimizeJointly(java.util.Collection)}.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+public class AFDForestTest {
+
+	private static final List<AFD> SAMPLES = AFDSamples.samples(51, 120);
+
+	@Test
+	public void eachAFDIsMinimal() {
+		AFDForest forest = AFDMinimizer.minimizeJointly(SAMPLES);
+		assertEquals(SAMPLES.size(), forest.size());
+		for (int i = 0; i < SAMPLES.size(); i++) {
+			AFD afd = forest.getAFD(i);
+			assertEquals("AFD " + i, AFDSamples.partialReferenceSize(SAMPLES.get(i)), afd.size());
+			assertTrue("AFD " + i, AFDSamples.equivalent(SAMPLES.get(i), afd));
+		}
+	}
+
+	@Test
+	public void sharesStateObjects() {
+		AFDForest forest = AFDMinimizer.minimizeJointly(SAMPLES);
+		Set<State> shared = Collections.newSetFromMap(new IdentityHashMap<>());
+		shared.addAll(forest.getStates());
+		for (int i = 0; i < forest.size(); i++) {
+			for (State state : forest.getAFD(i).getStates()) {
+				assertTrue("AFD " + i, shared.contains(state));
+			}
+		}
+	}
+
+	@Test
+	public void equivalentAFDsShareInitialState() {
+		for (AFD afd : SAMPLES) {
+			AFD copy = AFDMinimizer.minimizeBrzozowski(afd);
+			AFDForest forest = AFDMinimizer.minimizeJointly(Arrays.asList(afd, copy));
+			assertSame(forest.getInitialStates().get(0), forest.getInitialStates().get(1));
+			assertEquals(AFDSamples.partialReferenceSize(afd), forest.getStates().size());
+		}
+	}
+}
@@ -0,0 +1,356 @@
+package com.lfa.minimize;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import com.lfa.automata.afd.AFD;
+import com.lfa.automata.afd.State;
+import com.lfa.constants.Alphabet;
+import com.lfa.constants.Alphabet.Symbol;
+
+/**
+ * Classe AFDSamples. Gera os AFDs aleatórios usados nos testes, calcula o
+ * tamanho mínimo de referência com {@link AFDMinimizer#minimizeByGroups(AFD)}
+ * e compara linguagens.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+final class AFDSamples {
+
+	static final Alphabet ALPHABET = new Alphabet("a", "b", "c");
+
+	private AFDSamples() {
+	}
+
+	/**
+	 * Gera AFDs pequenos de quatro tipos, alternados: completos, parciais,
+	 * acíclicos e cíclicos.
+	 *
+	 * @param seed
+	 *            A semente.
+	 * @param count
+	 *            A quantidade de AFDs.
+	 * @return Os AFDs.
+	 */
+	static List<AFD> samples(long seed, int count) {
+		Random random = new Random(seed);
+		List<AFD> samples = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			int n = 1 + random.nextInt(24);
+			switch (i % 4) {
+			case 0:
+				samples.add(random(random, n, 1 + random.nextInt(3), 0, random.nextDouble()));
+				break;
+			case 1:
+				samples.add(random(random, n, 1 + random.nextInt(3), 0.1 + random.nextDouble() * 0.4, random.nextDouble()));
+				break;
+			case 2:
+				samples.add(acyclic(random, n));
+				break;
+			default:
+				samples.add(cyclic(random, n));
+				break;
+			}
+		}
+		return samples;
+	}
+
+	/**
+	 * Gera um AFD com destinos aleatórios.
+	 *
+	 * @param random
+	 *            O gerador.
+	 * @param n
+	 *            O número de estados.
+	 * @param k
+	 *            O número de símbolos usados.
+	 * @param missing
+	 *            A probabilidade de uma transição não existir.
+	 * @param finalRate
+	 *            A probabilidade de um estado ser final.
+	 * @return O AFD.
+	 */
+	static AFD random(Random random, int n, int k, double missing, double finalRate) {
+		State[] states = states(n);
+		List<State> finals = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			for (int a = 0; a < k; a++) {
+				if (random.nextDouble() >= missing) {
+					states[i].addTransition(ALPHABET.getSymbol(a), states[random.nextInt(n)]);
+				}
+			}
+			if (random.nextDouble() < finalRate) {
+				finals.add(states[i]);
+			}
+		}
+		return new AFD(ALPHABET, states[0], Arrays.asList(states), finals);
+	}
+
+	/**
+	 * Gera um AFD acíclico, com transições apenas para estados de índice
+	 * maior, e o último estado final.
+	 *
+	 * @param random
+	 *            O gerador.
+	 * @param n
+	 *            O número de estados.
+	 * @return O AFD.
+	 */
+	static AFD acyclic(Random random, int n) {
+		State[] states = states(n);
+		List<State> finals = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			for (int a = 0; a < ALPHABET.size() && i + 1 < n; a++) {
+				if (random.nextBoolean()) {
+					states[i].addTransition(ALPHABET.getSymbol(a), states[i + 1 + random.nextInt(n - i - 1)]);
+				}
+			}
+			if (i == n - 1 || random.nextInt(3) == 0) {
+				finals.add(states[i]);
+			}
+		}
+		return new AFD(ALPHABET, states[0], Arrays.asList(states), finals);
+	}
+
+	/**
+	 * Gera um ciclo pelo símbolo "a", com alguns atalhos pelo símbolo "b".
+	 *
+	 * @param random
+	 *            O gerador.
+	 * @param n
+	 *            O número de estados.
+	 * @return O AFD.
+	 */
+	static AFD cyclic(Random random, int n) {
+		State[] states = states(n);
+		List<State> finals = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			states[i].addTransition(ALPHABET.getSymbol(0), states[(i + 1) % n]);
+			if (random.nextInt(4) == 0) {
+				states[i].addTransition(ALPHABET.getSymbol(1), states[random.nextInt(n)]);
+			}
+			if (random.nextInt(3) == 0) {
+				finals.add(states[i]);
+			}
+		}
+		return new AFD(ALPHABET, states[0], Arrays.asList(states), finals);
+	}
+
+	/**
+	 * Monta o AFD parcial que reconhece um conjunto de palavras, em forma de
+	 * árvore.
+	 *
+	 * @param words
+	 *            As palavras.
+	 * @return O AFD.
+	 */
+	static AFD trie(Collection<String> words) {
+		Map<String, State> prefixes = new LinkedHashMap<>();
+		List<State> finals = new ArrayList<>();
+		State root = new State("q0");
+		prefixes.put("", root);
+		for (String word : words) {
+			State state = root;
+			for (int i = 0; i < word.length(); i++) {
+				State next = prefixes.get(word.substring(0, i + 1));
+				if (next == null) {
+					next = new State("q" + prefixes.size());
+					prefixes.put(word.substring(0, i + 1), next);
+					state.addTransition(ALPHABET.getSymbol(word.substring(i, i + 1)), next);
+				}
+				state = next;
+			}
+			if (!finals.contains(state)) {
+				finals.add(state);
+			}
+		}
+		return new AFD(ALPHABET, root, prefixes.values(), finals);
+	}
+
+	/**
+	 * Calcula o número de estados do AFD mínimo com o minimizador original,
+	 * {@link AFDMinimizer#minimizeByGroups(AFD)}. Ele trabalha com AFDs
+	 * completos e alcançáveis, então o AFD é podado e completado com um estado
+	 * de descarte antes. Como em {@link AFDMinimizer#minimize(AFD)}, o estado
+	 * morto do resultado só é mantido se o AFD já era completo nos estados
+	 * alcançáveis.
+	 *
+	 * @param afd
+	 *            O AFD.
+	 * @return O número de estados do AFD mínimo.
+	 */
+	static int referenceSize(AFD afd) {
+		return referenceSize(afd, true);
+	}
+
+	/**
+	 * Calcula o número de estados do AFD mínimo parcial, sem estado morto,
+	 * como em {@link AFDMinimizer#minimizePartial(AFD)}.
+	 *
+	 * @param afd
+	 *            O AFD.
+	 * @return O número de estados do AFD mínimo parcial.
+	 */
+	static int partialReferenceSize(AFD afd) {
+		return referenceSize(afd, false);
+	}
+
+	private static int referenceSize(AFD afd, boolean keepSink) {
+		IndexedAFD indexed = IndexedAFD.of(afd);
+		int n = indexed.size;
+		int k = indexed.alphabetSize();
+		BitSet reachable = new BitSet(n);
+		ArrayDeque<Integer> queue = new ArrayDeque<>();
+		reachable.set(indexed.initial);
+		queue.add(indexed.initial);
+		boolean incomplete = false;
+		while (!queue.isEmpty()) {
+			int s = queue.poll();
+			for (int a = 0; a < k; a++) {
+				int d = indexed.next(s, a);
+				if (d == IndexedAFD.NONE) {
+					incomplete = true;
+				} else if (!reachable.get(d)) {
+					reachable.set(d);
+					queue.add(d);
+				}
+			}
+		}
+		State[] states = new State[n + 1];
+		List<State> all = new ArrayList<>();
+		List<State> finals = new ArrayList<>();
+		for (int s = reachable.nextSetBit(0); s >= 0; s = reachable.nextSetBit(s + 1)) {
+			states[s] = new State("q" + s);
+			all.add(states[s]);
+			if (indexed.finals.get(s)) {
+				finals.add(states[s]);
+			}
+		}
+		if (incomplete) {
+			states[n] = new State("sink");
+			all.add(states[n]);
+			for (int a = 0; a < k; a++) {
+				states[n].addTransition(indexed.symbols[a], states[n]);
+			}
+		}
+		for (int s = reachable.nextSetBit(0); s >= 0; s = reachable.nextSetBit(s + 1)) {
+			for (int a = 0; a < k; a++) {
+				int d = indexed.next(s, a);
+				states[s].addTransition(indexed.symbols[a], states[d == IndexedAFD.NONE ? n : d]);
+			}
+		}
+		if (finals.isEmpty() || finals.size() == all.size()) {
+			// Um dos grupos iniciais seria vazio, o que o minimizador original
+			// não aceita. A linguagem é vazia ou contém todas as palavras.
+			return 1;
+		}
+		AFD complete = new AFD(indexed.alphabet, states[indexed.initial], all, finals);
+		IndexedAFD minimal = IndexedAFD.of(AFDMinimizer.minimizeByGroups(complete));
+		if (keepSink && !incomplete) {
+			return minimal.size;
+		}
+		boolean[] live = live(minimal);
+		int size = 0;
+		for (int s = 0; s < minimal.size; s++) {
+			if (live[s]) {
+				size++;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Verifica se dois AFDs reconhecem a mesma linguagem, percorrendo os pares
+	 * de estados alcançados pelas mesmas palavras. Os símbolos são comparados
+	 * pelo texto, e transições inexistentes ou para estados mortos são
+	 * equivalentes.
+	 *
+	 * @param x
+	 *            Um AFD.
+	 * @param y
+	 *            O outro AFD.
+	 * @return true, se forem equivalentes.
+	 */
+	static boolean equivalent(AFD x, AFD y) {
+		IndexedAFD a = IndexedAFD.of(x);
+		IndexedAFD b = IndexedAFD.of(y);
+		boolean[] liveA = live(a);
+		boolean[] liveB = live(b);
+		Set<String> symbols = new LinkedHashSet<>();
+		for (int i = 0; i < a.alphabetSize(); i++) {
+			symbols.add(a.symbols[i].getStr());
+		}
+		for (int i = 0; i < b.alphabetSize(); i++) {
+			symbols.add(b.symbols[i].getStr());
+		}
+		Set<Long> seen = new HashSet<>();
+		ArrayDeque<int[]> queue = new ArrayDeque<>();
+		queue.add(new int[] { liveA[a.initial] ? a.initial : -1, liveB[b.initial] ? b.initial : -1 });
+		while (!queue.isEmpty()) {
+			int[] pair = queue.poll();
+			if (!seen.add(((long) pair[0] << 32) | (pair[1] & 0xFFFFFFFFL))) {
+				continue;
+			}
+			boolean finalA = pair[0] >= 0 && a.finals.get(pair[0]);
+			boolean finalB = pair[1] >= 0 && b.finals.get(pair[1]);
+			if (finalA != finalB) {
+				return false;
+			}
+			for (String symbol : symbols) {
+				int p = next(a, liveA, pair[0], symbol);
+				int q = next(b, liveB, pair[1], symbol);
+				if (p >= 0 || q >= 0) {
+					queue.add(new int[] { p, q });
+				}
+			}
+		}
+		return true;
+	}
+
+	private static int next(IndexedAFD afd, boolean[] live, int s, String symbol) {
+		Symbol consumed = afd.alphabet.getSymbol(symbol);
+		if (s < 0 || consumed == null) {
+			return -1;
+		}
+		int d = afd.next(s, afd.alphabet.ordinalOf(consumed));
+		return d >= 0 && live[d] ? d : -1;
+	}
+
+	private static boolean[] live(IndexedAFD afd) {
+		boolean[] live = new boolean[afd.size];
+		for (int s = afd.finals.nextSetBit(0); s >= 0; s = afd.finals.nextSetBit(s + 1)) {
+			live[s] = true;
+		}
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (int s = 0; s < afd.size; s++) {
+				for (int a = 0; a < afd.alphabetSize() && !live[s]; a++) {
+					int d = afd.next(s, a);
+					if (d >= 0 && live[d]) {
+						live[s] = changed = true;
+					}
+				}
+			}
+		}
+		return live;
+	}
+
+	private static State[] states(int n) {
+		State[] states = new State[n];
+		for (int i = 0; i < n; i++) {
+			states[i] = new State("q" + i);
+		}
+		return states;
+	}
+}
@@ -0,0 +1,76 @@
+package com.lfa.minimize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.lfa.automata.afd.AFD;
+import com.lfa.exception.ValidationException;
+
+/**
+ * Testes da retomada do refinamento a partir de um checkpoint.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+public class HopcroftCheckpointTest {
+
+	private AFD afd;
+	private File file;
+
+	@Before
+	public void setUp() throws IOException {
+		afd = AFDSamples.random(new Random(9), 3000, 3, 0, 0.3);
+		file = File.createTempFile("hopcroft", ".checkpoint");
+		file.delete();
+	}
+
+	@After
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Test
+	public void resumesAfterRoundBudget() {
+		AFD cut = AFDMinimizer.minimize(afd, MinimizationOptions.builder().roundBudget(10).checkpoint(file, 1, TimeUnit.HOURS).build());
+		assertTrue(file.exists());
+		assertTrue(AFDSamples.equivalent(afd, cut));
+
+		AFD resumed = AFDMinimizer.minimize(afd, MinimizationOptions.builder().checkpoint(file, 1, TimeUnit.HOURS).build());
+		assertFalse(file.exists());
+		assertEquals(AFDMinimizer.minimize(afd).size(), resumed.size());
+		assertTrue(AFDSamples.equivalent(afd, resumed));
+	}
+
+	@Test
+	public void resumesAfterCancellation() {
+		CancellationToken token = new CancellationToken();
+		try {
+			AFDMinimizer.minimize(afd, MinimizationOptions.builder().checkpoint(file, 1, TimeUnit.HOURS).cancellationToken(token)
+					.listener(progress -> token.cancel()).progressInterval(0, TimeUnit.MILLISECONDS).build());
+			fail();
+		} catch (ValidationException e) {
+			assertTrue(file.exists());
+		}
+
+		AFD resumed = AFDMinimizer.minimize(afd, MinimizationOptions.builder().checkpoint(file, 1, TimeUnit.HOURS).build());
+		assertFalse(file.exists());
+		assertEquals(AFDMinimizer.minimize(afd).size(), resumed.size());
+	}
+
+	@Test(expected = ValidationException.class)
+	public void rejectsCheckpointOfAnotherAFD() {
+		AFDMinimizer.minimize(afd, MinimizationOptions.builder().roundBudget(10).checkpoint(file, 1, TimeUnit.HOURS).build());
+		AFD other = AFDSamples.random(new Random(10), 3000, 3, 0, 0.3);
+		AFDMinimizer.minimize(other, MinimizationOptions.builder().checkpoint(file, 1, TimeUnit.HOURS).build());
+	}
+}
@@ -0,0 +1,159 @@
+package com.lfa.minimize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.lfa.automata.afd.AFD;
+import com.lfa.automata.afd.State;
+import com.lfa.automata.afd.State.Transition;
+import com.lfa.constants.Alphabet;
+import com.lfa.constants.Alphabet.Symbol;
+import com.lfa.exception.ValidationException;
+
+/**
+ * Testes de {@link AFDMinimizer#reminimize(AFD, java.util.Collection)}.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+public class IncrementalMinimizerTest {
+
+	@Test
+	public void randomEdits() {
+		Random random = new Random(5);
+		for (AFD sample : AFDSamples.samples(17, 400)) {
+			AFD minimized = AFDMinimizer.minimize(sample);
+			IndexedAFD indexed = IndexedAFD.of(minimized);
+			int n = indexed.size;
+			int k = indexed.alphabetSize();
+			int[] table = indexed.table.clone();
+			List<TransitionEdit> edits = new ArrayList<>();
+			int count = 1 + random.nextInt(3);
+			for (int e = 0; e < count; e++) {
+				int s = random.nextInt(n);
+				int a = random.nextInt(k);
+				int d = random.nextInt(n);
+				State source = minimized.getStates().get(s);
+				State destination = minimized.getStates().get(d);
+				Symbol symbol = indexed.symbols[a];
+				if (table[s * k + a] == IndexedAFD.NONE) {
+					edits.add(TransitionEdit.add(source, symbol, destination));
+					table[s * k + a] = d;
+				} else if (random.nextBoolean()) {
+					edits.add(TransitionEdit.remove(source, symbol));
+					table[s * k + a] = IndexedAFD.NONE;
+				} else {
+					edits.add(TransitionEdit.redirect(source, symbol, destination));
+					table[s * k + a] = d;
+				}
+			}
+			AFD edited = new IndexedAFD(n, indexed.alphabet, table, indexed.finals, indexed.initial).toAFD();
+			AFD reminimized = AFDMinimizer.reminimize(minimized, edits);
+			assertEquals(edits.toString(), AFDSamples.referenceSize(edited), reminimized.size());
+			assertTrue(edits.toString(), AFDSamples.equivalent(edited, reminimized));
+		}
+	}
+
+	/**
+	 * Dois ciclos que passam a ser iguais não têm sucessores em comum, então
+	 * os pares de estados equivalentes só são encontrados pela impressão
+	 * digital da semente.
+	 */
+	@Test
+	public void cyclesBecomeEqual() {
+		State initial = new State("i");
+		State[] x = { new State("x0"), new State("x1"), new State("x2") };
+		State[] y = { new State("y0"), new State("y1"), new State("y2") };
+		Symbol a = AFDSamples.ALPHABET.getSymbol("a");
+		Symbol b = AFDSamples.ALPHABET.getSymbol("b");
+		initial.addTransition(a, x[0]);
+		initial.addTransition(b, y[0]);
+		for (int i = 0; i < 3; i++) {
+			x[i].addTransition(a, x[(i + 1) % 3]);
+			y[i].addTransition(a, y[(i + 1) % 3]);
+		}
+		y[1].addTransition(b, y[1]);
+		AFD afd = new AFD(AFDSamples.ALPHABET, initial, Arrays.asList(initial, x[0], x[1], x[2], y[0], y[1], y[2]), Arrays.asList(x[0], y[0]));
+		AFD minimized = AFDMinimizer.minimize(afd);
+		assertEquals(7, minimized.size());
+
+		State y1 = null;
+		for (State state : minimized.getStates()) {
+			for (Transition transition : state.getTransitions()) {
+				if (transition.getConsumed().getStr().equals("b") && transition.getDestination() == state) {
+					y1 = state;
+				}
+			}
+		}
+		AFD reminimized = AFDMinimizer.reminimize(minimized, Collections.singletonList(TransitionEdit.remove(y1, b)));
+		assertEquals(4, reminimized.size());
+	}
+
+	@Test
+	public void newSymbol() {
+		AFD minimized = AFDMinimizer.minimize(AFDSamples.cyclic(new Random(1), 6));
+		State initial = minimized.getInitialState();
+		Symbol d = new Alphabet("d").getSymbol("d");
+		AFD reminimized = AFDMinimizer.reminimize(minimized, Collections.singletonList(TransitionEdit.add(initial, d, initial)));
+		assertEquals(4, reminimized.getAlphabet().size());
+		assertEquals(minimized.size(), reminimized.size());
+	}
+
+	@Test(expected = ValidationException.class)
+	public void rejectsTwoDeadStates() {
+		State initial = new State("p");
+		State dead1 = new State("d1");
+		State dead2 = new State("d2");
+		initial.addTransition(AFDSamples.ALPHABET.getSymbol("a"), dead1);
+		initial.addTransition(AFDSamples.ALPHABET.getSymbol("b"), dead2);
+		AFD afd = new AFD(AFDSamples.ALPHABET, initial, Arrays.asList(initial, dead1, dead2), Arrays.asList(initial));
+		AFDMinimizer.reminimize(afd, Collections.singletonList(TransitionEdit.add(dead1, AFDSamples.ALPHABET.getSymbol("a"), initial)));
+	}
+
+	@Test(expected = ValidationException.class)
+	public void rejectsIncompatibleEdit() {
+		State state = new State("q0");
+		state.addTransition(AFDSamples.ALPHABET.getSymbol("a"), state);
+		AFD afd = new AFD(AFDSamples.ALPHABET, state, Arrays.asList(state), Arrays.asList(state));
+		AFDMinimizer.reminimize(afd, Collections.singletonList(TransitionEdit.add(state, AFDSamples.ALPHABET.getSymbol("a"), state)));
+	}
+
+	/**
+	 * Em um ciclo longo com um único estado final, as impressões digitais não
+	 * separam os estados distantes do final, então cada semente teria quase
+	 * todos os estados como candidatos. Os pares passam do limite de trabalho
+	 * logo no início, e o AFD é minimizado por inteiro.
+	 */
+	@Test
+	public void largeBatch() {
+		int n = 100000;
+		State[] states = new State[n];
+		for (int i = 0; i < n; i++) {
+			states[i] = new State("q" + i);
+		}
+		Symbol a = AFDSamples.ALPHABET.getSymbol("a");
+		Symbol b = AFDSamples.ALPHABET.getSymbol("b");
+		for (int i = 0; i < n; i++) {
+			states[i].addTransition(a, states[(i + 1) % n]);
+		}
+		AFD minimized = new AFD(AFDSamples.ALPHABET, states[0], Arrays.asList(states), Arrays.asList(states[0]));
+		List<TransitionEdit> edits = new ArrayList<>();
+		for (int i = 0; i < n; i += 10) {
+			edits.add(TransitionEdit.add(states[i], b, states[0]));
+		}
+		AFD reminimized = AFDMinimizer.reminimize(minimized, edits);
+		assertEquals(n, reminimized.size());
+
+		for (int i = 0; i < n; i += 10) {
+			states[i].addTransition(b, states[0]);
+		}
+		assertTrue(AFDSamples.equivalent(minimized, reminimized));
+	}
+}
@@ -0,0 +1,77 @@
+package com.lfa.minimize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+import com.lfa.automata.afd.AFD;
+import com.lfa.automata.afd.State;
+import com.lfa.constants.Alphabet.Symbol;
+
+/**
+ * Testes de {@link AFDMinimizer#minimize(AFD, Function)} e
+ * {@link AFDMinimizer#partition(AFD, Function)}.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+public class LabelledMinimizationTest {
+
+	@Test
+	public void keepsDifferentTagsApart() {
+		// "a" e "b" levam a estados finais equivalentes, um para cada token.
+		State initial = new State("q0");
+		State identifier = new State("id");
+		State number = new State("num");
+		Symbol a = AFDSamples.ALPHABET.getSymbol("a");
+		Symbol b = AFDSamples.ALPHABET.getSymbol("b");
+		initial.addTransition(a, identifier);
+		initial.addTransition(b, number);
+		AFD afd = new AFD(AFDSamples.ALPHABET, initial, Arrays.asList(initial, identifier, number), Arrays.asList(identifier, number));
+
+		assertEquals(2, AFDMinimizer.minimize(afd).size());
+		assertEquals(3, AFDMinimizer.minimize(afd, State::getName).size());
+
+		StatePartition partition = AFDMinimizer.partition(afd, State::getName);
+		assertNotEquals(partition.classOf(1), partition.classOf(2));
+		assertEquals(3, AFDMinimizer.materialize(partition).size());
+	}
+
+	@Test
+	public void classesHaveOneTag() {
+		Function<State, Object> tagOf = state -> state.getName().hashCode() % 3;
+		List<AFD> samples = AFDSamples.samples(31, 200);
+		for (int i = 0; i < samples.size(); i++) {
+			AFD afd = samples.get(i);
+			StatePartition partition = AFDMinimizer.partition(afd, tagOf);
+			Map<Integer, Object> tagOfClass = new HashMap<>();
+			for (int s = 0; s < afd.size(); s++) {
+				State state = afd.getStates().get(s);
+				int c = partition.classOf(s);
+				if (c != StatePartition.NONE && afd.getFinalStates().contains(state)) {
+					Object previous = tagOfClass.putIfAbsent(c, tagOf.apply(state));
+					assertTrue("AFD " + i, previous == null || previous.equals(tagOf.apply(state)));
+				}
+			}
+			AFD minimized = AFDMinimizer.minimize(afd, tagOf);
+			assertEquals("AFD " + i, partition.getClassCount(), minimized.size());
+			assertTrue("AFD " + i, minimized.size() >= AFDMinimizer.minimize(afd).size());
+			assertTrue("AFD " + i, AFDSamples.equivalent(afd, minimized));
+		}
+	}
+
+	@Test
+	public void singleTagMatchesMinimize() {
+		for (AFD afd : AFDSamples.samples(32, 200)) {
+			assertEquals(AFDMinimizer.partition(afd), AFDMinimizer.partition(afd, state -> "token"));
+			assertEquals(AFDMinimizer.minimize(afd).size(), AFDMinimizer.minimize(afd, state -> "token").size());
+		}
+	}
+}
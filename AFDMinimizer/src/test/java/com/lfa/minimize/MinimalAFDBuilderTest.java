@@ -0,0 +1,43 @@
+package com.lfa.minimize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.lfa.automata.afd.AFD;
+import com.lfa.constants.Alphabet;
+import com.lfa.exception.ValidationException;
+
+/**
+ * Testes de {@link MinimalAFDBuilder}. A equivalência com a minimização da
+ * árvore das palavras é testada em {@link MinimizerEquivalenceTest}.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+public class MinimalAFDBuilderTest {
+
+	@Test
+	public void sharesSuffixes() {
+		AFD afd = MinimalAFDBuilder.build(Arrays.asList("cat", "cats", "fat", "fats").iterator());
+		assertEquals(5, afd.size());
+		assertTrue(AFDMinimizer.isMinimal(afd));
+	}
+
+	@Test(expected = ValidationException.class)
+	public void rejectsUnsortedWords() {
+		MinimalAFDBuilder.build(Arrays.asList("b", "a").iterator());
+	}
+
+	@Test(expected = ValidationException.class)
+	public void rejectsWhitespace() {
+		MinimalAFDBuilder.build(Arrays.asList("new york", "newark").iterator());
+	}
+
+	@Test(expected = ValidationException.class)
+	public void rejectsLambda() {
+		new MinimalAFDBuilder().add("a" + Alphabet.LAMBDA);
+	}
+}
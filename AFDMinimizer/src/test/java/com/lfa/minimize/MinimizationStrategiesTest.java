@@ -0,0 +1,42 @@
+package com.lfa.minimize;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.lfa.automata.afd.AFD;
+
+/**
+ * Testes de {@link MinimizationStrategies} e da seleção feita por
+ * {@link AFDMinimizer#minimize(AFD)}.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+public class MinimizationStrategiesTest {
+
+	@Test
+	public void minimizeUsesSelectedStrategy() {
+		List<AFD> samples = AFDSamples.samples(61, 200);
+		for (int i = 0; i < samples.size(); i++) {
+			AFD afd = samples.get(i);
+			MinimizationStrategy selected = MinimizationStrategies.select(AFDStatistics.of(afd));
+			assertEquals("AFD " + i, AFDMinimizer.minimizeByStrategy(afd, selected.getName()), AFDMinimizer.minimize(afd));
+		}
+	}
+
+	@Test
+	public void selectsRevuzForAcyclic() {
+		AFD trie = AFDSamples.trie(Arrays.asList("a", "ab", "abc", "b", "ba", "bac", "c", "cab"));
+		assertEquals("revuz", MinimizationStrategies.select(AFDStatistics.of(trie)).getName());
+	}
+
+	@Test
+	public void registersBuiltInStrategies() {
+		for (String name : Arrays.asList("hopcroft", "revuz", "parallel", "partial", "scc", "signatures", "brzozowski", "groups")) {
+			assertEquals(name, MinimizationStrategies.getStrategy(name).getName());
+		}
+	}
+}
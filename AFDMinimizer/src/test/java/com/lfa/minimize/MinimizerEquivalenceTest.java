@@ -0,0 +1,159 @@
+package com.lfa.minimize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import org.junit.Test;
+
+import com.lfa.automata.afd.AFD;
+
+/**
+ * Compara o resultado de cada minimizador com o minimizador original,
+ * {@link AFDMinimizer#minimizeByGroups(AFD)}: o AFD resultante deve ter o
+ * mesmo número de estados e reconhecer a mesma linguagem do AFD original.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+public class MinimizerEquivalenceTest {
+
+	private static final List<AFD> SAMPLES = AFDSamples.samples(42, 400);
+
+	private static void assertMinimal(String engine, Function<AFD, AFD> minimizer) {
+		assertMinimal(engine, minimizer, AFDSamples::referenceSize);
+	}
+
+	private static void assertMinimal(String engine, Function<AFD, AFD> minimizer, ToIntFunction<AFD> referenceSize) {
+		for (int i = 0; i < SAMPLES.size(); i++) {
+			AFD original = SAMPLES.get(i);
+			AFD minimized = minimizer.apply(original);
+			assertEquals(engine + ", AFD " + i, referenceSize.applyAsInt(original), minimized.size());
+			assertTrue(engine + ", AFD " + i, AFDSamples.equivalent(original, minimized));
+		}
+	}
+
+	private static void assertMinimalClasses(String engine, Function<IndexedAFD, int[]> refine) {
+		assertMinimal(engine, original -> {
+			Trimmer trimmer = new Trimmer(IndexedAFD.of(original));
+			return trimmer.quotient(refine.apply(trimmer.trimmed));
+		});
+	}
+
+	@Test
+	public void defaultMinimize() {
+		assertMinimal("minimize", AFDMinimizer::minimize);
+	}
+
+	@Test
+	public void hopcroft() {
+		assertMinimalClasses("Hopcroft", HopcroftMinimizer::refine);
+	}
+
+	@Test
+	public void valmari() {
+		assertMinimal("Valmari", AFDMinimizer::minimizePartial, AFDSamples::partialReferenceSize);
+	}
+
+	@Test
+	public void parallel() {
+		assertMinimal("paralelo", original -> AFDMinimizer.minimizeParallel(original, 3));
+	}
+
+	@Test
+	public void brzozowski() {
+		assertMinimal("Brzozowski", AFDMinimizer::minimizeBrzozowski);
+	}
+
+	@Test
+	public void signatures() {
+		assertMinimal("assinaturas", AFDMinimizer::minimizeBySignatures);
+	}
+
+	@Test
+	public void outOfCore() throws IOException {
+		File input = File.createTempFile("afd", ".afdt");
+		File output = File.createTempFile("afd", ".afdt");
+		try {
+			Random random = new Random(7);
+			for (int i = 0; i < SAMPLES.size(); i += 5) {
+				AFDTableFile.write(SAMPLES.get(i), input);
+				AFDMinimizer.minimizeOutOfCore(input, output, 64 + random.nextInt(4096));
+				AFD minimized = AFDTableFile.read(output);
+				assertEquals("AFD " + i, AFDSamples.referenceSize(SAMPLES.get(i)), minimized.size());
+				assertTrue("AFD " + i, AFDSamples.equivalent(SAMPLES.get(i), minimized));
+			}
+		} finally {
+			input.delete();
+			output.delete();
+		}
+	}
+
+	@Test
+	public void bitmask() {
+		assertMinimalClasses("bitmask", trimmed -> {
+			assertTrue(BitmaskMinimizer.fits(trimmed));
+			return BitmaskMinimizer.refine(trimmed);
+		});
+	}
+
+	@Test
+	public void symbolCompression() {
+		assertMinimalClasses("SymbolCompressor", trimmed -> HopcroftMinimizer.refine(SymbolCompressor.compress(trimmed)));
+	}
+
+	@Test
+	public void sccs() {
+		assertMinimal("SCCs", AFDMinimizer::minimizeBySCCs);
+	}
+
+	@Test
+	public void revuz() {
+		for (int i = 2; i < SAMPLES.size(); i += 4) {
+			Trimmer trimmer = new Trimmer(IndexedAFD.of(SAMPLES.get(i)));
+			int[] classes = RevuzMinimizer.refine(trimmer.trimmed);
+			assertNotNull("AFD " + i, classes);
+			AFD minimized = trimmer.quotient(classes);
+			assertEquals("AFD " + i, AFDSamples.referenceSize(SAMPLES.get(i)), minimized.size());
+			assertTrue("AFD " + i, AFDSamples.equivalent(SAMPLES.get(i), minimized));
+		}
+	}
+
+	@Test
+	public void daciuk() {
+		Random random = new Random(3);
+		for (int i = 0; i < 200; i++) {
+			TreeSet<String> words = new TreeSet<>();
+			int count = random.nextInt(40);
+			for (int w = 0; w < count; w++) {
+				StringBuilder word = new StringBuilder();
+				int length = random.nextInt(7);
+				for (int c = 0; c < length; c++) {
+					word.append("abc".charAt(random.nextInt(3)));
+				}
+				words.add(word.toString());
+			}
+			AFD trie = AFDSamples.trie(words);
+			AFD minimized = MinimalAFDBuilder.build(new ArrayList<>(words).iterator());
+			assertEquals("palavras " + words, AFDSamples.referenceSize(trie), minimized.size());
+			assertTrue("palavras " + words, AFDSamples.equivalent(trie, minimized));
+		}
+	}
+
+	@Test
+	public void strategies() {
+		for (MinimizationStrategy strategy : MinimizationStrategies.getStrategies()) {
+			if (!strategy.getName().equals("revuz")) {
+				assertMinimal(strategy.getName(), original -> AFDMinimizer.minimizeByStrategy(original, strategy.getName()));
+			}
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package com.lfa.minimize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.lfa.automata.afd.AFD;
+import com.lfa.automata.afd.State;
+import com.lfa.parse.InputParser;
+
+/**
+ * Testes de {@link AFDMinimizer#partition(AFD)} e
+ * {@link AFDMinimizer#isMinimal(AFD)}.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+public class StatePartitionTest {
+
+	@Test
+	public void completeWithOneSinkIsMinimal() {
+		AFD afd = InputParser.parse("E(2):A,B; A(2):0,1; T(2): A->{A,B}, B->{B,B}; I(1):A; F(1):A;");
+		StatePartition partition = AFDMinimizer.partition(afd);
+		assertTrue(partition.isMinimal());
+		assertEquals(0, partition.getUnreachableStates());
+		assertEquals(0, partition.getDeadStates());
+		assertEquals(2, partition.getClassCount());
+		assertTrue(AFDMinimizer.isMinimal(afd));
+		assertEquals(2, AFDMinimizer.materialize(partition).size());
+	}
+
+	@Test
+	public void completeWithTwoDeadStatesIsNotMinimal() {
+		AFD afd = InputParser.parse("E(3):A,B,C; A(2):0,1; T(3): A->{A,B}, B->{C,C}, C->{B,B}; I(1):A; F(1):A;");
+		StatePartition partition = AFDMinimizer.partition(afd);
+		assertFalse(partition.isMinimal());
+		assertEquals(1, partition.getDeadStates());
+		assertEquals(partition.classOf(1), partition.classOf(2));
+		assertFalse(AFDMinimizer.isMinimal(afd));
+	}
+
+	@Test
+	public void partialWithDeadStateIsNotMinimal() {
+		State a = new State("A");
+		State b = new State("B");
+		a.addTransition(AFDSamples.ALPHABET.getSymbol("a"), a);
+		a.addTransition(AFDSamples.ALPHABET.getSymbol("b"), b);
+		AFD afd = new AFD(AFDSamples.ALPHABET, a, Arrays.asList(a, b), Arrays.asList(a));
+		StatePartition partition = AFDMinimizer.partition(afd);
+		assertFalse(partition.isMinimal());
+		assertEquals(1, partition.getDeadStates());
+		assertEquals(StatePartition.NONE, partition.classOf(1));
+		assertFalse(AFDMinimizer.isMinimal(afd));
+	}
+
+	@Test
+	public void materializeMatchesMinimize() {
+		List<AFD> samples = AFDSamples.samples(23, 200);
+		for (int i = 0; i < samples.size(); i++) {
+			AFD afd = samples.get(i);
+			StatePartition partition = AFDMinimizer.partition(afd);
+			AFD minimized = AFDMinimizer.minimize(afd);
+			assertEquals("AFD " + i, minimized.size(), partition.getClassCount());
+			assertEquals("AFD " + i, minimized.size(), AFDMinimizer.materialize(partition).size());
+			assertEquals("AFD " + i, afd.size() == minimized.size(), partition.isMinimal());
+			assertEquals("AFD " + i, partition.isMinimal(), AFDMinimizer.isMinimal(afd));
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package com.lfa.minimize;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.lfa.constants.Alphabet;
+
+/**
+ * Testes de {@link SymbolCompressor}.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+public class SymbolCompressorTest {
+
+	/**
+	 * Monta um AFD indexado aleatório em que a coluna de cada símbolo é igual
+	 * à do símbolo de índice a % groups.
+	 *
+	 * @param random
+	 *            O gerador.
+	 * @param n
+	 *            O número de estados.
+	 * @param k
+	 *            O número de símbolos.
+	 * @param groups
+	 *            O número de colunas distintas.
+	 * @return O AFD indexado.
+	 */
+	private static IndexedAFD repeatedColumns(Random random, int n, int k, int groups) {
+		List<String> symbols = new ArrayList<>();
+		for (int a = 0; a < k; a++) {
+			symbols.add("s" + a);
+		}
+		int[] table = new int[n * k];
+		for (int s = 0; s < n; s++) {
+			for (int a = 0; a < k; a++) {
+				table[s * k + a] = a < groups ? random.nextInt(n) : table[s * k + a % groups];
+			}
+		}
+		BitSet finals = new BitSet(n);
+		finals.set(0);
+		return new IndexedAFD(n, new Alphabet(symbols), table, finals, 0);
+	}
+
+	@Test
+	public void groupsIdenticalColumns() {
+		Random random = new Random(4);
+		for (int groups = 1; groups <= 40; groups++) {
+			IndexedAFD afd = repeatedColumns(random, 30, 97, groups);
+			IndexedAFD compressed = SymbolCompressor.compress(afd);
+			assertEquals(groups, compressed.alphabetSize());
+			for (int c = 0; c < groups; c++) {
+				assertEquals("s" + c, compressed.symbols[c].getStr());
+				for (int s = 0; s < afd.size; s++) {
+					assertEquals(afd.next(s, c), compressed.next(s, c));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void keepsDistinctColumns() {
+		IndexedAFD afd = repeatedColumns(new Random(5), 50, 20, 20);
+		assertSame(afd, SymbolCompressor.compress(afd));
+	}
+
+	@Test
+	public void sameResultAsHopcroft() {
+		for (int i = 0; i < 100; i++) {
+			IndexedAFD afd = repeatedColumns(new Random(i), 1 + i % 40, 12, 1 + i % 5);
+			assertArrayEquals(HopcroftMinimizer.refine(afd), HopcroftMinimizer.refine(SymbolCompressor.compress(afd)));
+		}
+	}
+}
@@ -0,0 +1,186 @@
+package com.lfa.minimize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+import com.lfa.automata.afd.AFD;
+import com.lfa.automata.afd.CompactAFD;
+import com.lfa.automata.afd.State;
+import com.lfa.constants.Alphabet.Symbol;
+
+/**
+ * Testes do tratamento dos estados mortos: um AFD completo resulta em um AFD
+ * mínimo completo, com um único estado de descarte, e um AFD parcial resulta
+ * em um AFD mínimo parcial.
+ *
+ * @author Andre Brait (andrebrait@gmail.com)
+ */
+public class TrimmerTest {
+
+	private static final List<AFD> SAMPLES = deadRegions(new Random(11), 200);
+
+	/**
+	 * Gera AFDs completos em que os últimos estados formam uma região não
+	 * final, sem saída, alcançável a partir dos demais.
+	 *
+	 * @param random
+	 *            O gerador.
+	 * @param count
+	 *            A quantidade de AFDs.
+	 * @return Os AFDs.
+	 */
+	private static List<AFD> deadRegions(Random random, int count) {
+		List<AFD> samples = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			int live = 1 + random.nextInt(12);
+			int dead = 1 + random.nextInt(4);
+			State[] states = new State[live + dead];
+			for (int s = 0; s < states.length; s++) {
+				states[s] = new State("q" + s);
+			}
+			List<State> finals = new ArrayList<>();
+			for (int s = 0; s < states.length; s++) {
+				for (int a = 0; a < AFDSamples.ALPHABET.size(); a++) {
+					int d = s < live ? random.nextInt(states.length) : live + random.nextInt(dead);
+					states[s].addTransition(AFDSamples.ALPHABET.getSymbol(a), states[d]);
+				}
+				if (s < live && random.nextInt(3) == 0) {
+					finals.add(states[s]);
+				}
+			}
+			samples.add(new AFD(AFDSamples.ALPHABET, states[0], Arrays.asList(states), finals));
+		}
+		return samples;
+	}
+
+	private static void assertCompleteAndMinimal(String engine, Function<AFD, AFD> minimizer) {
+		for (int i = 0; i < SAMPLES.size(); i++) {
+			AFD original = SAMPLES.get(i);
+			AFD minimized = minimizer.apply(original);
+			assertEquals(engine + ", AFD " + i, AFDSamples.referenceSize(original), minimized.size());
+			assertTrue(engine + ", AFD " + i, IndexedAFD.of(minimized).isComplete());
+			assertTrue(engine + ", AFD " + i, AFDSamples.equivalent(original, minimized));
+		}
+	}
+
+	@Test
+	public void completeInputKeepsOneSink() {
+		assertCompleteAndMinimal("minimize", AFDMinimizer::minimize);
+		assertCompleteAndMinimal("tabela", original -> AFDMinimizer.minimize(CompactAFD.of(original)).toAFD());
+		assertCompleteAndMinimal("paralelo", original -> AFDMinimizer.minimizeParallel(original, 2));
+		assertCompleteAndMinimal("SCCs", AFDMinimizer::minimizeBySCCs);
+		assertCompleteAndMinimal("assinaturas", AFDMinimizer::minimizeBySignatures);
+		assertCompleteAndMinimal("Brzozowski", AFDMinimizer::minimizeBrzozowski);
+		for (MinimizationStrategy strategy : MinimizationStrategies.getStrategies()) {
+			if (!strategy.getName().equals("revuz")) {
+				assertCompleteAndMinimal(strategy.getName(), original -> AFDMinimizer.minimizeByStrategy(original, strategy.getName()));
+			}
+		}
+	}
+
+	@Test
+	public void outOfCoreKeepsOneSink() throws IOException {
+		File input = File.createTempFile("afd", ".afdt");
+		File output = File.createTempFile("afd", ".afdt");
+		try {
+			assertCompleteAndMinimal("out-of-core", original -> {
+				try {
+					AFDTableFile.write(original, input);
+					AFDMinimizer.minimizeOutOfCore(input, output, 1 << 12);
+					return AFDTableFile.read(output);
+				} catch (IOException e) {
+					throw new IllegalStateException(e);
+				}
+			});
+		} finally {
+			input.delete();
+			output.delete();
+		}
+	}
+
+	@Test
+	public void partialInputDropsDeadStates() {
+		State p = new State("p");
+		State d1 = new State("d1");
+		State d2 = new State("d2");
+		Symbol a = AFDSamples.ALPHABET.getSymbol("a");
+		Symbol b = AFDSamples.ALPHABET.getSymbol("b");
+		p.addTransition(a, p);
+		p.addTransition(b, d1);
+		d1.addTransition(a, d2);
+		d2.addTransition(a, d1);
+		AFD afd = new AFD(AFDSamples.ALPHABET, p, Arrays.asList(p, d1, d2), Arrays.asList(p));
+		AFD minimized = AFDMinimizer.minimize(afd);
+		assertEquals(1, minimized.size());
+		assertFalse(IndexedAFD.of(minimized).isComplete());
+
+		TrimResult trimmed = AFDMinimizer.trim(afd);
+		assertEquals(1, trimmed.getAfd().size());
+		assertEquals(2, trimmed.getDeadStates());
+	}
+
+	@Test
+	public void trimKeepsFirstDeadState() {
+		for (AFD afd : SAMPLES) {
+			Trimmer trimmer = new Trimmer(IndexedAFD.of(afd));
+			TrimResult trimmed = AFDMinimizer.trim(afd);
+			assertTrue(IndexedAFD.of(trimmed.getAfd()).isComplete());
+			assertEquals(afd.size(), trimmed.getAfd().size() + trimmed.getRemovedStates());
+			assertTrue(AFDSamples.equivalent(afd, trimmed.getAfd()));
+			if (trimmer.sink && !trimmer.trimmed.finals.isEmpty()) {
+				assertEquals(trimmer.dead - 1, trimmed.getDeadStates());
+				assertTrue(trimmed.getAfd().getStates().contains(new State(afd.getStates().get(trimmer.firstDead).getName())));
+			}
+		}
+	}
+
+	@Test
+	public void emptyLanguage() {
+		State p = new State("p");
+		State q = new State("q");
+		for (int a = 0; a < AFDSamples.ALPHABET.size(); a++) {
+			p.addTransition(AFDSamples.ALPHABET.getSymbol(a), q);
+			q.addTransition(AFDSamples.ALPHABET.getSymbol(a), p);
+		}
+		AFD minimized = AFDMinimizer.minimize(new AFD(AFDSamples.ALPHABET, p, Arrays.asList(p, q), Arrays.<State> asList()));
+		assertEquals(1, minimized.size());
+		assertTrue(IndexedAFD.of(minimized).isComplete());
+		assertTrue(minimized.getFinalStates().isEmpty());
+	}
+
+	@Test
+	public void reminimizeKeepsOneSink() {
+		Random random = new Random(12);
+		for (AFD sample : SAMPLES) {
+			AFD minimized = AFDMinimizer.minimize(sample);
+			IndexedAFD indexed = IndexedAFD.of(minimized);
+			int[] table = indexed.table.clone();
+			List<TransitionEdit> edits = new ArrayList<>();
+			for (int e = 0; e < 2; e++) {
+				int s = random.nextInt(indexed.size);
+				int a = random.nextInt(indexed.alphabetSize());
+				int d = random.nextInt(indexed.size);
+				if (table[s * indexed.alphabetSize() + a] != d) {
+					edits.add(TransitionEdit.redirect(minimized.getStates().get(s), indexed.symbols[a], minimized.getStates().get(d)));
+					table[s * indexed.alphabetSize() + a] = d;
+				}
+			}
+			AFD edited = new IndexedAFD(indexed.size, indexed.alphabet, table, indexed.finals, indexed.initial).toAFD();
+			AFD reminimized = AFDMinimizer.reminimize(minimized, edits);
+			assertEquals(edits.toString(), AFDSamples.referenceSize(edited), reminimized.size());
+			assertTrue(edits.toString(), IndexedAFD.of(reminimized).isComplete());
+			assertTrue(edits.toString(), AFDSamples.equivalent(edited, reminimized));
+		}
+	}
+}